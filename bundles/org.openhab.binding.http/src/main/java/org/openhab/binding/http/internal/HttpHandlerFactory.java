@@ -20,6 +20,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry;
 import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.io.net.http.HttpClientFactory;
 import org.openhab.core.thing.Thing;
@@ -51,6 +52,7 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory implements HttpC
 
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
     private final TimeZoneProvider timeZoneProvider;
+    private final RefreshingUrlCacheRegistry refreshingUrlCacheRegistry = new RefreshingUrlCacheRegistry();
 
     @Activate
     public HttpHandlerFactory(@Reference HttpClientFactory httpClientFactory,
@@ -94,7 +96,8 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory implements HttpC
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (THING_TYPE_URL.equals(thingTypeUID)) {
-            return new HttpThingHandler(thing, this, httpDynamicStateDescriptionProvider, timeZoneProvider);
+            return new HttpThingHandler(thing, this, httpDynamicStateDescriptionProvider, timeZoneProvider,
+                    refreshingUrlCacheRegistry);
         }
 
         return null;
@@ -20,6 +20,7 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
@@ -29,6 +30,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -43,7 +45,8 @@ import org.openhab.binding.http.internal.http.HttpAuthException;
 import org.openhab.binding.http.internal.http.HttpResponseListener;
 import org.openhab.binding.http.internal.http.HttpStatusListener;
 import org.openhab.binding.http.internal.http.RateLimitedHttpClient;
-import org.openhab.binding.http.internal.http.RefreshingUrlCache;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry.Subscription;
 import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.library.types.PointType;
@@ -90,20 +93,23 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
     private final RateLimitedHttpClient rateLimitedHttpClient;
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
     private final TimeZoneProvider timeZoneProvider;
+    private final RefreshingUrlCacheRegistry refreshingUrlCacheRegistry;
 
     private HttpThingConfig config = new HttpThingConfig();
-    private final Map<String, RefreshingUrlCache> urlHandlers = new HashMap<>();
+    private final Map<String, StateRequest> stateRequests = new HashMap<>();
+    private final Map<String, Subscription> urlSubscriptions = new HashMap<>();
     private final Map<ChannelUID, ChannelHandler> channels = new HashMap<>();
     private final Map<ChannelUID, String> channelUrls = new HashMap<>();
 
     public HttpThingHandler(Thing thing, HttpClientProvider httpClientProvider,
             HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider,
-            TimeZoneProvider timeZoneProvider) {
+            TimeZoneProvider timeZoneProvider, RefreshingUrlCacheRegistry refreshingUrlCacheRegistry) {
         super(thing);
         this.httpClientProvider = httpClientProvider;
         this.rateLimitedHttpClient = new RateLimitedHttpClient(httpClientProvider.getSecureClient(), scheduler);
         this.httpDynamicStateDescriptionProvider = httpDynamicStateDescriptionProvider;
         this.timeZoneProvider = timeZoneProvider;
+        this.refreshingUrlCacheRegistry = refreshingUrlCacheRegistry;
     }
 
     @Override
@@ -117,10 +123,10 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
         if (command instanceof RefreshType) {
             String key = channelUrls.get(channelUID);
             if (key != null) {
-                RefreshingUrlCache refreshingUrlCache = urlHandlers.get(key);
-                if (refreshingUrlCache != null) {
+                Subscription subscription = urlSubscriptions.get(key);
+                if (subscription != null) {
                     try {
-                        refreshingUrlCache.get().ifPresentOrElse(itemValueConverter::process, () -> {
+                        subscription.get().ifPresentOrElse(itemValueConverter::process, () -> {
                             if (config.strictErrorHandling) {
                                 itemValueConverter.process(null);
                             }
@@ -227,7 +233,7 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
         // create channels
         thing.getChannels().forEach(this::createChannel);
 
-        int urlHandlerCount = urlHandlers.size();
+        int urlHandlerCount = stateRequests.size();
         if (urlHandlerCount * config.delay > config.refresh * 1000) {
             // this should prevent the rate limit queue from filling up
             config.refresh = (urlHandlerCount * config.delay) / 1000 + 1;
@@ -236,7 +242,11 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
                     urlHandlerCount, thing.getUID(), config.delay, config.refresh);
         }
 
-        urlHandlers.values().forEach(urlHandler -> urlHandler.start(scheduler, config.refresh));
+        // identical requests of other things are shared, see RefreshingUrlCacheRegistry
+        stateRequests.forEach((key, stateRequest) -> urlSubscriptions.put(key,
+                refreshingUrlCacheRegistry.subscribe(rateLimitedHttpClient, stateRequest.url(), config,
+                        stateRequest.content(), config.contentType, scheduler, config.refresh, this,
+                        stateRequest.consumers())));
 
         updateStatus(ThingStatus.UNKNOWN);
     }
@@ -244,11 +254,12 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
     @Override
     public void dispose() {
         // stop update tasks
-        urlHandlers.values().forEach(RefreshingUrlCache::stop);
+        urlSubscriptions.values().forEach(Subscription::close);
         rateLimitedHttpClient.shutdown();
 
         // clear lists
-        urlHandlers.clear();
+        urlSubscriptions.clear();
+        stateRequests.clear();
         channels.clear();
         channelUrls.clear();
 
@@ -332,11 +343,9 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
             // we need a key consisting of stateContent and URL, only if both are equal, we can use the same cache
             String key = channelConfig.stateContent + "$" + stateUrl;
             channelUrls.put(channelUID, key);
-            Objects.requireNonNull(
-                    urlHandlers.computeIfAbsent(key,
-                            k -> new RefreshingUrlCache(rateLimitedHttpClient, stateUrl, config,
-                                    channelConfig.stateContent, config.contentType, this)))
-                    .addConsumer(itemValueConverter::process);
+            Objects.requireNonNull(stateRequests.computeIfAbsent(key,
+                    k -> new StateRequest(stateUrl, channelConfig.stateContent, new ArrayList<>()))).consumers()
+                    .add(itemValueConverter::process);
         }
 
         StateDescription stateDescription = StateDescriptionFragmentBuilder.create()
@@ -430,4 +439,10 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
                 config) -> new GenericChannelHandler(toState, state, command, value, stateTrans, commandTrans, config);
         return createChannelHandler(factory, commandUrl, channelUID, channelConfig);
     }
+
+    /**
+     * The request for the state of the channels with the same state URL and state content
+     */
+    private record StateRequest(String url, String content, List<Consumer<@Nullable ChannelHandlerContent>> consumers) {
+    }
 }
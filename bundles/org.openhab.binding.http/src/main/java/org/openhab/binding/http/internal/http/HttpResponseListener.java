@@ -39,6 +39,7 @@ public class HttpResponseListener extends BufferingResponseListener {
     private final CompletableFuture<@Nullable ChannelHandlerContent> future;
     private final HttpStatusListener httpStatusListener;
     private final String fallbackEncoding;
+    private final @Nullable ChannelHandlerContent notModifiedContent;
 
     /**
      * the HttpResponseListener is responsible
@@ -49,10 +50,26 @@ public class HttpResponseListener extends BufferingResponseListener {
      */
     public HttpResponseListener(CompletableFuture<@Nullable ChannelHandlerContent> future,
             @Nullable String fallbackEncoding, int bufferSize, HttpStatusListener httpStatusListener) {
+        this(future, fallbackEncoding, bufferSize, httpStatusListener, null);
+    }
+
+    /**
+     * the HttpResponseListener is responsible
+     *
+     * @param future Content future to complete with the result of the request
+     * @param fallbackEncoding a fallback encoding for the content (UTF-8 if null)
+     * @param bufferSize the buffer size for the content in kB (default 2048 kB)
+     * @param notModifiedContent the content to complete the future with if the response is "304 Not Modified" (an
+     *            error if null)
+     */
+    public HttpResponseListener(CompletableFuture<@Nullable ChannelHandlerContent> future,
+            @Nullable String fallbackEncoding, int bufferSize, HttpStatusListener httpStatusListener,
+            @Nullable ChannelHandlerContent notModifiedContent) {
         super(bufferSize * 1024);
         this.future = future;
         this.fallbackEncoding = fallbackEncoding != null ? fallbackEncoding : StandardCharsets.UTF_8.name();
         this.httpStatusListener = httpStatusListener;
+        this.notModifiedContent = notModifiedContent;
     }
 
     @Override
@@ -92,6 +109,14 @@ public class HttpResponseListener extends BufferingResponseListener {
                             request.getURI(), request.getMethod(), request.getContent());
                     future.completeExceptionally(new HttpAuthException());
                     break;
+                case HttpStatus.NOT_MODIFIED_304:
+                    ChannelHandlerContent notModifiedContent = this.notModifiedContent;
+                    if (notModifiedContent != null) {
+                        future.complete(notModifiedContent);
+                        httpStatusListener.onHttpSuccess();
+                        break;
+                    }
+                    // not a conditional request, fall through
                 default:
                     logger.debug("Requesting '{}' (method='{}', content='{}') failed: {} {}", request.getURI(),
                             request.getMethod(), request.getContent(), response.getStatus(), response.getReason());
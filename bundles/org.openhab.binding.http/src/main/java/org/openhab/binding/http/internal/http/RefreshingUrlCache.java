@@ -15,8 +15,10 @@ package org.openhab.binding.http.internal.http;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
@@ -25,10 +27,14 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.openhab.binding.http.internal.Util;
 import org.openhab.binding.http.internal.config.HttpThingConfig;
@@ -40,6 +46,10 @@ import org.slf4j.LoggerFactory;
  * The {@link RefreshingUrlCache} is responsible for requesting from a single URL and passing the content to the
  * channels
  *
+ * GET requests are sent as conditional requests with the validators (<code>ETag</code> and
+ * <code>Last-Modified</code>) of the last content, a "304 Not Modified" response reuses the last content. The channels
+ * are only updated if the content has changed, unless <code>forceUpdate</code> is set.
+ *
  * @author Jan N. Klug - Initial contribution
  */
 @NonNullByDefault
@@ -49,6 +59,7 @@ public class RefreshingUrlCache {
     private final String url;
     private final RateLimitedHttpClient httpClient;
     private final boolean strictErrorHandling;
+    private final boolean forceUpdate;
     private final int timeout;
     private final int bufferSize;
     private final @Nullable String fallbackEncoding;
@@ -61,12 +72,14 @@ public class RefreshingUrlCache {
 
     private @Nullable ScheduledFuture<?> future;
     private @Nullable ChannelHandlerContent lastContent;
+    private @Nullable Validators lastValidators;
 
     public RefreshingUrlCache(RateLimitedHttpClient httpClient, String url, HttpThingConfig thingConfig,
             String httpContent, @Nullable String httpContentType, HttpStatusListener httpStatusListener) {
         this.httpClient = httpClient;
         this.url = url;
         this.strictErrorHandling = thingConfig.strictErrorHandling;
+        this.forceUpdate = thingConfig.forceUpdate;
         this.timeout = thingConfig.timeout;
         this.bufferSize = thingConfig.bufferSize;
         this.httpMethod = thingConfig.stateMethod;
@@ -115,6 +128,17 @@ public class RefreshingUrlCache {
                 request.timeout(timeout, TimeUnit.MILLISECONDS);
                 headers.forEach(request::header);
 
+                // a "304 Not Modified" response is only possible if the request has validators of the last content
+                ChannelHandlerContent cachedContent = lastContent;
+                Validators validators = lastValidators;
+                if (httpMethod != HttpMethod.GET || cachedContent == null || validators == null) {
+                    cachedContent = null;
+                } else {
+                    validators.addTo(request);
+                }
+                AtomicReference<@Nullable Validators> responseValidators = new AtomicReference<>();
+                request.onResponseHeaders(response -> responseValidators.set(Validators.of(response.getHeaders())));
+
                 CompletableFuture<@Nullable ChannelHandlerContent> responseContentFuture = new CompletableFuture<>();
                 responseContentFuture.exceptionally(t -> {
                     if (t instanceof HttpAuthException) {
@@ -126,14 +150,14 @@ public class RefreshingUrlCache {
                         }
                     }
                     return null;
-                }).thenAccept(this::processResult);
+                }).thenAccept(content -> processResult(content, responseValidators.get()));
 
                 if (logger.isTraceEnabled()) {
                     logger.trace("Sending to '{}': {}", uri, Util.requestToLogString(request));
                 }
 
                 request.send(new HttpResponseListener(responseContentFuture, fallbackEncoding, bufferSize,
-                        httpStatusListener));
+                        httpStatusListener, cachedContent));
             }).exceptionally(e -> {
                 if (e instanceof CancellationException) {
                     logger.debug("Request to URL {} was cancelled by thing handler.", uri);
@@ -151,12 +175,25 @@ public class RefreshingUrlCache {
         consumers.add(consumer);
     }
 
+    public void removeConsumer(Consumer<@Nullable ChannelHandlerContent> consumer) {
+        consumers.remove(consumer);
+    }
+
     public Optional<ChannelHandlerContent> get() {
         return Optional.ofNullable(lastContent);
     }
 
-    private void processResult(@Nullable ChannelHandlerContent content) {
-        if (content != null || strictErrorHandling) {
+    private void processResult(@Nullable ChannelHandlerContent content, @Nullable Validators validators) {
+        ChannelHandlerContent lastContent = this.lastContent;
+        if (content == null) {
+            lastValidators = null;
+        } else if (content != lastContent) {
+            // the same instance is returned for a "304 Not Modified" response, then the validators are kept
+            lastValidators = validators;
+        }
+        if (content != null && lastContent != null && !forceUpdate && isSameContent(content, lastContent)) {
+            logger.trace("Content of URL {} has not changed, skipping update of channels", url);
+        } else if (content != null || strictErrorHandling) {
             for (Consumer<@Nullable ChannelHandlerContent> consumer : consumers) {
                 try {
                     consumer.accept(content);
@@ -165,6 +202,34 @@ public class RefreshingUrlCache {
                 }
             }
         }
-        lastContent = content;
+        this.lastContent = content;
+    }
+
+    private static boolean isSameContent(ChannelHandlerContent content, ChannelHandlerContent other) {
+        return content == other || (Arrays.equals(content.getRawContent(), other.getRawContent())
+                && Objects.equals(content.getMediaType(), other.getMediaType()));
+    }
+
+    /**
+     * The validators of a response, which are sent with the next request to make it conditional
+     */
+    private record Validators(@Nullable String eTag, @Nullable String lastModified) {
+
+        static @Nullable Validators of(HttpFields fields) {
+            String eTag = fields.get(HttpHeader.ETAG);
+            String lastModified = fields.get(HttpHeader.LAST_MODIFIED);
+            return eTag == null && lastModified == null ? null : new Validators(eTag, lastModified);
+        }
+
+        void addTo(Request request) {
+            String eTag = this.eTag;
+            if (eTag != null) {
+                request.header(HttpHeader.IF_NONE_MATCH, eTag);
+            }
+            String lastModified = this.lastModified;
+            if (lastModified != null) {
+                request.header(HttpHeader.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
     }
 }
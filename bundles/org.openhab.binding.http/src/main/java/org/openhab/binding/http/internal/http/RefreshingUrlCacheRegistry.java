@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.http.HttpMethod;
+import org.openhab.binding.http.internal.config.HttpAuthMode;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.core.thing.binding.generic.ChannelHandlerContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RefreshingUrlCacheRegistry} shares one {@link RefreshingUrlCache} between all subscriptions with the same
+ * request, so identical requests of different things are only sent once per refresh interval.
+ *
+ * A shared cache refreshes with the shortest refresh time of its subscriptions and passes the content to the consumers
+ * and the request status to the status listeners of all subscriptions. The requests are sent by the HTTP client of the
+ * oldest subscription, the cache is restarted with the client of the next subscription if that one is closed.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheRegistry {
+    private final Logger logger = LoggerFactory.getLogger(RefreshingUrlCacheRegistry.class);
+
+    private final Map<RequestSpec, SharedUrlCache> caches = new HashMap<>();
+
+    /**
+     * Subscribe to the content of a URL
+     *
+     * @param httpClient the client to send the requests with
+     * @param url the URL (may contain a date format)
+     * @param thingConfig the configuration of the subscribing thing
+     * @param httpContent the content of the request
+     * @param httpContentType the content type of the request
+     * @param scheduler the executor for the refresh task
+     * @param refreshTime the refresh time in s
+     * @param httpStatusListener the listener for the request status
+     * @param consumers the consumers for the content
+     * @return the subscription, to be closed if the content is no longer needed
+     */
+    public Subscription subscribe(RateLimitedHttpClient httpClient, String url, HttpThingConfig thingConfig,
+            String httpContent, @Nullable String httpContentType, ScheduledExecutorService scheduler, int refreshTime,
+            HttpStatusListener httpStatusListener, List<Consumer<@Nullable ChannelHandlerContent>> consumers) {
+        RequestSpec spec = RequestSpec.of(url, thingConfig, httpContent, httpContentType);
+        Subscription subscription = new Subscription(spec, httpClient, thingConfig, scheduler, refreshTime,
+                httpStatusListener, List.copyOf(consumers));
+        synchronized (caches) {
+            SharedUrlCache sharedCache = caches.computeIfAbsent(spec, SharedUrlCache::new);
+            sharedCache.add(subscription);
+            logger.debug("Subscribed to '{}', {} subscription(s) share the request ({} shared, {} deduplicated)", url,
+                    sharedCache.subscriptions.size(), getSharedCount(), getDeduplicatedCount());
+        }
+        return subscription;
+    }
+
+    /**
+     * Get the number of caches sending requests
+     *
+     * @return the number of caches
+     */
+    public int getCacheCount() {
+        synchronized (caches) {
+            return caches.size();
+        }
+    }
+
+    /**
+     * Get the number of caches shared by more than one subscription
+     *
+     * @return the number of shared caches
+     */
+    public int getSharedCount() {
+        synchronized (caches) {
+            return (int) caches.values().stream().filter(cache -> cache.subscriptions.size() > 1).count();
+        }
+    }
+
+    /**
+     * Get the number of subscriptions which don't need their own cache, i.e. the number of requests saved per refresh
+     *
+     * @return the number of deduplicated subscriptions
+     */
+    public int getDeduplicatedCount() {
+        synchronized (caches) {
+            return caches.values().stream().mapToInt(cache -> cache.subscriptions.size() - 1).sum();
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        synchronized (caches) {
+            SharedUrlCache sharedCache = caches.get(subscription.spec);
+            if (sharedCache != null && sharedCache.remove(subscription)) {
+                if (sharedCache.subscriptions.isEmpty()) {
+                    caches.remove(subscription.spec);
+                }
+                logger.debug("Unsubscribed from '{}' ({} shared, {} deduplicated)", subscription.spec.url(),
+                        getSharedCount(), getDeduplicatedCount());
+            }
+        }
+    }
+
+    /**
+     * All settings of a thing that have an influence on the request or on the processing of the response
+     */
+    private record RequestSpec(String url, HttpMethod method, String content, @Nullable String contentType,
+            Map<String, String> headers, int timeout, int bufferSize, @Nullable String encoding,
+            boolean strictErrorHandling, boolean forceUpdate, boolean ignoreSSLErrors, HttpAuthMode authMode,
+            String username, String password) {
+
+        static RequestSpec of(String url, HttpThingConfig thingConfig, String content, @Nullable String contentType) {
+            return new RequestSpec(url, thingConfig.stateMethod, content, contentType, thingConfig.getHeaders(),
+                    thingConfig.timeout, thingConfig.bufferSize, thingConfig.encoding, thingConfig.strictErrorHandling,
+                    thingConfig.forceUpdate, thingConfig.ignoreSSLErrors, thingConfig.authMode, thingConfig.username,
+                    thingConfig.password);
+        }
+    }
+
+    /**
+     * A subscription to the content of a URL
+     */
+    public class Subscription {
+        private final RequestSpec spec;
+        private final RateLimitedHttpClient httpClient;
+        private final HttpThingConfig thingConfig;
+        private final ScheduledExecutorService scheduler;
+        private final int refreshTime;
+        private final HttpStatusListener httpStatusListener;
+        private final List<Consumer<@Nullable ChannelHandlerContent>> consumers;
+        private volatile @Nullable SharedUrlCache sharedCache;
+
+        private Subscription(RequestSpec spec, RateLimitedHttpClient httpClient, HttpThingConfig thingConfig,
+                ScheduledExecutorService scheduler, int refreshTime, HttpStatusListener httpStatusListener,
+                List<Consumer<@Nullable ChannelHandlerContent>> consumers) {
+            this.spec = spec;
+            this.httpClient = httpClient;
+            this.thingConfig = thingConfig;
+            this.scheduler = scheduler;
+            this.refreshTime = refreshTime;
+            this.httpStatusListener = httpStatusListener;
+            this.consumers = consumers;
+        }
+
+        /**
+         * Get the last content of the shared cache
+         *
+         * @return the content, empty if no content was received yet or the last request failed
+         */
+        public Optional<ChannelHandlerContent> get() {
+            SharedUrlCache sharedCache = this.sharedCache;
+            return sharedCache == null ? Optional.empty() : sharedCache.get();
+        }
+
+        /**
+         * Stop passing content to the consumers of this subscription
+         */
+        public void close() {
+            unsubscribe(this);
+        }
+    }
+
+    /**
+     * The cache of all subscriptions with the same request, all methods are called with the registry lock held
+     */
+    private class SharedUrlCache implements HttpStatusListener {
+        private final RequestSpec spec;
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private volatile @Nullable RefreshingUrlCache cache;
+        private @Nullable Subscription owner;
+        private int refreshTime;
+
+        private SharedUrlCache(RequestSpec spec) {
+            this.spec = spec;
+        }
+
+        private void add(Subscription subscription) {
+            subscriptions.add(subscription);
+            subscription.sharedCache = this;
+            RefreshingUrlCache cache = this.cache;
+            if (cache == null || subscription.refreshTime < refreshTime) {
+                restart();
+            } else {
+                subscription.consumers.forEach(cache::addConsumer);
+                // the content is only passed on if it changes, so a new subscription needs the current content
+                cache.get().ifPresent(content -> subscription.consumers.forEach(consumer -> {
+                    try {
+                        consumer.accept(content);
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        logger.warn("Failed processing result for URL {}: {}", spec.url(), e.getMessage());
+                    }
+                }));
+            }
+        }
+
+        private boolean remove(Subscription subscription) {
+            if (!subscriptions.remove(subscription)) {
+                return false;
+            }
+            subscription.sharedCache = null;
+            RefreshingUrlCache cache = this.cache;
+            if (subscriptions.isEmpty()) {
+                if (cache != null) {
+                    cache.stop();
+                }
+                this.cache = null;
+                owner = null;
+            } else if (cache == null || subscription == owner || subscription.refreshTime == refreshTime) {
+                // the client of the subscription may be shut down or the refresh time may become longer
+                restart();
+            } else {
+                subscription.consumers.forEach(cache::removeConsumer);
+            }
+            return true;
+        }
+
+        private void restart() {
+            RefreshingUrlCache oldCache = this.cache;
+            if (oldCache != null) {
+                oldCache.stop();
+            }
+            Subscription owner = subscriptions.get(0);
+            int refreshTime = subscriptions.stream().mapToInt(s -> s.refreshTime).min().orElse(owner.refreshTime);
+            RefreshingUrlCache cache = new RefreshingUrlCache(owner.httpClient, spec.url(), owner.thingConfig,
+                    spec.content(), spec.contentType(), this);
+            subscriptions.forEach(subscription -> subscription.consumers.forEach(cache::addConsumer));
+            cache.start(owner.scheduler, refreshTime);
+            this.cache = cache;
+            this.owner = owner;
+            this.refreshTime = refreshTime;
+        }
+
+        private Optional<ChannelHandlerContent> get() {
+            RefreshingUrlCache cache = this.cache;
+            return cache == null ? Optional.empty() : cache.get();
+        }
+
+        @Override
+        public void onHttpError(@Nullable String message) {
+            subscriptions.forEach(subscription -> subscription.httpStatusListener.onHttpError(message));
+        }
+
+        @Override
+        public void onHttpSuccess() {
+            subscriptions.forEach(subscription -> subscription.httpStatusListener.onHttpSuccess());
+        }
+    }
+}
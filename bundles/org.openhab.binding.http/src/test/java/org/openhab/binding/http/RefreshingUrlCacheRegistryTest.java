@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.http.HttpMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.binding.http.internal.http.HttpStatusListener;
+import org.openhab.binding.http.internal.http.RateLimitedHttpClient;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry.Subscription;
+import org.openhab.core.thing.binding.generic.ChannelHandlerContent;
+
+/**
+ * The {@link RefreshingUrlCacheRegistryTest} implements tests for the {@link RefreshingUrlCacheRegistry}
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RefreshingUrlCacheRegistryTest extends AbstractWireMockTest {
+    private static final String TEST_LOCATION = "/testlocation";
+    private static final String TEST_CONTENT = "TESTCONTENT";
+
+    private @NonNullByDefault({}) RateLimitedHttpClient rateLimitedHttpClient;
+    private @NonNullByDefault({}) RefreshingUrlCacheRegistry registry;
+    private @NonNullByDefault({}) String url;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void initTest() {
+        // this is usually done inside the HttpHandlerFactory when creating the clients
+        httpClient.setUserAgentField(null);
+
+        rateLimitedHttpClient = new RateLimitedHttpClient(httpClient, scheduler);
+        rateLimitedHttpClient.setDelay(0);
+        registry = new RefreshingUrlCacheRegistry();
+        url = "http://localhost:" + port + TEST_LOCATION;
+    }
+
+    @AfterEach
+    public void cleanUpTest() {
+        subscriptions.forEach(Subscription::close);
+        subscriptions.clear();
+        rateLimitedHttpClient.shutdown();
+        super.cleanUpTest();
+    }
+
+    @Test
+    public void testIdenticalRequestsAreShared() {
+        stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+
+        List<@Nullable ChannelHandlerContent> firstContents = new CopyOnWriteArrayList<>();
+        List<@Nullable ChannelHandlerContent> secondContents = new CopyOnWriteArrayList<>();
+        HttpStatusListener firstListener = mock(HttpStatusListener.class);
+        HttpStatusListener secondListener = mock(HttpStatusListener.class);
+        subscribe(createThingConfig(), TEST_CONTENT, firstListener, firstContents);
+        subscribe(createThingConfig(), TEST_CONTENT, secondListener, secondContents);
+
+        assertEquals(1, registry.getCacheCount());
+        assertEquals(1, registry.getSharedCount());
+        assertEquals(1, registry.getDeduplicatedCount());
+
+        // both subscriptions get the content and the status of the shared request
+        waitForAssert(() -> assertFalse(firstContents.isEmpty() || secondContents.isEmpty()));
+        verify(firstListener, timeout(1000)).onHttpSuccess();
+        verify(secondListener, timeout(1000)).onHttpSuccess();
+        assertEquals(TEST_CONTENT, Objects.requireNonNull(firstContents.get(0)).getAsString());
+        assertEquals(TEST_CONTENT, Objects.requireNonNull(secondContents.get(0)).getAsString());
+    }
+
+    @Test
+    public void testDifferentRequestsAreNotShared() {
+        stubFor(post(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+
+        HttpThingConfig thingConfig = createThingConfig();
+        thingConfig.stateMethod = HttpMethod.POST;
+        subscribe(thingConfig, "first", mock(HttpStatusListener.class), new CopyOnWriteArrayList<>());
+        subscribe(thingConfig, "second", mock(HttpStatusListener.class), new CopyOnWriteArrayList<>());
+
+        assertEquals(2, registry.getCacheCount());
+        assertEquals(0, registry.getSharedCount());
+        assertEquals(0, registry.getDeduplicatedCount());
+    }
+
+    @Test
+    public void testLaterSubscriptionGetsCurrentContent() {
+        stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+
+        List<@Nullable ChannelHandlerContent> firstContents = new CopyOnWriteArrayList<>();
+        subscribe(createThingConfig(), TEST_CONTENT, mock(HttpStatusListener.class), firstContents);
+        waitForAssert(() -> assertFalse(firstContents.isEmpty()));
+
+        // unchanged content is not passed on again, so the current content is passed on when subscribing
+        List<@Nullable ChannelHandlerContent> secondContents = new CopyOnWriteArrayList<>();
+        subscribe(createThingConfig(), TEST_CONTENT, mock(HttpStatusListener.class), secondContents);
+        assertEquals(1, secondContents.size());
+        assertEquals(TEST_CONTENT, Objects.requireNonNull(secondContents.get(0)).getAsString());
+    }
+
+    @Test
+    public void testRemainingSubscriptionIsUpdatedAfterClose() {
+        stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+
+        List<@Nullable ChannelHandlerContent> secondContents = new CopyOnWriteArrayList<>();
+        Subscription first = subscribe(createThingConfig(), TEST_CONTENT, mock(HttpStatusListener.class),
+                new CopyOnWriteArrayList<>());
+        subscribe(createThingConfig(), TEST_CONTENT, mock(HttpStatusListener.class), secondContents);
+        waitForAssert(() -> assertFalse(secondContents.isEmpty()));
+
+        first.close();
+        assertEquals(1, registry.getCacheCount());
+        assertEquals(0, registry.getSharedCount());
+
+        // the cache is restarted for the remaining subscription
+        stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody("NEWCONTENT")));
+        waitForAssert(() -> assertEquals("NEWCONTENT",
+                Objects.requireNonNull(secondContents.get(secondContents.size() - 1)).getAsString()));
+    }
+
+    private HttpThingConfig createThingConfig() {
+        HttpThingConfig thingConfig = new HttpThingConfig();
+        thingConfig.baseURL = "http://localhost:" + port;
+        thingConfig.timeout = 500;
+        thingConfig.refresh = 1;
+        return thingConfig;
+    }
+
+    private Subscription subscribe(HttpThingConfig thingConfig, String content, HttpStatusListener statusListener,
+            List<@Nullable ChannelHandlerContent> contents) {
+        Subscription subscription = registry.subscribe(rateLimitedHttpClient, url, thingConfig, content, null,
+                scheduler, thingConfig.refresh, statusListener, List.of(contents::add));
+        subscriptions.add(subscription);
+        return subscription;
+    }
+}
@@ -13,13 +13,16 @@
 package org.openhab.binding.http;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -95,6 +98,7 @@ public class RefreshingUrlCacheTest extends AbstractWireMockTest {
     @Test
     public void testUpdateOnSuccessfulRequest() {
         stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+        thingConfig.forceUpdate = true;
 
         RefreshingUrlCache urlCache = getUrlCache(TEST_CONTENT);
 
@@ -111,6 +115,49 @@ public class RefreshingUrlCacheTest extends AbstractWireMockTest {
                 .allMatch(TEST_CONTENT::equals));
     }
 
+    @Test
+    public void testNoUpdateOnUnchangedContent() {
+        stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+
+        RefreshingUrlCache urlCache = getUrlCache(TEST_CONTENT);
+
+        // verify we get at least three successful requests in 5s
+        verify(statusListener, timeout(5000).atLeast(3)).onHttpSuccess();
+        urlCache.stop();
+
+        // assert the unchanged content was passed to the consumers only once
+        assertEquals(1, contentWrappers.size());
+        assertEquals(TEST_CONTENT, Objects.requireNonNull(contentWrappers.get(0)).getAsString());
+    }
+
+    @Test
+    public void testLastContentIsReusedOnNotModified() {
+        String eTag = "\"v1\"";
+        stubFor(get(urlEqualTo(TEST_LOCATION)).atPriority(1).withHeader("If-None-Match", equalTo(eTag))
+                .willReturn(aResponse().withStatus(304)));
+        stubFor(get(urlEqualTo(TEST_LOCATION)).atPriority(2)
+                .willReturn(aResponse().withHeader("ETag", eTag).withBody(TEST_CONTENT)));
+        thingConfig.forceUpdate = true;
+
+        RefreshingUrlCache urlCache = getUrlCache(TEST_CONTENT);
+
+        // wait until we got at least three results or timeout (after 10s)
+        waitForAssert(() -> assertTrue(contentWrappers.size() >= 3));
+        urlCache.stop();
+
+        // verify we did not have errors and the following requests were conditional
+        verify(statusListener, never()).onHttpError(any());
+        assertFalse(wireMockServer
+                .findAll(getRequestedFor(urlEqualTo(TEST_LOCATION)).withHeader("If-None-Match", equalTo(eTag)))
+                .isEmpty());
+
+        // assert the content of the first response is reused
+        ChannelHandlerContent firstContent = Objects.requireNonNull(contentWrappers.get(0));
+        assertEquals(TEST_CONTENT, firstContent.getAsString());
+        assertSame(firstContent, contentWrappers.get(1));
+        assertSame(firstContent, contentWrappers.get(2));
+    }
+
     @Test
     public void testNoUpdateOn404ErrorInNormalMode() {
         stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withStatus(404)));
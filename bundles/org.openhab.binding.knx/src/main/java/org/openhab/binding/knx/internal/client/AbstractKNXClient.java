@@ -19,7 +19,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -104,7 +103,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> connectJob;
 
     private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final ReadScheduler readScheduler;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -146,6 +145,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         this.responseTimeout = responseTimeout;
         this.readingPause = readingPause;
         this.readRetriesLimit = readRetriesLimit;
+        this.readScheduler = new ReadScheduler(readingPause);
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
         this.commandExtensionData = commandExtensionData;
@@ -243,7 +243,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
             // register this class, callbacks will be triggered
             link.addLinkListener(this);
 
-            // create a job carrying out read requests
+            // create a job carrying out read requests, the read scheduler may skip runs to adapt to the bus load
             busJob = knxScheduler.scheduleWithFixedDelay(this::readNextQueuedDatapoint, 0, readingPause,
                     TimeUnit.MILLISECONDS);
 
@@ -299,7 +299,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
             tmplink.removeLinkListener(this);
         }
         busJob = nullify(busJob, j -> j.cancel(true));
-        readDatapoints.clear();
+        readScheduler.clear();
         responseCommunicator = nullify(responseCommunicator, rc -> {
             rc.removeProcessListener(processListener);
             rc.detach();
@@ -327,6 +327,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
+        readScheduler.telegramReceived(System.nanoTime());
         boolean isHandled = false;
         for (GroupAddressListener listener : groupAddressListeners) {
             if (listener.listensTo(destination)) {
@@ -359,17 +360,21 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         if (processCommunicator == null) {
             return;
         }
-        ReadDatapoint datapoint = readDatapoints.poll();
+        ReadDatapoint datapoint = readScheduler.next(System.nanoTime());
         if (datapoint != null) {
             datapoint.incrementRetries();
+            long start = System.nanoTime();
             try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
+                logger.trace("Sending a Group Read Request telegram for {} ({})",
+                        datapoint.getDatapoint().getMainAddress(), datapoint.getPriority());
                 processCommunicator.read(datapoint.getDatapoint());
+                readScheduler.readCompleted(start, System.nanoTime());
             } catch (KNXException e) {
+                readScheduler.readFailed(System.nanoTime());
                 // Note: KnxException does not cover KnxRuntimeException and subclasses KnxSecureException,
                 // KnxIllegArgumentException
                 if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
+                    readScheduler.retry(datapoint);
                     logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
                             datapoint.getDatapoint().getMainAddress(), e.getMessage());
                 } else {
@@ -456,15 +461,21 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
+        if (!readScheduler.add(datapoint, priority, readRetriesLimit)) {
+            logger.trace("Read request for {} coalesced with a queued read", datapoint.getMainAddress());
         }
     }
 
+    /**
+     * Get the scheduler of the read requests, e.g. to show the queue length and the bus utilization.
+     *
+     * @return the read scheduler
+     */
+    public ReadScheduler getReadScheduler() {
+        return readScheduler;
+    }
+
     @Override
     public final void registerGroupAddressListener(GroupAddressListener listener) {
         groupAddressListeners.add(listener);
@@ -545,6 +556,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         for (int i = 0;; i++) {
             try {
                 communicator.write(datapoint, mappedValue);
+                readScheduler.writeCompleted(System.nanoTime());
                 logger.debug("Wrote value '{}' to datapoint '{}' ({}. attempt).", type, datapoint, i);
                 break;
             } catch (KNXException e) {
@@ -76,10 +76,12 @@ public interface KNXClient {
 
     /**
      * Schedule the given data point for asynchronous reading.
+     * Reads of the same group address which are still queued are coalesced.
      *
      * @param datapoint the datapoint
+     * @param priority the priority of the read request
      */
-    void readDatapoint(Datapoint datapoint);
+    void readDatapoint(Datapoint datapoint, ReadPriority priority);
 
     /**
      * Write a command to the KNX bus.
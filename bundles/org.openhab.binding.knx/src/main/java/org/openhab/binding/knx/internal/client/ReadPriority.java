@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Priority of a read request queued for the KNX bus. Requests are sent in the order of the constants, i.e.
+ * {@link #INTERACTIVE} requests are sent before any {@link #INITIAL} or {@link #PERIODIC} request.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public enum ReadPriority {
+    /** read triggered by the user, e.g. a REFRESH command */
+    INTERACTIVE,
+    /** read of the initial state, when a thing is initialized or a channel is linked */
+    INITIAL,
+    /** read triggered by the read interval of a thing */
+    PERIODIC
+}
@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Queue of the read requests of a KNX bridge.
+ *
+ * <ul>
+ * <li>Reads of the same group address are coalesced, no matter which channel or thing requested them. If a read is
+ * requested again with a higher priority while it is still queued, it moves to the lane of the higher priority.</li>
+ * <li>Reads are kept in one lane per {@link ReadPriority}. Group writes and read responses are not queued, they are
+ * sent right away. After a write or a response, {@link ReadPriority#INITIAL} and {@link ReadPriority#PERIODIC} reads
+ * are held back for one pause, so commands are not delayed by a burst of reads.</li>
+ * <li>The pause between two reads is the configured reading pause. Reads are sent one after another, so the round
+ * trip of a read (request and response) already spaces the reads. Only when the estimated bus utilization exceeds
+ * {@link #TARGET_UTILIZATION}, the pause grows so that reads take up proportionally less of the bus. The round trip is
+ * averaged over successful reads only; reads which time out, e.g. because the read flag of the group address is not
+ * set, don't change the pause.</li>
+ * </ul>
+ *
+ * Times are passed in as {@link System#nanoTime()} values.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class ReadScheduler {
+
+    /** share of the bus above which reads are slowed down */
+    static final double TARGET_UTILIZATION = 0.5;
+    /** nominal duration of a telegram including acknowledge and gaps on TP1 */
+    static final long TELEGRAM_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    static final long MAX_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(5);
+    static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    private final long minPauseNanos;
+    private final Map<ReadPriority, Deque<ReadDatapoint>> lanes = new EnumMap<>(ReadPriority.class);
+    private final Map<GroupAddress, ReadDatapoint> queued = new HashMap<>();
+
+    private long pauseNanos;
+    private boolean paced;
+    private long nextReadNanos;
+    private boolean heldBack;
+    private long heldBackUntilNanos;
+
+    private boolean roundTripMeasured;
+    private double roundTripNanos;
+
+    private boolean windowStarted;
+    private long windowStartNanos;
+    private long windowBusyNanos;
+    private double utilization;
+
+    private long coalescedReads;
+
+    /**
+     * @param readingPause minimum pause between two reads, in milliseconds
+     */
+    public ReadScheduler(int readingPause) {
+        this.minPauseNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(readingPause, 0));
+        this.pauseNanos = minPauseNanos;
+        for (ReadPriority priority : ReadPriority.values()) {
+            lanes.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Queue a read request
+     *
+     * @param datapoint the datapoint to read
+     * @param priority priority of the read
+     * @param limit maximum number of attempts
+     * @return {@code false} if a read of the group address was queued already
+     */
+    public synchronized boolean add(Datapoint datapoint, ReadPriority priority, int limit) {
+        ReadDatapoint existing = queued.get(datapoint.getMainAddress());
+        if (existing != null) {
+            coalescedReads++;
+            if (priority.compareTo(existing.getPriority()) < 0) {
+                lane(existing.getPriority()).remove(existing);
+                existing.setPriority(priority);
+                lane(priority).add(existing);
+            }
+            return false;
+        }
+        ReadDatapoint readDatapoint = new ReadDatapoint(datapoint, limit, priority);
+        queued.put(datapoint.getMainAddress(), readDatapoint);
+        lane(priority).add(readDatapoint);
+        return true;
+    }
+
+    /**
+     * Queue a failed read again, at the end of its lane
+     *
+     * @param readDatapoint the read which failed
+     */
+    public synchronized void retry(ReadDatapoint readDatapoint) {
+        if (queued.putIfAbsent(readDatapoint.getDatapoint().getMainAddress(), readDatapoint) != null) {
+            // the group address was requested again in the meantime
+            coalescedReads++;
+            return;
+        }
+        lane(readDatapoint.getPriority()).add(readDatapoint);
+    }
+
+    /**
+     * Take the next read which may be sent now
+     *
+     * @param now current time
+     * @return the read with the highest priority, or {@code null} if nothing is queued or the pause is not over yet
+     */
+    public synchronized @Nullable ReadDatapoint next(long now) {
+        if (paced && now - nextReadNanos < 0) {
+            return null;
+        }
+        for (ReadPriority priority : ReadPriority.values()) {
+            if (priority != ReadPriority.INTERACTIVE && heldBack && now - heldBackUntilNanos < 0) {
+                return null;
+            }
+            ReadDatapoint readDatapoint = lane(priority).poll();
+            if (readDatapoint != null) {
+                queued.remove(readDatapoint.getDatapoint().getMainAddress());
+                return readDatapoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Record a read which was answered, and calculate the pause until the next read
+     *
+     * @param start time the read request was passed to the KNX interface
+     * @param end time the response was received
+     */
+    public synchronized void readCompleted(long start, long end) {
+        long roundTrip = Math.max(end - start, 0);
+        roundTripNanos = roundTripMeasured ? roundTripNanos + LATENCY_WEIGHT * (roundTrip - roundTripNanos)
+                : roundTrip;
+        roundTripMeasured = true;
+        readSent(end);
+    }
+
+    /**
+     * Record a read which failed or was not answered in time, and calculate the pause until the next read. The duration
+     * of the read is not taken into account, it is mostly the response timeout.
+     *
+     * @param end time the read failed
+     */
+    public synchronized void readFailed(long end) {
+        readSent(end);
+    }
+
+    /**
+     * Record a group write or read response sent to the bus, queued reads except interactive ones are held back for
+     * one pause
+     *
+     * @param now time the telegram was sent
+     */
+    public synchronized void writeCompleted(long now) {
+        addTelegram(now);
+        heldBack = true;
+        heldBackUntilNanos = now + pauseNanos;
+    }
+
+    /**
+     * Record a telegram received from the bus
+     *
+     * @param now time the telegram was received
+     */
+    public synchronized void telegramReceived(long now) {
+        addTelegram(now);
+    }
+
+    /**
+     * Remove all queued reads and forget the pacing, e.g. when the connection is closed
+     */
+    public synchronized void clear() {
+        lanes.values().forEach(Deque::clear);
+        queued.clear();
+        paced = false;
+        heldBack = false;
+    }
+
+    private void readSent(long end) {
+        addTelegram(end);
+        pauseNanos = calculatePause();
+        paced = true;
+        nextReadNanos = end + pauseNanos;
+    }
+
+    private Deque<ReadDatapoint> lane(ReadPriority priority) {
+        Deque<ReadDatapoint> lane = lanes.get(priority);
+        if (lane == null) {
+            throw new IllegalStateException("No lane for priority " + priority);
+        }
+        return lane;
+    }
+
+    private void addTelegram(long now) {
+        if (!windowStarted) {
+            windowStarted = true;
+            windowStartNanos = now;
+        }
+        windowBusyNanos += TELEGRAM_NANOS;
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= WINDOW_NANOS) {
+            utilization = (double) windowBusyNanos / elapsed;
+            windowStartNanos = now;
+            windowBusyNanos = 0;
+        }
+    }
+
+    private long calculatePause() {
+        if (utilization <= TARGET_UTILIZATION) {
+            return minPauseNanos;
+        }
+        // stretch the whole read cycle, the round trip is part of it already
+        double cycle = (minPauseNanos + roundTripNanos) * utilization / TARGET_UTILIZATION;
+        return Math.max(minPauseNanos, Math.min((long) (cycle - roundTripNanos), MAX_PAUSE_NANOS));
+    }
+
+    /**
+     * @return number of queued reads
+     */
+    public synchronized int getQueueLength() {
+        return queued.size();
+    }
+
+    /**
+     * @param priority the lane
+     * @return number of queued reads with the given priority
+     */
+    public synchronized int getQueueLength(ReadPriority priority) {
+        return lane(priority).size();
+    }
+
+    /**
+     * @return estimated share of the bus time used by telegrams during the last complete measuring window
+     */
+    public synchronized double getBusUtilization() {
+        return utilization;
+    }
+
+    /**
+     * @return average time from sending a read request to receiving the response, in milliseconds
+     */
+    public synchronized long getRoundTripMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((long) roundTripNanos);
+    }
+
+    /**
+     * @return current pause between two reads, in milliseconds
+     */
+    public synchronized long getPauseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(pauseNanos);
+    }
+
+    /**
+     * @return number of read requests which were merged with a queued read of the same group address
+     */
+    public synchronized long getCoalescedReads() {
+        return coalescedReads;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getQueueLength()).append(" reads queued (");
+        for (ReadPriority priority : ReadPriority.values()) {
+            if (priority != ReadPriority.INTERACTIVE) {
+                sb.append(", ");
+            }
+            sb.append(priority.name().toLowerCase()).append(": ").append(lane(priority).size());
+        }
+        sb.append("), ").append(coalescedReads).append(" reads coalesced, pause ").append(getPauseMillis())
+                .append(" ms, read round trip ").append(getRoundTripMillis()).append(" ms, bus utilization ")
+                .append(Math.round(utilization * 100)).append(" %");
+        return sb.toString();
+    }
+}
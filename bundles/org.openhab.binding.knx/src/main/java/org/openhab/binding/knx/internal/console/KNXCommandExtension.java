@@ -18,6 +18,7 @@ import java.util.Map.Entry;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.knx.internal.KNXBindingConstants;
+import org.openhab.binding.knx.internal.client.ReadScheduler;
 import org.openhab.binding.knx.internal.factory.KNXHandlerFactory;
 import org.openhab.binding.knx.internal.handler.KNXBridgeBaseThingHandler;
 import org.openhab.core.io.console.Console;
@@ -39,7 +40,9 @@ import org.osgi.service.component.annotations.Reference;
 public class KNXCommandExtension extends AbstractConsoleCommandExtension implements ConsoleCommandCompleter {
 
     private static final String CMD_LIST_UNKNOWN_GA = "list-unknown-ga";
-    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(List.of(CMD_LIST_UNKNOWN_GA), false);
+    private static final String CMD_SHOW_READ_QUEUE = "show-read-queue";
+    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(
+            List.of(CMD_LIST_UNKNOWN_GA, CMD_SHOW_READ_QUEUE), false);
 
     private final KNXHandlerFactory knxHandlerFactory;
 
@@ -61,13 +64,22 @@ public class KNXCommandExtension extends AbstractConsoleCommandExtension impleme
             }
             return;
         }
+        if (args.length == 1 && CMD_SHOW_READ_QUEUE.equalsIgnoreCase(args[0])) {
+            for (KNXBridgeBaseThingHandler bridgeHandler : knxHandlerFactory.getBridges()) {
+                ReadScheduler readScheduler = bridgeHandler.getReadScheduler();
+                console.println("KNX bridge \"" + bridgeHandler.getThing().getLabel() + "\": "
+                        + (readScheduler != null ? readScheduler.toString() : "not connected"));
+            }
+            return;
+        }
         printUsage(console);
     }
 
     @Override
     public List<String> getUsages() {
-        return List
-                .of(buildCommandUsage(CMD_LIST_UNKNOWN_GA, "list group addresses which are not configured in openHAB"));
+        return List.of(
+                buildCommandUsage(CMD_LIST_UNKNOWN_GA, "list group addresses which are not configured in openHAB"),
+                buildCommandUsage(CMD_SHOW_READ_QUEUE, "show queued read requests and the estimated bus utilization"));
     }
 
     @Override
@@ -19,7 +19,9 @@ import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.knx.internal.client.AbstractKNXClient;
 import org.openhab.binding.knx.internal.client.KNXClient;
+import org.openhab.binding.knx.internal.client.ReadScheduler;
 import org.openhab.binding.knx.internal.client.StatusUpdateCallback;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.thing.Bridge;
@@ -90,6 +92,15 @@ public abstract class KNXBridgeBaseThingHandler extends BaseBridgeHandler implem
         return commandExtensionData;
     }
 
+    /**
+     * Get the scheduler of the read requests of the bridge, to show its statistics on the console
+     *
+     * @return the read scheduler, or {@code null} if the bridge is not initialized
+     */
+    public @Nullable ReadScheduler getReadScheduler() {
+        return getClient() instanceof AbstractKNXClient client ? client.getReadScheduler() : null;
+    }
+
     /***
      * Initialize KNX secure if configured (full interface)
      *
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Tests for {@link ReadScheduler}
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+class ReadSchedulerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static Datapoint datapoint(int mainGroup, int middleGroup, int subGroup, String name) {
+        return new CommandDP(new GroupAddress(mainGroup, middleGroup, subGroup), name, 0, "1.001");
+    }
+
+    private static GroupAddress nextAddress(ReadScheduler scheduler, long now) {
+        return Objects.requireNonNull(scheduler.next(now)).getDatapoint().getMainAddress();
+    }
+
+    @Test
+    void testReadsOfSameGroupAddressAreCoalesced() {
+        ReadScheduler scheduler = new ReadScheduler(0);
+        assertTrue(scheduler.add(datapoint(1, 2, 3, "thing1"), ReadPriority.INITIAL, 3));
+        assertFalse(scheduler.add(datapoint(1, 2, 3, "thing2"), ReadPriority.PERIODIC, 3));
+        assertTrue(scheduler.add(datapoint(1, 2, 4, "thing2"), ReadPriority.PERIODIC, 3));
+
+        assertEquals(2, scheduler.getQueueLength());
+        assertEquals(1, scheduler.getCoalescedReads());
+    }
+
+    @Test
+    void testHigherPriorityIsReadFirst() {
+        ReadScheduler scheduler = new ReadScheduler(0);
+        scheduler.add(datapoint(1, 1, 1, "periodic"), ReadPriority.PERIODIC, 3);
+        scheduler.add(datapoint(1, 1, 2, "initial"), ReadPriority.INITIAL, 3);
+        scheduler.add(datapoint(1, 1, 3, "interactive"), ReadPriority.INTERACTIVE, 3);
+
+        assertEquals(new GroupAddress(1, 1, 3), nextAddress(scheduler, 0));
+        assertEquals(new GroupAddress(1, 1, 2), nextAddress(scheduler, 0));
+        assertEquals(new GroupAddress(1, 1, 1), nextAddress(scheduler, 0));
+        assertNull(scheduler.next(0));
+    }
+
+    @Test
+    void testCoalescedReadIsPromoted() {
+        ReadScheduler scheduler = new ReadScheduler(0);
+        scheduler.add(datapoint(1, 1, 1, "initial"), ReadPriority.INITIAL, 3);
+        scheduler.add(datapoint(1, 1, 2, "periodic"), ReadPriority.PERIODIC, 3);
+        scheduler.add(datapoint(1, 1, 2, "refresh"), ReadPriority.INTERACTIVE, 3);
+
+        assertEquals(1, scheduler.getQueueLength(ReadPriority.INTERACTIVE));
+        assertEquals(0, scheduler.getQueueLength(ReadPriority.PERIODIC));
+        assertEquals(new GroupAddress(1, 1, 2), nextAddress(scheduler, 0));
+    }
+
+    @Test
+    void testReadingPauseIsRespected() {
+        ReadScheduler scheduler = new ReadScheduler(50);
+        scheduler.add(datapoint(1, 1, 1, "first"), ReadPriority.INITIAL, 3);
+        scheduler.add(datapoint(1, 1, 2, "second"), ReadPriority.INITIAL, 3);
+
+        assertNotNull(scheduler.next(0));
+        scheduler.readCompleted(0, 10 * MS);
+        assertNull(scheduler.next(59 * MS));
+        assertNotNull(scheduler.next(60 * MS));
+        assertEquals(50, scheduler.getPauseMillis());
+    }
+
+    @Test
+    void testSlowReadDoesNotRaisePause() {
+        ReadScheduler scheduler = new ReadScheduler(50);
+        scheduler.readCompleted(0, 200 * MS);
+
+        assertEquals(200, scheduler.getRoundTripMillis());
+        assertEquals(50, scheduler.getPauseMillis());
+        assertNull(scheduler.next(249 * MS));
+    }
+
+    @Test
+    void testTimedOutReadDoesNotRaisePause() {
+        ReadScheduler scheduler = new ReadScheduler(50);
+        scheduler.add(datapoint(1, 1, 1, "unanswered"), ReadPriority.INITIAL, 3);
+        scheduler.add(datapoint(1, 1, 2, "second"), ReadPriority.INITIAL, 3);
+        scheduler.readCompleted(0, 10 * MS);
+
+        assertNotNull(scheduler.next(60 * MS));
+        // the read is not answered within the response timeout
+        scheduler.readFailed(10_060 * MS);
+
+        assertEquals(10, scheduler.getRoundTripMillis());
+        assertEquals(50, scheduler.getPauseMillis());
+        assertNotNull(scheduler.next(10_110 * MS));
+    }
+
+    @Test
+    void testPauseAdaptsToBusUtilization() {
+        ReadScheduler scheduler = new ReadScheduler(50);
+        // 400 telegrams of 20 ms within 10 s, the bus is busy 80 % of the time
+        long now = 0;
+        for (int i = 0; i < 400; i++) {
+            now = i * ReadScheduler.WINDOW_NANOS / 399;
+            scheduler.telegramReceived(now);
+        }
+        assertEquals(0.8, scheduler.getBusUtilization(), 0.01);
+
+        scheduler.readCompleted(now, now + 10 * MS);
+        // the read cycle of 10 ms round trip and 50 ms pause is stretched by 0.8 / 0.5
+        assertEquals(86, scheduler.getPauseMillis(), 1);
+    }
+
+    @Test
+    void testWriteHoldsBackNonInteractiveReads() {
+        ReadScheduler scheduler = new ReadScheduler(50);
+        scheduler.add(datapoint(1, 1, 1, "initial"), ReadPriority.INITIAL, 3);
+        scheduler.writeCompleted(0);
+
+        assertNull(scheduler.next(10 * MS));
+        scheduler.add(datapoint(1, 1, 2, "refresh"), ReadPriority.INTERACTIVE, 3);
+        assertEquals(new GroupAddress(1, 1, 2), nextAddress(scheduler, 10 * MS));
+        assertNull(scheduler.next(20 * MS));
+        assertEquals(new GroupAddress(1, 1, 1), nextAddress(scheduler, 50 * MS));
+    }
+
+    @Test
+    void testRetryIsDroppedIfRequestedAgain() {
+        ReadScheduler scheduler = new ReadScheduler(0);
+        scheduler.add(datapoint(1, 1, 1, "first"), ReadPriority.INITIAL, 3);
+        ReadDatapoint failed = Objects.requireNonNull(scheduler.next(0));
+
+        scheduler.retry(failed);
+        assertEquals(1, scheduler.getQueueLength());
+
+        ReadDatapoint failedAgain = Objects.requireNonNull(scheduler.next(0));
+        scheduler.add(datapoint(1, 1, 1, "second"), ReadPriority.PERIODIC, 3);
+        scheduler.retry(failedAgain);
+        assertEquals(1, scheduler.getQueueLength());
+        assertEquals(1, scheduler.getCoalescedReads());
+    }
+
+    @Test
+    void testClear() {
+        ReadScheduler scheduler = new ReadScheduler(50);
+        scheduler.add(datapoint(1, 1, 1, "first"), ReadPriority.INITIAL, 3);
+        scheduler.readCompleted(0, 10 * MS);
+        scheduler.clear();
+
+        assertEquals(0, scheduler.getQueueLength());
+        scheduler.add(datapoint(1, 1, 1, "first"), ReadPriority.INITIAL, 3);
+        assertNotNull(scheduler.next(20 * MS));
+    }
+}
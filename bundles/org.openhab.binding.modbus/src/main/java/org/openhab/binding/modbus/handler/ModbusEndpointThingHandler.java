@@ -14,6 +14,7 @@ package org.openhab.binding.modbus.handler;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.modbus.internal.ModbusReadPlanner;
 import org.openhab.core.common.registry.Identifiable;
 import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
 import org.openhab.core.thing.ThingUID;
@@ -51,4 +52,13 @@ public interface ModbusEndpointThingHandler extends Identifiable<ThingUID> {
      * @return boolean true if the discovery is enabled
      */
     boolean isDiscoveryEnabled();
+
+    /**
+     * Get the planner merging the regular reads of the pollers of this endpoint
+     *
+     * @return the planner, or <code>null</code> if the reads are not merged
+     */
+    default @Nullable ModbusReadPlanner getReadPlanner() {
+        return null;
+    }
 }
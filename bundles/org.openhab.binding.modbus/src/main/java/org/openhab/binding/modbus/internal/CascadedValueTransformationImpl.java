@@ -42,6 +42,30 @@ public class CascadedValueTransformationImpl implements ValueTransformation {
         transformations = localTransformations;
     }
 
+    private CascadedValueTransformationImpl(List<SingleValueTransformation> transformations) {
+        this.transformations = transformations;
+    }
+
+    /**
+     * Resolve the transformation services of all transformations once
+     *
+     * @param context bundle context used to track the transformation services
+     * @param serviceListener called when one of the transformation services appears, changes or goes away
+     * @return transformation using the tracked services
+     * @see SingleValueTransformation#resolve(BundleContext, Runnable)
+     */
+    public CascadedValueTransformationImpl resolve(BundleContext context, Runnable serviceListener) {
+        return new CascadedValueTransformationImpl(transformations.stream()
+                .map(transformation -> transformation.resolve(context, serviceListener)).toList());
+    }
+
+    /**
+     * Stop tracking the transformation services of a resolved transformation
+     */
+    public void close() {
+        transformations.forEach(SingleValueTransformation::close);
+    }
+
     @Override
     public String transform(BundleContext context, String value) {
         String input = value;
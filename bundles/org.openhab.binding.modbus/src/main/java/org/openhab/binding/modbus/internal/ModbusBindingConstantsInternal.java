@@ -59,6 +59,11 @@ public class ModbusBindingConstantsInternal {
     public static final String[] DATA_CHANNELS_TO_DELEGATE_COMMAND_FROM_READWRITE_TO_WRITE = { CHANNEL_SWITCH,
             CHANNEL_CONTACT, CHANNEL_DATETIME, CHANNEL_DIMMER, CHANNEL_NUMBER, CHANNEL_STRING, CHANNEL_ROLLERSHUTTER };
 
+    // Properties of the endpoint things, if reads are merged
+    public static final String PROPERTY_READS = "reads";
+    public static final String PROPERTY_PLANNED_READS = "plannedReads";
+    public static final String PROPERTY_ROUND_TRIPS_SAVED = "roundTripsSaved";
+
     public static final String WRITE_TYPE_COIL = "coil";
     public static final String WRITE_TYPE_HOLDING = "holding";
 
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.math.BigDecimal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.core.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
+
+/**
+ * Decode plan of the polled data of a data thing, compiled once per thing configuration.
+ *
+ * The plan holds the position of the value relative to the start of the poll, the value type and the read
+ * transformation with its transformation services resolved. It also keeps the raw bits of the last value, so
+ * unchanged data is detected by comparing a few bits of the polled data instead of decoding it again. This is only
+ * done with the identity transformation: the result of other transformations may change while the data doesn't, e.g.
+ * when a MAP file is edited.
+ *
+ * The plan is not thread-safe, it is meant to be used while holding the lock of the thing handler. Only
+ * {@link #invalidate()} may be called from any thread, e.g. when a transformation service changes.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusDecodePlan {
+
+    private static final DecimalType ONE = new DecimalType(BigDecimal.ONE);
+
+    private final ValueType valueType;
+    private final CascadedValueTransformationImpl transformation;
+    // index of the first register (or bit) of the value, relative to the start of the poll
+    private final int index;
+    private final int registerCount;
+    // position of the value inside the register, for value types smaller than 16 bits
+    private final int shift;
+    private final long mask;
+    // index as expected by ModbusBitUtilities.extractStateFromRegisters
+    private final int extractIndex;
+    private final boolean detectUnchanged;
+
+    private long lastRawValue;
+    private volatile boolean lastRawValueValid;
+
+    /**
+     * Compile the decode plan
+     *
+     * @param valueType value type of the data
+     * @param index index of the first register (or bit) of the value, relative to the start of the poll
+     * @param subIndex the Y in readStart=X.Y, 0 if not given
+     * @param transformation read transformation, with the transformation services resolved
+     */
+    public ModbusDecodePlan(ValueType valueType, int index, int subIndex,
+            CascadedValueTransformationImpl transformation) {
+        this.valueType = valueType;
+        this.transformation = transformation;
+        this.index = index;
+        this.detectUnchanged = transformation.isIdentityTransform();
+        int bits = valueType.getBits();
+        if (bits >= 16) {
+            registerCount = bits / 16;
+            shift = 0;
+            mask = -1L;
+            extractIndex = index;
+        } else {
+            // with <16 bit types, the sub index is the index of the N'th 1-bit/8-bit item, counted from the right
+            registerCount = 1;
+            shift = subIndex * bits;
+            mask = (1L << bits) - 1;
+            extractIndex = index * (16 / bits) + subIndex;
+        }
+    }
+
+    /**
+     * Remember the raw bits of the value in the polled registers
+     *
+     * @param registers polled registers
+     * @return whether the raw bits changed since the last call. Returns true as well if there is no previous value, if
+     *         the registers do not contain the value, or if the value is transformed.
+     */
+    public boolean updateRawValue(ModbusRegisterArray registers) {
+        if (index < 0 || index + registerCount > registers.size()) {
+            lastRawValueValid = false;
+            return true;
+        }
+        long rawValue = 0;
+        for (int i = 0; i < registerCount; i++) {
+            rawValue = (rawValue << 16) | registers.getRegister(index + i);
+        }
+        return updateRawValue((rawValue >>> shift) & mask);
+    }
+
+    /**
+     * Remember the polled bit of the value
+     *
+     * @param bits polled bits
+     * @return whether the bit changed since the last call. Returns true as well if there is no previous value, if the
+     *         bits do not contain the value, or if the value is transformed.
+     */
+    public boolean updateRawValue(BitArray bits) {
+        if (index < 0 || index >= bits.size()) {
+            lastRawValueValid = false;
+            return true;
+        }
+        return updateRawValue(bits.getBit(index) ? 1L : 0L);
+    }
+
+    private boolean updateRawValue(long rawValue) {
+        boolean changed = !detectUnchanged || !lastRawValueValid || rawValue != lastRawValue;
+        lastRawValue = rawValue;
+        lastRawValueValid = true;
+        return changed;
+    }
+
+    /**
+     * Forget the last raw value, so that the next poll is considered changed, e.g. since the value could not be
+     * converted to the state of a channel
+     */
+    public void invalidate() {
+        lastRawValueValid = false;
+    }
+
+    /**
+     * Decode the value from the polled registers
+     *
+     * @param registers polled registers
+     * @return numeric state of the value, or UNDEF with floating point NaN or infinity
+     */
+    public State decode(ModbusRegisterArray registers) {
+        return ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, valueType)
+                .map(state -> (State) state).orElse(UnDefType.UNDEF);
+    }
+
+    /**
+     * Decode the value of a polled bit
+     *
+     * @param bit polled bit
+     * @return numeric state of the bit, shared between all calls
+     */
+    public DecimalType decode(boolean bit) {
+        return bit ? ONE : DecimalType.ZERO;
+    }
+
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    public CascadedValueTransformationImpl getTransformation() {
+        return transformation;
+    }
+
+    public int getExtractIndex() {
+        return extractIndex;
+    }
+
+    /**
+     * Stop tracking the transformation services, once the plan is not used anymore
+     */
+    public void close() {
+        transformation.close();
+    }
+
+    @Override
+    public String toString() {
+        return "ModbusDecodePlan [valueType=" + valueType + ", index=" + index + ", extractIndex=" + extractIndex
+                + ", transformation=" + transformation + "]";
+    }
+}
@@ -0,0 +1,380 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusConstants;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the regular reads of the pollers of a slave endpoint into as few Modbus reads as possible.
+ *
+ * Reads with the same slave id, function code and poll period are merged if they overlap, or if the gap between them
+ * is at most the configured number of registers or coils, as long as the merged read stays within the protocol limits
+ * ({@link ModbusConstants#MAX_REGISTERS_READ_COUNT} registers, {@link ModbusConstants#MAX_BITS_READ_COUNT} coils and
+ * discrete inputs). The data of a merged read is sliced into the data of each original read, so the callbacks get the
+ * same results as if the reads were sent separately. A failure of a merged read is reported to all callbacks.
+ *
+ * The reads are planned again whenever a read is registered or unregistered. Only requests which actually changed are
+ * registered again at the communication interface. A request containing a read registered for the first time is
+ * polled right away, a request containing only reads which were polled before keeps the poll period as initial delay,
+ * so planning again doesn't cause a burst of reads.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusReadPlanner {
+
+    /**
+     * Statistics of the planned reads
+     *
+     * @param reads number of reads registered by the pollers
+     * @param plannedReads number of reads sent to the slave per poll cycle
+     */
+    public record Statistics(int reads, int plannedReads) {
+
+        /**
+         * @return number of round trips saved per poll cycle
+         */
+        public int getRoundTripsSaved() {
+            return reads - plannedReads;
+        }
+    }
+
+    /**
+     * A regular read registered at the planner
+     */
+    public class Registration {
+        private final ModbusReadRequestBlueprint request;
+        private final ModbusReadCallback resultCallback;
+        private final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+        private final GroupKey groupKey;
+        private boolean planned;
+
+        private Registration(ModbusReadRequestBlueprint request, long pollPeriodMillis,
+                ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+            this.groupKey = new GroupKey(request.getUnitID(), request.getFunctionCode(), pollPeriodMillis);
+        }
+
+        /**
+         * Stop the regular read
+         */
+        public void unregister() {
+            ModbusReadPlanner.this.unregister(this);
+        }
+
+        private int getStart() {
+            return request.getReference();
+        }
+
+        private int getEnd() {
+            return request.getReference() + request.getDataLength();
+        }
+    }
+
+    private record GroupKey(int unitId, ModbusReadFunctionCode functionCode, long pollPeriodMillis) {
+    }
+
+    /**
+     * A request registered at the communication interface, reading one or more registered reads
+     *
+     * @param callback callback slicing the data of a merged request, <code>null</code> if a single read is requested
+     */
+    private record PlannedRead(ModbusReadRequestBlueprint request, List<Registration> registrations, PollTask pollTask,
+            @Nullable MergedReadCallback callback) {
+    }
+
+    /**
+     * The registered reads with the same slave id, function code and poll period, and the requests planned for them
+     */
+    private static class Group {
+        private final List<Registration> registrations = new ArrayList<>();
+        private List<PlannedRead> plannedReads = new ArrayList<>();
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusReadPlanner.class);
+
+    private final ModbusCommunicationInterface comms;
+    private final int maxGap;
+    private final Consumer<Statistics> statisticsListener;
+    private final Map<GroupKey, Group> groups = new HashMap<>();
+    private Statistics statistics = new Statistics(0, 0);
+
+    /**
+     * Construct a planner
+     *
+     * @param comms communication interface of the slave endpoint
+     * @param maxGap maximum number of registers or coils read in addition to merge two reads
+     * @param statisticsListener listener called with the new statistics whenever the reads are planned again
+     */
+    public ModbusReadPlanner(ModbusCommunicationInterface comms, int maxGap, Consumer<Statistics> statisticsListener) {
+        this.comms = comms;
+        this.maxGap = Math.max(0, maxGap);
+        this.statisticsListener = statisticsListener;
+    }
+
+    /**
+     * Register a regular read, like {@link ModbusCommunicationInterface#registerRegularPoll}
+     *
+     * @param request request to read
+     * @param pollPeriodMillis poll interval, in milliseconds
+     * @param resultCallback callback for the data of the request
+     * @param failureCallback callback for failures of the request
+     * @return registration to unregister the read
+     */
+    public synchronized Registration registerRegularPoll(ModbusReadRequestBlueprint request, long pollPeriodMillis,
+            ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+        Registration registration = new Registration(request, pollPeriodMillis, resultCallback, failureCallback);
+        Group group = groups.computeIfAbsent(registration.groupKey, key -> new Group());
+        group.registrations.add(registration);
+        plan(registration.groupKey, group);
+        return registration;
+    }
+
+    /**
+     * Unregister all reads
+     */
+    public synchronized void close() {
+        groups.values().forEach(group -> {
+            group.plannedReads.forEach(plannedRead -> comms.unregisterRegularPoll(plannedRead.pollTask()));
+            group.plannedReads.clear();
+        });
+        groups.clear();
+        updateStatistics();
+    }
+
+    /**
+     * @return statistics of the currently planned reads
+     */
+    public synchronized Statistics getStatistics() {
+        return statistics;
+    }
+
+    private synchronized void unregister(Registration registration) {
+        Group group = groups.get(registration.groupKey);
+        if (group == null || !group.registrations.remove(registration)) {
+            return;
+        }
+        plan(registration.groupKey, group);
+        if (group.registrations.isEmpty()) {
+            groups.remove(registration.groupKey);
+        }
+    }
+
+    private void plan(GroupKey key, Group group) {
+        List<List<Registration>> blocks = merge(group.registrations, getMaxLength(key.functionCode()), maxGap);
+        List<PlannedRead> previousReads = new ArrayList<>(group.plannedReads);
+        List<@Nullable PlannedRead> reusedReads = new ArrayList<>();
+        for (List<Registration> block : blocks) {
+            PlannedRead reusable = findReusable(previousReads, createRequest(key, block), block);
+            if (reusable != null) {
+                previousReads.remove(reusable);
+            }
+            reusedReads.add(reusable);
+        }
+        // stop the changed requests before registering their replacements
+        previousReads.forEach(plannedRead -> comms.unregisterRegularPoll(plannedRead.pollTask()));
+
+        List<PlannedRead> plannedReads = new ArrayList<>();
+        for (int i = 0; i < blocks.size(); i++) {
+            List<Registration> block = blocks.get(i);
+            PlannedRead reusable = reusedReads.get(i);
+            if (reusable != null) {
+                MergedReadCallback callback = reusable.callback();
+                if (callback != null) {
+                    callback.registrations = List.copyOf(block);
+                }
+                plannedReads.add(new PlannedRead(reusable.request(), block, reusable.pollTask(), callback));
+            } else {
+                plannedReads.add(register(key, createRequest(key, block), block));
+            }
+        }
+        group.plannedReads = plannedReads;
+        updateStatistics();
+    }
+
+    private ModbusReadRequestBlueprint createRequest(GroupKey key, List<Registration> block) {
+        if (block.size() == 1) {
+            return block.get(0).request;
+        }
+        int start = block.get(0).getStart();
+        int end = block.stream().mapToInt(Registration::getEnd).max().orElse(start);
+        int maxTries = block.stream().mapToInt(registration -> registration.request.getMaxTries()).max().orElse(1);
+        return new ModbusReadRequestBlueprint(key.unitId(), key.functionCode(), start, end - start, maxTries);
+    }
+
+    /**
+     * Find a registered request which can be kept for a block, i.e. it reads the same data with the same kind of
+     * callback
+     */
+    private static @Nullable PlannedRead findReusable(List<PlannedRead> plannedReads,
+            ModbusReadRequestBlueprint request, List<Registration> block) {
+        for (PlannedRead plannedRead : plannedReads) {
+            if (!isSameRequest(plannedRead.request(), request)) {
+                continue;
+            }
+            if (block.size() == 1 ? plannedRead.callback() == null && plannedRead.registrations().equals(block)
+                    : plannedRead.callback() != null) {
+                return plannedRead;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameRequest(ModbusReadRequestBlueprint a, ModbusReadRequestBlueprint b) {
+        return a.getUnitID() == b.getUnitID() && a.getFunctionCode() == b.getFunctionCode()
+                && a.getReference() == b.getReference() && a.getDataLength() == b.getDataLength()
+                && a.getMaxTries() == b.getMaxTries();
+    }
+
+    private PlannedRead register(GroupKey key, ModbusReadRequestBlueprint request, List<Registration> block) {
+        // reads which were polled before wait for their next poll, only new reads are polled right away
+        boolean containsNewRead = block.stream().anyMatch(registration -> !registration.planned);
+        long initialDelay = containsNewRead ? 0 : key.pollPeriodMillis();
+        block.forEach(registration -> registration.planned = true);
+        if (block.size() == 1) {
+            Registration registration = block.get(0);
+            PollTask pollTask = comms.registerRegularPoll(request, key.pollPeriodMillis(), initialDelay,
+                    registration.resultCallback, registration.failureCallback);
+            return new PlannedRead(request, block, pollTask, null);
+        }
+        MergedReadCallback callback = new MergedReadCallback(block.get(0).getStart(), List.copyOf(block));
+        logger.debug("Merged {} reads into {}", block.size(), request);
+        PollTask pollTask = comms.registerRegularPoll(request, key.pollPeriodMillis(), initialDelay, callback,
+                callback);
+        return new PlannedRead(request, block, pollTask, callback);
+    }
+
+    private void updateStatistics() {
+        int reads = groups.values().stream().mapToInt(group -> group.registrations.size()).sum();
+        int plannedReads = groups.values().stream().mapToInt(group -> group.plannedReads.size()).sum();
+        Statistics statistics = new Statistics(reads, plannedReads);
+        if (!statistics.equals(this.statistics)) {
+            this.statistics = statistics;
+            logger.debug("{} reads planned as {} reads, saving {} round trips per poll cycle", reads, plannedReads,
+                    statistics.getRoundTripsSaved());
+            statisticsListener.accept(statistics);
+        }
+    }
+
+    private static int getMaxLength(ModbusReadFunctionCode functionCode) {
+        return switch (functionCode) {
+            case READ_COILS, READ_INPUT_DISCRETES -> ModbusConstants.MAX_BITS_READ_COUNT;
+            default -> ModbusConstants.MAX_REGISTERS_READ_COUNT;
+        };
+    }
+
+    /**
+     * Merge the reads into blocks, each block is read by a single request
+     *
+     * @param registrations reads to merge
+     * @param maxLength maximum length of a request
+     * @param maxGap maximum number of registers or coils read in addition to merge two reads
+     * @return blocks of reads, the reads of a block are sorted by their start
+     */
+    static List<List<Registration>> merge(List<Registration> registrations, int maxLength, int maxGap) {
+        List<Registration> sorted = new ArrayList<>(registrations);
+        sorted.sort(Comparator.comparingInt(Registration::getStart));
+
+        List<List<Registration>> blocks = new ArrayList<>();
+        @Nullable
+        List<Registration> block = null;
+        int blockStart = 0;
+        int blockEnd = 0;
+        for (Registration registration : sorted) {
+            int end = Math.max(blockEnd, registration.getEnd());
+            if (block != null && registration.getStart() - blockEnd <= maxGap && end - blockStart <= maxLength) {
+                block.add(registration);
+                blockEnd = end;
+            } else {
+                block = new ArrayList<>();
+                block.add(registration);
+                blocks.add(block);
+                blockStart = registration.getStart();
+                blockEnd = registration.getEnd();
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Slices the data of a merged read into the data of the original reads
+     */
+    private class MergedReadCallback implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final int start;
+        // updated when reads are added to or removed from the block without changing the request
+        private volatile List<Registration> registrations;
+
+        private MergedReadCallback(int start, List<Registration> registrations) {
+            this.start = start;
+            this.registrations = registrations;
+        }
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            Optional<ModbusRegisterArray> registers = result.getRegisters();
+            Optional<BitArray> bits = result.getBits();
+            for (Registration registration : registrations) {
+                int offset = registration.getStart() - start;
+                int length = registration.request.getDataLength();
+                AsyncModbusReadResult slice;
+                if (registers.isPresent()) {
+                    byte[] bytes = registers.get().getBytes();
+                    slice = new AsyncModbusReadResult(registration.request,
+                            new ModbusRegisterArray(Arrays.copyOfRange(bytes, 2 * offset, 2 * (offset + length))));
+                } else if (bits.isPresent()) {
+                    boolean[] values = new boolean[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = bits.get().getBit(offset + i);
+                    }
+                    slice = new AsyncModbusReadResult(registration.request, new BitArray(values));
+                } else {
+                    logger.warn("Merged read {} returned no data", result.getRequest());
+                    return;
+                }
+                registration.resultCallback.handle(slice);
+            }
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            for (Registration registration : registrations) {
+                registration.failureCallback.handle(new AsyncModbusFailure<>(registration.request, failure.getCause()));
+            }
+        }
+    }
+}
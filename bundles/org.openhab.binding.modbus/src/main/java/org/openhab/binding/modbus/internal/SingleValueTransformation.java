@@ -29,6 +29,7 @@ import org.openhab.core.transform.TransformationService;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.TypeParser;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,6 +67,7 @@ public class SingleValueTransformation implements ValueTransformation {
     private final @Nullable String transformation;
     final @Nullable String transformationServiceName;
     final @Nullable String transformationServiceParam;
+    private final @Nullable TransformationServiceTracker transformationServiceTracker;
 
     /**
      *
@@ -75,6 +77,7 @@ public class SingleValueTransformation implements ValueTransformation {
      */
     public SingleValueTransformation(@Nullable String transformation) {
         this.transformation = transformation;
+        this.transformationServiceTracker = null;
         //
         // Parse transformation configuration here on construction, but delay the
         // construction of TransformationService to call-time
@@ -116,9 +119,54 @@ public class SingleValueTransformation implements ValueTransformation {
      */
     SingleValueTransformation(String transformation, @Nullable String transformationServiceName,
             @Nullable String transformationServiceParam) {
+        this(transformation, transformationServiceName, transformationServiceParam, null);
+    }
+
+    private SingleValueTransformation(@Nullable String transformation, @Nullable String transformationServiceName,
+            @Nullable String transformationServiceParam,
+            @Nullable TransformationServiceTracker transformationServiceTracker) {
         this.transformation = transformation;
         this.transformationServiceName = transformationServiceName;
         this.transformationServiceParam = transformationServiceParam;
+        this.transformationServiceTracker = transformationServiceTracker;
+    }
+
+    /**
+     * Resolve the transformation service once, instead of looking it up on every transformation. The service is
+     * tracked, so the transformation keeps using the currently registered service until it is {@link #close() closed}.
+     *
+     * @param context bundle context used to track the transformation service
+     * @param serviceListener called when the transformation service appears, changes or goes away
+     * @return transformation using the tracked service, or this transformation if there is no service to resolve. In
+     *         that case the service is looked up on every transformation.
+     */
+    public SingleValueTransformation resolve(BundleContext context, Runnable serviceListener) {
+        String transformationServiceName = this.transformationServiceName;
+        if (transformationServiceName == null || transformationServiceParam == null
+                || transformationServiceTracker != null) {
+            return this;
+        }
+        TransformationServiceTracker tracker;
+        try {
+            tracker = new TransformationServiceTracker(context, transformationServiceName, serviceListener);
+        } catch (InvalidSyntaxException e) {
+            logger.debug("Cannot track transformation service '{}', looking it up on every transformation: {}",
+                    transformationServiceName, e.getMessage());
+            return this;
+        }
+        tracker.open();
+        return new SingleValueTransformation(transformation, transformationServiceName, transformationServiceParam,
+                tracker);
+    }
+
+    /**
+     * Stop tracking the transformation service of a {@link #resolve(BundleContext, Runnable) resolved} transformation
+     */
+    public void close() {
+        TransformationServiceTracker transformationServiceTracker = this.transformationServiceTracker;
+        if (transformationServiceTracker != null) {
+            transformationServiceTracker.close();
+        }
     }
 
     @Override
@@ -133,9 +181,11 @@ public class SingleValueTransformation implements ValueTransformation {
                     throw new TransformationException(
                             "transformation service parameter is missing! Invalid transform?");
                 }
+                TransformationServiceTracker transformationServiceTracker = this.transformationServiceTracker;
                 @Nullable
-                TransformationService transformationService = TransformationHelper.getTransformationService(context,
-                        transformationServiceName);
+                TransformationService transformationService = transformationServiceTracker != null
+                        ? transformationServiceTracker.getService()
+                        : TransformationHelper.getTransformationService(context, transformationServiceName);
                 if (transformationService != null) {
                     transformedResponse = transformationService.transform(transformationServiceParam, value);
                 } else {
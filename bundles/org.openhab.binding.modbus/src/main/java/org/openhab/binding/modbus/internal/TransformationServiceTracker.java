@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.transform.TransformationService;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+import org.osgi.util.tracker.ServiceTracker;
+
+/**
+ * Tracks the transformation service of one transformation type, so it does not need to be looked up on every
+ * transformation. The tracked service is always the one currently registered, also when the transformation bundle is
+ * updated or restarted.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+class TransformationServiceTracker extends ServiceTracker<TransformationService, TransformationService> {
+
+    private final Runnable serviceListener;
+
+    /**
+     * @param context bundle context used to track the service
+     * @param transformationServiceName transformation type, e.g. MAP
+     * @param serviceListener called when the service appears, changes or goes away
+     * @throws InvalidSyntaxException if the transformation type can't be used in a service filter
+     */
+    TransformationServiceTracker(BundleContext context, String transformationServiceName, Runnable serviceListener)
+            throws InvalidSyntaxException {
+        super(context, context.createFilter("(&(" + Constants.OBJECTCLASS + "=" + TransformationService.class.getName()
+                + ")(" + TransformationService.SERVICE_PROPERTY_NAME + "=" + transformationServiceName + "))"), null);
+        this.serviceListener = serviceListener;
+    }
+
+    @Override
+    public @Nullable TransformationService addingService(ServiceReference<TransformationService> reference) {
+        TransformationService service = super.addingService(reference);
+        serviceListener.run();
+        return service;
+    }
+
+    @Override
+    public void modifiedService(ServiceReference<TransformationService> reference, TransformationService service) {
+        serviceListener.run();
+    }
+
+    @Override
+    public void removedService(ServiceReference<TransformationService> reference, TransformationService service) {
+        super.removedService(reference, service);
+        serviceListener.run();
+    }
+}
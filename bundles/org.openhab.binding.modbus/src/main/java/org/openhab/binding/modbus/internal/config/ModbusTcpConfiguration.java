@@ -33,6 +33,8 @@ public class ModbusTcpConfiguration {
     private int afterConnectionDelayMillis;
     private int connectTimeoutMillis = 10_000;
     private boolean enableDiscovery;
+    private boolean mergeReads;
+    private int mergeReadsMaxGap;
     private boolean rtuEncoded;
 
     public boolean getRtuEncoded() {
@@ -118,4 +120,20 @@ public class ModbusTcpConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public boolean isMergeReads() {
+        return mergeReads;
+    }
+
+    public void setMergeReads(boolean mergeReads) {
+        this.mergeReads = mergeReads;
+    }
+
+    public int getMergeReadsMaxGap() {
+        return mergeReadsMaxGap;
+    }
+
+    public void setMergeReadsMaxGap(int mergeReadsMaxGap) {
+        this.mergeReadsMaxGap = mergeReadsMaxGap;
+    }
 }
@@ -12,11 +12,14 @@
  */
 package org.openhab.binding.modbus.internal.handler;
 
+import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal.*;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.ModbusReadPlanner;
 import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
 import org.openhab.core.io.transport.modbus.ModbusManager;
 import org.openhab.core.io.transport.modbus.endpoint.EndpointPoolConfiguration;
@@ -46,8 +49,11 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     protected volatile @Nullable E endpoint;
     protected ModbusManager modbusManager;
     protected volatile @NonNullByDefault({}) EndpointPoolConfiguration poolConfiguration;
+    protected volatile boolean mergeReads;
+    protected volatile int mergeReadsMaxGap;
     private final Logger logger = LoggerFactory.getLogger(AbstractModbusEndpointThingHandler.class);
     private @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private volatile @Nullable ModbusReadPlanner readPlanner;
 
     public AbstractModbusEndpointThingHandler(Bridge bridge, ModbusManager modbusManager) {
         super(bridge);
@@ -76,6 +82,9 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
                 }
                 try {
                     comms = modbusManager.newModbusCommunicationInterface(endpoint, poolConfiguration);
+                    readPlanner = mergeReads
+                            ? new ModbusReadPlanner(comms, mergeReadsMaxGap, this::updateReadPlannerProperties)
+                            : null;
                     updateStatus(ThingStatus.ONLINE);
                 } catch (IllegalArgumentException e) {
                     updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
@@ -93,6 +102,11 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
 
     @Override
     public void dispose() {
+        ModbusReadPlanner localReadPlanner = readPlanner;
+        if (localReadPlanner != null) {
+            localReadPlanner.close();
+            readPlanner = null;
+        }
         try {
             ModbusCommunicationInterface localComms = comms;
             if (localComms != null) {
@@ -110,6 +124,17 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
         return comms;
     }
 
+    @Override
+    public @Nullable ModbusReadPlanner getReadPlanner() {
+        return readPlanner;
+    }
+
+    private void updateReadPlannerProperties(ModbusReadPlanner.Statistics statistics) {
+        updateProperty(PROPERTY_READS, String.valueOf(statistics.reads()));
+        updateProperty(PROPERTY_PLANNED_READS, String.valueOf(statistics.plannedReads()));
+        updateProperty(PROPERTY_ROUND_TRIPS_SAVED, String.valueOf(statistics.getRoundTripsSaved()));
+    }
+
     @Nullable
     public E getEndpoint() {
         return endpoint;
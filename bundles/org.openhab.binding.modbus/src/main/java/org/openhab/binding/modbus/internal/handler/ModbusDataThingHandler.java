@@ -14,11 +14,9 @@ package org.openhab.binding.modbus.internal.handler;
 
 import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal.*;
 
-import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +33,7 @@ import org.openhab.binding.modbus.handler.ModbusPollerThingHandler;
 import org.openhab.binding.modbus.internal.CascadedValueTransformationImpl;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.ModbusDecodePlan;
 import org.openhab.binding.modbus.internal.SingleValueTransformation;
 import org.openhab.binding.modbus.internal.ValueTransformation;
 import org.openhab.binding.modbus.internal.config.ModbusDataConfiguration;
@@ -78,7 +77,6 @@ import org.openhab.core.thing.binding.ThingHandlerCallback;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.RefreshType;
 import org.openhab.core.types.State;
-import org.openhab.core.types.UnDefType;
 import org.openhab.core.util.HexUtils;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
@@ -131,7 +129,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile @Nullable ModbusDataConfiguration config;
     private volatile @Nullable ValueType readValueType;
     private volatile @Nullable ValueType writeValueType;
-    private volatile @Nullable CascadedValueTransformationImpl readTransformation;
+    private volatile @Nullable ModbusDecodePlan readDecodePlan;
     private volatile @Nullable CascadedValueTransformationImpl writeTransformation;
     private volatile Optional<Integer> readIndex = Optional.empty();
     private volatile Optional<Integer> readSubIndex = Optional.empty();
@@ -465,7 +463,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         config = null;
         readValueType = null;
         writeValueType = null;
-        readTransformation = null;
+        closeReadDecodePlan();
         writeTransformation = null;
         readIndex = Optional.empty();
         readSubIndex = Optional.empty();
@@ -488,6 +486,29 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     }
 
+    @Override
+    public synchronized void channelLinked(ChannelUID channelUID) {
+        super.channelLinked(channelUID);
+        invalidateReadDecodePlan();
+    }
+
+    @Override
+    public synchronized void channelUnlinked(ChannelUID channelUID) {
+        super.channelUnlinked(channelUID);
+        invalidateReadDecodePlan();
+    }
+
+    /**
+     * Decode the next poll even if the data did not change, since the linked channels or the transformation services
+     * changed
+     */
+    private void invalidateReadDecodePlan() {
+        ModbusDecodePlan readDecodePlan = this.readDecodePlan;
+        if (readDecodePlan != null) {
+            readDecodePlan.invalidate();
+        }
+    }
+
     @Override
     public synchronized void bridgeStatusChanged(ThingStatusInfo bridgeStatusInfo) {
         logger.debug("bridgeStatusChanged for {}. Reseting handler", this.getThing().getUID());
@@ -576,8 +597,8 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                 throw new ModbusConfigurationException(errmsg);
             }
         }
-        readTransformation = new CascadedValueTransformationImpl(config.getReadTransform());
         validateReadIndex();
+        compileReadDecodePlan(config);
     }
 
     private void validateAndParseWriteParameters(ModbusDataConfiguration config) throws ModbusConfigurationException {
@@ -689,6 +710,27 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         }
     }
 
+    private void compileReadDecodePlan(ModbusDataConfiguration config) {
+        closeReadDecodePlan();
+        ValueType readValueType = this.readValueType;
+        if (!isReadEnabled || readIndex.isEmpty() || readValueType == null) {
+            return;
+        }
+        CascadedValueTransformationImpl readTransformation = new CascadedValueTransformationImpl(
+                config.getReadTransform()).resolve(bundleContext, this::invalidateReadDecodePlan);
+        readDecodePlan = new ModbusDecodePlan(readValueType, readIndex.get() - pollStart, readSubIndex.orElse(0),
+                readTransformation);
+        logger.trace("Thing {} compiled {}", getThing().getUID(), readDecodePlan);
+    }
+
+    private void closeReadDecodePlan() {
+        ModbusDecodePlan readDecodePlan = this.readDecodePlan;
+        this.readDecodePlan = null;
+        if (readDecodePlan != null) {
+            readDecodePlan.close();
+        }
+    }
+
     private void validateReadIndex() throws ModbusConfigurationException {
         @Nullable
         ModbusReadRequestBlueprint readRequest = this.readRequest;
@@ -814,39 +856,23 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         } else if (!isReadEnabled) {
             return;
         }
-        ValueType readValueType = this.readValueType;
-        if (readValueType == null) {
+        ModbusDecodePlan readDecodePlan = this.readDecodePlan;
+        if (readDecodePlan == null) {
             return;
         }
-        State numericState;
-
-        // extractIndex:
-        // e.g. with bit, extractIndex=4 means 5th bit (from right) ("10.4" -> 5th bit of register 10, "10.4" -> 5th bit
-        // of register 10)
-        // bit of second register)
-        // e.g. with 8bit integer, extractIndex=3 means high byte of second register
-        //
-        // with <16 bit types, this is the index of the N'th 1-bit/8-bit item. Each register has 16/2 items,
-        // respectively.
-        // with >=16 bit types, this is index of first register
-        int extractIndex;
-        if (readValueType.getBits() >= 16) {
-            // Invariant, checked in initialize
-            assert readSubIndex.orElse(0) == 0;
-            extractIndex = readIndex.get() - pollStart;
-        } else {
-            int subIndex = readSubIndex.orElse(0);
-            int itemsPerRegister = 16 / readValueType.getBits();
-            extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
+        if (!readDecodePlan.updateRawValue(registers)) {
+            Map<ChannelUID, State> values = processUnchangedValue();
+            logger.trace("Thing {} data unchanged, channels updated: {}. Registers {} for request {}", thing.getUID(),
+                    values, registers, request);
+            return;
         }
-        numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
-                .map(state -> (State) state).orElse(UnDefType.UNDEF);
+        State numericState = readDecodePlan.decode(registers);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        Map<ChannelUID, State> values = processUpdatedValue(readDecodePlan, numericState, boolValue);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
-                thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
-                boolValue, registers, request);
+                thing.getUID(), values, readDecodePlan.getValueType(), readIndex, readSubIndex.orElse(0),
+                readDecodePlan.getExtractIndex(), numericState, boolValue, registers, request);
     }
 
     private synchronized void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
@@ -855,9 +881,19 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         } else if (!isReadEnabled) {
             return;
         }
+        ModbusDecodePlan readDecodePlan = this.readDecodePlan;
+        if (readDecodePlan == null) {
+            return;
+        }
+        if (!readDecodePlan.updateRawValue(bits)) {
+            Map<ChannelUID, State> values = processUnchangedValue();
+            logger.trace("Thing {} data unchanged, channels updated: {}. Bits {} for request {}", thing.getUID(),
+                    values, bits, request);
+            return;
+        }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
-        DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        DecimalType numericState = readDecodePlan.decode(boolValue);
+        Map<ChannelUID, State> values = processUpdatedValue(readDecodePlan, numericState, boolValue);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
@@ -949,20 +985,32 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         }
     }
 
+    /**
+     * Update linked channels with the states of the previous poll, since the polled data did not change
+     *
+     * @return updated channel data
+     */
+    private Map<ChannelUID, State> processUnchangedValue() {
+        Map<ChannelUID, State> states = new HashMap<>(channelLastState);
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            states.put(lastReadSuccessUID, new DateTimeType());
+        }
+        updateExpiredChannels(states);
+        return states;
+    }
+
     /**
      * Update linked channels
      *
+     * @param readDecodePlan decode plan holding the read transformation
      * @param numericState numeric state corresponding to polled data (or UNDEF with floating point NaN or infinity)
      * @param boolValue boolean value corresponding to polled data
      * @return updated channel data
      */
-    private Map<ChannelUID, State> processUpdatedValue(State numericState, boolean boolValue) {
-        ValueTransformation localReadTransformation = readTransformation;
-        if (localReadTransformation == null) {
-            // We should always have transformation available if thing is initalized properly
-            logger.trace("No transformation available, aborting processUpdatedValue");
-            return Collections.emptyMap();
-        }
+    private Map<ChannelUID, State> processUpdatedValue(ModbusDecodePlan readDecodePlan, State numericState,
+            boolean boolValue) {
+        ValueTransformation localReadTransformation = readDecodePlan.getTransformation();
         Map<ChannelUID, State> states = new HashMap<>();
         CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
             ChannelUID channelUID = getChannelUID(channelId);
@@ -1008,6 +1056,8 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                         localReadTransformation.isIdentityTransform() ? "<identity>" : localReadTransformation);
                 states.put(channelUID, transformedState);
             } else {
+                // convert the value again with the next poll, even if it is unchanged
+                readDecodePlan.invalidate();
                 String types = String.join(", ",
                         acceptedDataTypes.stream().map(cls -> cls.getSimpleName()).toArray(String[]::new));
                 logger.warn(
@@ -61,6 +61,8 @@ public class ModbusSerialThingHandler
 
         EndpointPoolConfiguration poolConfiguration = new EndpointPoolConfiguration();
         this.poolConfiguration = poolConfiguration;
+        this.mergeReads = config.isMergeReads();
+        this.mergeReadsMaxGap = config.getMergeReadsMaxGap();
         poolConfiguration.setConnectMaxTries(config.getConnectMaxTries());
         poolConfiguration.setAfterConnectionDelayMillis(config.getAfterConnectionDelayMillis());
         poolConfiguration.setConnectTimeoutMillis(config.getConnectTimeoutMillis());
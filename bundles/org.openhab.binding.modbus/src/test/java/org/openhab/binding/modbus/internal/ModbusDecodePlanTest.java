@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.library.types.DecimalType;
+
+/**
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusDecodePlanTest {
+
+    private static ModbusDecodePlan plan(ValueType valueType, int index, int subIndex) {
+        return new ModbusDecodePlan(valueType, index, subIndex, new CascadedValueTransformationImpl("default"));
+    }
+
+    @Test
+    public void testFirstValueIsChanged() {
+        ModbusDecodePlan plan = plan(ValueType.INT16, 1, 0);
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(1, 2, 3)));
+        assertFalse(plan.updateRawValue(new ModbusRegisterArray(1, 2, 3)));
+    }
+
+    @Test
+    public void testTransformedValueIsAlwaysChanged() {
+        ModbusDecodePlan plan = new ModbusDecodePlan(ValueType.INT16, 1, 0,
+                new CascadedValueTransformationImpl("MAP:test.map"));
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(1, 2, 3)));
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(1, 2, 3)));
+    }
+
+    @Test
+    public void testInvalidatedValueIsChanged() {
+        ModbusDecodePlan plan = plan(ValueType.INT16, 1, 0);
+        plan.updateRawValue(new ModbusRegisterArray(1, 2, 3));
+        plan.invalidate();
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(1, 2, 3)));
+        assertFalse(plan.updateRawValue(new ModbusRegisterArray(1, 2, 3)));
+    }
+
+    @Test
+    public void testOnlyBitsOfTheValueAreCompared() {
+        ModbusDecodePlan plan = plan(ValueType.INT16, 1, 0);
+        plan.updateRawValue(new ModbusRegisterArray(1, 2, 3));
+        // other registers of the poll changed
+        assertFalse(plan.updateRawValue(new ModbusRegisterArray(4, 2, 5)));
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(4, 6, 5)));
+    }
+
+    @Test
+    public void testAllRegistersOfTheValueAreCompared() {
+        ModbusDecodePlan plan = plan(ValueType.FLOAT64_SWAP, 0, 0);
+        plan.updateRawValue(new ModbusRegisterArray(1, 2, 3, 4));
+        assertFalse(plan.updateRawValue(new ModbusRegisterArray(1, 2, 3, 4)));
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(1, 2, 3, 5)));
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(0, 2, 3, 5)));
+    }
+
+    @Test
+    public void testSubIndex() {
+        // high byte of the second register
+        ModbusDecodePlan bytePlan = plan(ValueType.INT8, 1, 1);
+        assertEquals(3, bytePlan.getExtractIndex());
+        bytePlan.updateRawValue(new ModbusRegisterArray(0, 0x1234));
+        assertFalse(bytePlan.updateRawValue(new ModbusRegisterArray(0, 0x12ff)));
+        assertTrue(bytePlan.updateRawValue(new ModbusRegisterArray(0, 0x13ff)));
+
+        // fifth bit of the first register
+        ModbusDecodePlan bitPlan = plan(ValueType.BIT, 0, 4);
+        assertEquals(4, bitPlan.getExtractIndex());
+        bitPlan.updateRawValue(new ModbusRegisterArray(0b10000));
+        assertFalse(bitPlan.updateRawValue(new ModbusRegisterArray(0b11111)));
+        assertTrue(bitPlan.updateRawValue(new ModbusRegisterArray(0b01111)));
+    }
+
+    @Test
+    public void testBits() {
+        ModbusDecodePlan plan = plan(ValueType.BIT, 2, 0);
+        assertTrue(plan.updateRawValue(new BitArray(false, false, true)));
+        assertFalse(plan.updateRawValue(new BitArray(true, true, true)));
+        assertTrue(plan.updateRawValue(new BitArray(true, true, false)));
+        assertEquals(DecimalType.ZERO, plan.decode(false));
+        assertSame(plan.decode(true), plan.decode(true));
+    }
+
+    @Test
+    public void testInvalidate() {
+        ModbusDecodePlan plan = plan(ValueType.UINT16, 0, 0);
+        plan.updateRawValue(new ModbusRegisterArray(7));
+        plan.invalidate();
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(7)));
+        assertFalse(plan.updateRawValue(new ModbusRegisterArray(7)));
+    }
+
+    @Test
+    public void testValueOutsideOfPolledData() {
+        ModbusDecodePlan plan = plan(ValueType.INT32, 1, 0);
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(1, 2)));
+        assertTrue(plan.updateRawValue(new ModbusRegisterArray(1, 2)));
+    }
+}
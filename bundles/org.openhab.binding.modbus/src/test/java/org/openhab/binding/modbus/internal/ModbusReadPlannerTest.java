@@ -0,0 +1,280 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+
+/**
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusReadPlannerTest {
+
+    private static final long POLL_PERIOD = 1000;
+
+    /**
+     * Poll registered at the mocked communication interface
+     */
+    private static class RegisteredPoll {
+        private final ModbusReadRequestBlueprint request;
+        private final long initialDelay;
+        private final ModbusReadCallback resultCallback;
+        private final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+        private final PollTask pollTask = mock(PollTask.class);
+
+        private RegisteredPoll(ModbusReadRequestBlueprint request, long initialDelay,
+                ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.initialDelay = initialDelay;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+        }
+    }
+
+    /**
+     * Callback recording the results of a read
+     */
+    private static class RecordingCallback
+            implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final List<AsyncModbusReadResult> results = new ArrayList<>();
+        private final List<AsyncModbusFailure<ModbusReadRequestBlueprint>> failures = new ArrayList<>();
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            failures.add(failure);
+        }
+    }
+
+    private @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private final List<RegisteredPoll> polls = new ArrayList<>();
+    private final List<ModbusReadPlanner.Statistics> statistics = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    public void setUp() {
+        comms = mock(ModbusCommunicationInterface.class);
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenAnswer(invocation -> {
+            RegisteredPoll poll = new RegisteredPoll(invocation.getArgument(0), invocation.getArgument(2),
+                    invocation.getArgument(3), invocation.getArgument(4));
+            polls.add(poll);
+            return poll.pollTask;
+        });
+        when(comms.unregisterRegularPoll(any())).thenAnswer(invocation -> {
+            @Nullable
+            Object pollTask = invocation.getArgument(0);
+            return polls.removeIf(poll -> poll.pollTask == pollTask);
+        });
+    }
+
+    private ModbusReadPlanner.Registration register(ModbusReadPlanner planner, ModbusReadFunctionCode functionCode,
+            int start, int length, RecordingCallback callback) {
+        return planner.registerRegularPoll(new ModbusReadRequestBlueprint(1, functionCode, start, length, 3),
+                POLL_PERIOD, callback, callback);
+    }
+
+    @Test
+    public void testAdjacentReadsAreMerged() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 0, statistics::add);
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 5, new RecordingCallback());
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10, new RecordingCallback());
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 3, new RecordingCallback());
+
+        assertThat(polls.size(), is(equalTo(1)));
+        assertThat(polls.get(0).request.getReference(), is(equalTo(0)));
+        assertThat(polls.get(0).request.getDataLength(), is(equalTo(15)));
+        assertThat(planner.getStatistics().getRoundTripsSaved(), is(equalTo(2)));
+        assertThat(statistics.get(statistics.size() - 1), is(equalTo(new ModbusReadPlanner.Statistics(3, 1))));
+    }
+
+    @Test
+    public void testGapTolerance() {
+        ModbusReadPlanner strictPlanner = new ModbusReadPlanner(comms, 0, statistics::add);
+        register(strictPlanner, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 10, new RecordingCallback());
+        register(strictPlanner, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 12, 5, new RecordingCallback());
+        assertThat(polls.size(), is(equalTo(2)));
+        strictPlanner.close();
+        assertThat(polls.size(), is(equalTo(0)));
+
+        ModbusReadPlanner tolerantPlanner = new ModbusReadPlanner(comms, 2, statistics::add);
+        register(tolerantPlanner, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 10, new RecordingCallback());
+        register(tolerantPlanner, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 12, 5, new RecordingCallback());
+        assertThat(polls.size(), is(equalTo(1)));
+        assertThat(polls.get(0).request.getDataLength(), is(equalTo(17)));
+    }
+
+    @Test
+    public void testProtocolLimitsAreRespected() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 0, statistics::add);
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100, new RecordingCallback());
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 100, new RecordingCallback());
+        register(planner, ModbusReadFunctionCode.READ_COILS, 0, 1500, new RecordingCallback());
+        register(planner, ModbusReadFunctionCode.READ_COILS, 1500, 500, new RecordingCallback());
+
+        // 200 registers need two reads, 2000 coils fit into one read
+        assertThat(polls.size(), is(equalTo(3)));
+        assertThat(planner.getStatistics().getRoundTripsSaved(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testDifferentFunctionCodesAreNotMerged() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 0, statistics::add);
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10, new RecordingCallback());
+        register(planner, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 10, 10, new RecordingCallback());
+
+        assertThat(polls.size(), is(equalTo(2)));
+        assertThat(planner.getStatistics().getRoundTripsSaved(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testRegistersAreSliced() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 1, statistics::add);
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 2, first);
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 103, 2, second);
+
+        RegisteredPoll poll = polls.get(0);
+        poll.resultCallback.handle(new AsyncModbusReadResult(poll.request, new ModbusRegisterArray(1, 2, 3, 4, 5)));
+
+        assertThat(first.results.size(), is(equalTo(1)));
+        assertThat(first.results.get(0).getRequest().getReference(), is(equalTo(100)));
+        assertThat(first.results.get(0).getRegisters().get(), is(equalTo(new ModbusRegisterArray(1, 2))));
+        assertThat(second.results.size(), is(equalTo(1)));
+        assertThat(second.results.get(0).getRequest().getReference(), is(equalTo(103)));
+        assertThat(second.results.get(0).getRegisters().get(), is(equalTo(new ModbusRegisterArray(4, 5))));
+    }
+
+    @Test
+    public void testBitsAreSliced() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 0, statistics::add);
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        register(planner, ModbusReadFunctionCode.READ_COILS, 0, 2, first);
+        register(planner, ModbusReadFunctionCode.READ_COILS, 2, 3, second);
+
+        RegisteredPoll poll = polls.get(0);
+        poll.resultCallback
+                .handle(new AsyncModbusReadResult(poll.request, new BitArray(true, false, false, true, true)));
+
+        assertThat(first.results.get(0).getBits().get(), is(equalTo(new BitArray(true, false))));
+        assertThat(second.results.get(0).getBits().get(), is(equalTo(new BitArray(false, true, true))));
+    }
+
+    @Test
+    public void testFailureIsReportedToAllReads() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 0, statistics::add);
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, first);
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, second);
+
+        RegisteredPoll poll = polls.get(0);
+        Exception cause = new Exception("timeout");
+        poll.failureCallback.handle(new AsyncModbusFailure<>(poll.request, cause));
+
+        assertThat(first.failures.get(0).getCause(), is(sameInstance(cause)));
+        assertThat(first.failures.get(0).getRequest().getDataLength(), is(equalTo(2)));
+        assertThat(second.failures.get(0).getCause(), is(sameInstance(cause)));
+        assertThat(second.failures.get(0).getRequest().getReference(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testUnregisterPlansAgain() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 0, statistics::add);
+        RecordingCallback first = new RecordingCallback();
+        ModbusReadPlanner.Registration firstRegistration = register(planner,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, first);
+        RecordingCallback second = new RecordingCallback();
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, second);
+        assertThat(polls.get(0).request.getDataLength(), is(equalTo(4)));
+
+        firstRegistration.unregister();
+
+        // the remaining read is registered with its own callbacks
+        assertThat(polls.size(), is(equalTo(1)));
+        assertThat(polls.get(0).request.getReference(), is(equalTo(2)));
+        assertThat(polls.get(0).resultCallback, is(sameInstance(second)));
+        assertThat(planner.getStatistics(), is(equalTo(new ModbusReadPlanner.Statistics(1, 1))));
+    }
+
+    @Test
+    public void testUnchangedReadsAreNotRegisteredAgain() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 0, statistics::add);
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, new RecordingCallback());
+        RegisteredPoll firstPoll = polls.get(0);
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2, new RecordingCallback());
+
+        assertThat(polls.size(), is(equalTo(2)));
+        assertThat(polls.get(0), is(sameInstance(firstPoll)));
+        verify(comms, never()).unregisterRegularPoll(any());
+        assertThat(polls.get(1).initialDelay, is(equalTo(0L)));
+    }
+
+    @Test
+    public void testReadWithinMergedRequestKeepsRequest() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 0, statistics::add);
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, new RecordingCallback());
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, new RecordingCallback());
+        RegisteredPoll poll = polls.get(0);
+        RecordingCallback third = new RecordingCallback();
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 2, third);
+
+        assertThat(polls.size(), is(equalTo(1)));
+        assertThat(polls.get(0), is(sameInstance(poll)));
+        poll.resultCallback.handle(new AsyncModbusReadResult(poll.request, new ModbusRegisterArray(1, 2, 3, 4)));
+        assertThat(third.results.get(0).getRegisters().get(), is(equalTo(new ModbusRegisterArray(2, 3))));
+    }
+
+    @Test
+    public void testMovedReadsKeepPollPeriodAsInitialDelay() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(comms, 0, statistics::add);
+        register(planner, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, new RecordingCallback());
+        ModbusReadPlanner.Registration secondRegistration = register(planner,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, new RecordingCallback());
+        // the merged request contains a new read, it is polled right away
+        assertThat(polls.get(0).initialDelay, is(equalTo(0L)));
+
+        secondRegistration.unregister();
+
+        // the remaining read was polled before, it waits for its next poll
+        assertThat(polls.size(), is(equalTo(1)));
+        assertThat(polls.get(0).initialDelay, is(equalTo(POLL_PERIOD)));
+    }
+}
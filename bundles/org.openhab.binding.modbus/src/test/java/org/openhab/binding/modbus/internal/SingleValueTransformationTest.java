@@ -13,11 +13,21 @@
 package org.openhab.binding.modbus.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.openhab.core.transform.TransformationService;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.Filter;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
 
 /**
  * @author Sami Salonen - Initial contribution
@@ -80,4 +90,40 @@ public class SingleValueTransformationTest {
         assertFalse(transformation.isIdentityTransform());
         assertEquals("static", transformation.transform(Mockito.mock(BundleContext.class), "xx"));
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testResolvedTransformationFollowsService() throws Exception {
+        BundleContext context = mock(BundleContext.class);
+        when(context.createFilter(anyString())).thenReturn(mock(Filter.class));
+        ServiceReference<TransformationService> reference = mock(ServiceReference.class);
+        TransformationService service = mock(TransformationService.class);
+        when(service.transform(anyString(), anyString())).thenReturn("transformed");
+        when(context.getServiceReferences((String) isNull(), anyString()))
+                .thenReturn(new ServiceReference<?>[] { reference });
+        when(context.getService(reference)).thenReturn(service);
+        AtomicInteger serviceChanges = new AtomicInteger();
+
+        SingleValueTransformation transformation = new SingleValueTransformation("MAP:test.map").resolve(context,
+                serviceChanges::incrementAndGet);
+        assertEquals("transformed", transformation.transform(context, "1"));
+        verify(service).transform("test.map", "1");
+        verify(context, never()).getServiceReferences(eq(TransformationService.class), anyString());
+
+        ArgumentCaptor<ServiceListener> listener = ArgumentCaptor.forClass(ServiceListener.class);
+        verify(context).addServiceListener(listener.capture(), anyString());
+        // the transformation bundle is updated
+        listener.getValue().serviceChanged(new ServiceEvent(ServiceEvent.UNREGISTERING, reference));
+        assertEquals("1", transformation.transform(context, "1"));
+        ServiceReference<TransformationService> newReference = mock(ServiceReference.class);
+        TransformationService newService = mock(TransformationService.class);
+        when(newService.transform(anyString(), anyString())).thenReturn("transformed again");
+        when(context.getService(newReference)).thenReturn(newService);
+        listener.getValue().serviceChanged(new ServiceEvent(ServiceEvent.REGISTERED, newReference));
+
+        assertEquals("transformed again", transformation.transform(context, "1"));
+        assertEquals(3, serviceChanges.get());
+        transformation.close();
+        verify(context).removeServiceListener(listener.getValue());
+    }
 }
@@ -40,6 +40,11 @@ public class ChannelConfig {
      * this.
      */
     public boolean postCommand = false;
+    /**
+     * If true, a received value only updates the channel if it differs from the current value.
+     * Repeated payloads, like retained messages after a reconnect, are discarded.
+     */
+    public boolean updateOnlyOnChange = false;
     public @Nullable Integer qos;
     public boolean retained = false;
     /** If true, the state topic will not update a state, but trigger a channel instead. */
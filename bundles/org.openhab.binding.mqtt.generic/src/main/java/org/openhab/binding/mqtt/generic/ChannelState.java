@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -66,6 +67,16 @@ public class ChannelState implements MqttMessageSubscriber {
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = CompletableFuture.completedFuture(null);
     private final Object futureLock = new Object();
+    private @Nullable AcceptedPayload lastAcceptedPayload;
+
+    /**
+     * A payload that was accepted as the channel state
+     *
+     * @param payload the raw payload, not copied
+     * @param state the state of the cached value after the payload was processed
+     */
+    private record AcceptedPayload(byte[] payload, State state) {
+    }
 
     /**
      * Creates a new channel state.
@@ -155,6 +166,10 @@ public class ChannelState implements MqttMessageSubscriber {
     /**
      * Incoming message from the MqttBrokerConnection
      *
+     * If the payload is byte-identical to the last payload accepted as the channel state, and the cached value still
+     * holds the state of that payload, the payload is neither decoded nor transformed nor parsed again. The cached
+     * state is passed on as is, or dropped if the channel is configured to update only on changes.
+     *
      * @param topic The topic. Is the same as the field stateTopic.
      * @param payload The byte payload. Must be UTF8 encoded text or binary data.
      */
@@ -166,9 +181,27 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        final AcceptedPayload lastAcceptedPayload = this.lastAcceptedPayload;
+        if (!config.trigger && lastAcceptedPayload != null && Arrays.equals(lastAcceptedPayload.payload(), payload)
+                && lastAcceptedPayload.state().equals(cachedValue.getChannelState())) {
+            if (config.updateOnlyOnChange) {
+                logger.trace("Unchanged payload on '{}' for channel '{}', discarding message", topic, channelUID);
+            } else {
+                publishState(channelStateUpdateListener, lastAcceptedPayload.state());
+            }
+            receivedOrTimeout();
+            return;
+        }
+        this.lastAcceptedPayload = null;
+        final State previousState = cachedValue.getChannelState();
+
         if (cachedValue.isBinary()) {
             cachedValue.update(payload);
-            channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
+            State newState = cachedValue.getChannelState();
+            this.lastAcceptedPayload = new AcceptedPayload(payload, newState);
+            if (!config.updateOnlyOnChange || !newState.equals(previousState)) {
+                channelStateUpdateListener.updateChannelState(channelUID, newState);
+            }
             receivedOrTimeout();
             return;
         }
@@ -222,6 +255,19 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         State newState = cachedValue.getChannelState();
+        // Relative commands (like INCREASE) change the state on every message, they must not be skipped if repeated
+        if (command instanceof State) {
+            this.lastAcceptedPayload = new AcceptedPayload(payload, newState);
+        }
+        if (config.updateOnlyOnChange && newState.equals(previousState)) {
+            logger.trace("Unchanged state '{}' for channel '{}', discarding message", newState, channelUID);
+        } else {
+            publishState(channelStateUpdateListener, newState);
+        }
+        receivedOrTimeout();
+    }
+
+    private void publishState(ChannelStateUpdateListener channelStateUpdateListener, State newState) {
         // If the user explicitly wants a command sent, not an update, do that. But
         // we have to check that the state is even possible to send as a command
         // (i.e. not UNDEF)
@@ -230,7 +276,6 @@ public class ChannelState implements MqttMessageSubscriber {
         } else {
             channelStateUpdateListener.updateChannelState(channelUID, newState);
         }
-        receivedOrTimeout();
     }
 
     /**
@@ -282,6 +327,7 @@ public class ChannelState implements MqttMessageSubscriber {
         this.connection = null;
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
+        lastAcceptedPayload = null;
         cachedValue.resetState();
     }
 
@@ -371,4 +371,55 @@ public class ChannelStateTests {
         assertThat(value.getChannelState(), is(instanceOf(RawType.class)));
         assertThat(((RawType) value.getChannelState()).getMimeType(), is("image/jpeg"));
     }
+
+    @Test
+    public void receiveRepeatedPayloadTest() {
+        ChannelState c = spy(new ChannelState(config, channelUIDMock, textValue, channelStateUpdateListenerMock));
+        c.start(connectionMock, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "A TEST".getBytes());
+        c.processMessage("state", "A TEST".getBytes());
+        assertThat(textValue.getChannelState().toString(), is("A TEST"));
+
+        // the repeated payload updates the channel again, but is not parsed again
+        verify(channelStateUpdateListenerMock, times(2)).updateChannelState(eq(channelUIDMock),
+                eq(new StringType("A TEST")));
+        verify(textValue, times(1)).parseMessage(any());
+
+        // the cached value was changed by someone else, so the payload has to be processed again
+        textValue.update(new StringType("OTHER"));
+        c.processMessage("state", "A TEST".getBytes());
+        assertThat(textValue.getChannelState().toString(), is("A TEST"));
+        verify(textValue, times(2)).parseMessage(any());
+    }
+
+    @Test
+    public void receiveRepeatedRelativePayloadTest() {
+        NumberValue value = new NumberValue(null, null, new BigDecimal(10), null);
+        ChannelState c = spy(new ChannelState(config, channelUIDMock, value, channelStateUpdateListenerMock));
+        c.start(connectionMock, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "15".getBytes());
+        c.processMessage("state", "INCREASE".getBytes());
+        c.processMessage("state", "INCREASE".getBytes());
+        assertThat(value.getChannelState().toString(), is("35"));
+    }
+
+    @Test
+    public void receiveOnlyOnChangeTest() {
+        ChannelConfig config = ChannelConfigBuilder.create("state", "command").build();
+        config.updateOnlyOnChange = true;
+        NumberValue value = new NumberValue(null, null, null, null);
+        ChannelState c = spy(new ChannelState(config, channelUIDMock, value, channelStateUpdateListenerMock));
+        c.start(connectionMock, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "15".getBytes());
+        c.processMessage("state", "15".getBytes());
+        // different payload, same state
+        c.processMessage("state", "15.0".getBytes());
+        verify(channelStateUpdateListenerMock, times(1)).updateChannelState(eq(channelUIDMock), any());
+
+        c.processMessage("state", "16".getBytes());
+        verify(channelStateUpdateListenerMock, times(2)).updateChannelState(eq(channelUIDMock), any());
+    }
 }
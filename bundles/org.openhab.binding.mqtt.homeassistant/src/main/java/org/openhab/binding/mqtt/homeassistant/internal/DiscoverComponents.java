@@ -56,6 +56,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
 
     protected final CompletableFuture<@Nullable Void> discoverFinishedFuture = new CompletableFuture<>();
     private final Gson gson;
+    private final DiscoveryConfigCache<AbstractComponent<?>> configCache = new DiscoveryConfigCache<>();
 
     private @Nullable ScheduledFuture<?> stopDiscoveryFuture;
     private WeakReference<@Nullable MqttBrokerConnection> connectionRef = new WeakReference<>(null);
@@ -100,8 +101,10 @@ public class DiscoverComponents implements MqttMessageSubscriber {
 
         if (config.length() > 0) {
             try {
-                component = ComponentFactory.createComponent(thingUID, haID, config, updateListener, tracker, scheduler,
-                        gson, transformationServiceProvider);
+                // retained configurations are received again on every reconnect, only create changed components
+                component = configCache.get(topic, config,
+                        json -> ComponentFactory.createComponent(thingUID, haID, json, updateListener, tracker,
+                                scheduler, gson, transformationServiceProvider));
                 component.setConfigSeen();
 
                 logger.trace("Found HomeAssistant component {}", haID);
@@ -123,6 +126,23 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         }
     }
 
+    /**
+     * Add a component that was created from its configuration before, e.g. restored from the thing configuration.
+     * If the same configuration is received on the discovery topic, the component is not created again.
+     *
+     * @param component The component
+     */
+    public void addKnownComponent(AbstractComponent<?> component) {
+        configCache.put(component.getHaID().getTopic("config"), component.getChannelConfigurationJson(), component);
+    }
+
+    /**
+     * Returns the cache of the components created from the received configurations, including statistics.
+     */
+    public DiscoveryConfigCache<AbstractComponent<?>> getConfigCache() {
+        return configCache;
+    }
+
     /**
      * Start a components discovery.
      *
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.mqtt.homeassistant.internal.exception.ConfigurationException;
+
+/**
+ * Caches the result of processing the configuration JSON of a HomeAssistant discovery topic, keyed by the topic and
+ * the hash of the configuration.
+ *
+ * Brokers send all retained discovery topics again whenever openHAB (re)connects. If the configuration of a topic
+ * is identical to the one processed before, the cached result is returned instead of parsing the JSON again. Only
+ * new or changed configurations are processed.
+ *
+ * The cache also keeps statistics about the number of processed configurations, the cache hits and the time spent
+ * processing.
+ *
+ * @author openHAB Team - Initial contribution
+ *
+ * @param <T> the result of processing a configuration
+ */
+@NonNullByDefault
+public class DiscoveryConfigCache<T> {
+
+    private record Entry<T> (int hash, String config, T value) {
+        boolean matches(String config) {
+            return hash == config.hashCode() && this.config.equals(config);
+        }
+    }
+
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong cachedCount = new AtomicLong();
+    private final AtomicLong processingNanos = new AtomicLong();
+
+    /**
+     * Get the result of processing the configuration of a topic
+     *
+     * @param topic the discovery topic
+     * @param config the configuration JSON received on the topic
+     * @param processor processes the configuration if it is not cached yet, or if it changed
+     * @return the cached or the new result
+     * @throws ConfigurationException if the configuration is invalid. Invalid configurations are not cached.
+     */
+    public T get(String topic, String config, Function<String, T> processor) {
+        Entry<T> entry = entries.get(topic);
+        if (entry != null && entry.matches(config)) {
+            cachedCount.incrementAndGet();
+            return entry.value();
+        }
+        long start = System.nanoTime();
+        try {
+            T value = processor.apply(config);
+            entries.put(topic, new Entry<>(config.hashCode(), config, value));
+            return value;
+        } finally {
+            processedCount.incrementAndGet();
+            processingNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Add the result of processing the configuration of a topic, e.g. a component restored from the thing
+     * configuration
+     *
+     * @param topic the discovery topic
+     * @param config the configuration JSON
+     * @param value the result of processing the configuration
+     */
+    public void put(String topic, String config, T value) {
+        entries.put(topic, new Entry<>(config.hashCode(), config, value));
+    }
+
+    /**
+     * Remove the cached result of a topic, e.g. if the topic vanished
+     *
+     * @param topic the discovery topic
+     */
+    public void remove(String topic) {
+        entries.remove(topic);
+    }
+
+    /**
+     * @return number of cached topics
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of configurations that were processed
+     */
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * @return number of configurations that were taken from the cache
+     */
+    public long getCachedCount() {
+        return cachedCount.get();
+    }
+
+    /**
+     * @return time spent processing configurations, in milliseconds
+     */
+    public long getProcessingMillis() {
+        return processingNanos.get() / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return size() + " topics cached, " + getProcessedCount() + " configurations processed in "
+                + getProcessingMillis() + " ms, " + getCachedCount() + " taken from the cache";
+    }
+}
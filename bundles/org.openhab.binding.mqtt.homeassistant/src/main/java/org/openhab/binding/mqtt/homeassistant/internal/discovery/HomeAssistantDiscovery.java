@@ -37,6 +37,7 @@ import org.openhab.binding.mqtt.discovery.AbstractMQTTDiscovery;
 import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryService;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.homeassistant.generic.internal.MqttBindingConstants;
+import org.openhab.binding.mqtt.homeassistant.internal.DiscoveryConfigCache;
 import org.openhab.binding.mqtt.homeassistant.internal.HaID;
 import org.openhab.binding.mqtt.homeassistant.internal.HandlerConfiguration;
 import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfiguration;
@@ -79,6 +80,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     protected final Map<String, Set<HaID>> componentsPerThingID = new TreeMap<>();
     protected final Map<String, ThingUID> thingIDPerTopic = new TreeMap<>();
     protected final Map<String, DiscoveryResult> results = new ConcurrentHashMap<>();
+    protected final DiscoveryConfigCache<AbstractChannelConfiguration> configCache = new DiscoveryConfigCache<>();
 
     private @Nullable ScheduledFuture<?> future;
     private final Gson gson;
@@ -202,8 +204,9 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         HaID haID = new HaID(topic);
 
         try {
-            AbstractChannelConfiguration config = AbstractChannelConfiguration
-                    .fromString(new String(payload, StandardCharsets.UTF_8), gson);
+            // retained configurations are received again on every reconnect, only parse changed configurations
+            AbstractChannelConfiguration config = configCache.get(topic, new String(payload, StandardCharsets.UTF_8),
+                    json -> AbstractChannelConfiguration.fromString(json, gson));
 
             final String thingID = config.getThingId(haID.objectID);
 
@@ -288,6 +291,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
             thingDiscovered(result);
         }
+        logger.debug("Published {} discovery results: {}", localResults.size(), configCache);
     }
 
     @Override
@@ -295,6 +299,7 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
+        configCache.remove(topic);
         if (thingIDPerTopic.containsKey(topic)) {
             ThingUID thingUID = thingIDPerTopic.remove(topic);
             if (thingUID != null) {
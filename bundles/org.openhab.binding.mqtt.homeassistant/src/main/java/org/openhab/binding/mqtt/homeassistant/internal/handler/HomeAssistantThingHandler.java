@@ -23,6 +23,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -141,6 +142,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         }
         discoveryHomeAssistantIDs.addAll(HaID.fromConfig(config));
 
+        long restoreStart = System.nanoTime();
         for (Channel channel : thing.getChannels()) {
             final String groupID = channel.getUID().getGroupId();
             // Already restored component?
@@ -169,11 +171,14 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
                     }
                     haComponents.put(id, component);
                     component.addChannelTypes(channelTypeProvider);
+                    discoverComponents.addKnownComponent(component);
                 } catch (ConfigurationException e) {
                     logger.error("Cannot not restore component {}: {}", thing, e.getMessage());
                 }
             }
         }
+        logger.debug("Restored {} components of thing {} in {} ms", haComponents.size(), thing.getUID(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - restoreStart));
         updateThingType();
 
         super.initialize();
@@ -321,6 +326,8 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
             }
             updateThingType();
         }
+        logger.debug("Discovered {} components of thing {}: {}", discoveredComponentsList.size(), thing.getUID(),
+                discoverComponents.getConfigCache());
     }
 
     private void removeJustRediscoveredChannels(List<Channel> discoveredChannels) {
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.mqtt.homeassistant.internal.exception.ConfigurationException;
+
+/**
+ * Tests for {@link DiscoveryConfigCache}
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class DiscoveryConfigCacheTests {
+    private static final String TOPIC = "homeassistant/switch/name/config";
+    private static final String OTHER_TOPIC = "homeassistant/switch/other/config";
+
+    private final DiscoveryConfigCache<String> cache = new DiscoveryConfigCache<>();
+    private final List<String> processed = new ArrayList<>();
+    private final Function<String, String> processor = config -> {
+        processed.add(config);
+        return "parsed " + config;
+    };
+
+    @Test
+    public void testUnchangedConfigIsProcessedOnce() {
+        String first = cache.get(TOPIC, "{\"name\":\"a\"}", processor);
+        String second = cache.get(TOPIC, "{\"name\":\"a\"}", processor);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(processed.size(), is(1));
+        assertThat(cache.getProcessedCount(), is(1L));
+        assertThat(cache.getCachedCount(), is(1L));
+    }
+
+    @Test
+    public void testChangedConfigIsProcessedAgain() {
+        cache.get(TOPIC, "{\"name\":\"a\"}", processor);
+        assertThat(cache.get(TOPIC, "{\"name\":\"b\"}", processor), is("parsed {\"name\":\"b\"}"));
+        // the same configuration on another topic is processed, too
+        cache.get(OTHER_TOPIC, "{\"name\":\"b\"}", processor);
+
+        assertThat(processed.size(), is(3));
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getCachedCount(), is(0L));
+    }
+
+    @Test
+    public void testKnownValueIsUsed() {
+        cache.put(TOPIC, "{\"name\":\"a\"}", "restored");
+
+        assertThat(cache.get(TOPIC, "{\"name\":\"a\"}", processor), is("restored"));
+        assertThat(processed.size(), is(0));
+    }
+
+    @Test
+    public void testInvalidConfigIsNotCached() {
+        Function<String, String> failingProcessor = config -> {
+            processed.add(config);
+            throw new ConfigurationException("invalid");
+        };
+        assertThrows(ConfigurationException.class, () -> cache.get(TOPIC, "{", failingProcessor));
+        assertThrows(ConfigurationException.class, () -> cache.get(TOPIC, "{", failingProcessor));
+
+        assertThat(processed.size(), is(2));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void testRemove() {
+        cache.get(TOPIC, "{\"name\":\"a\"}", processor);
+        cache.remove(TOPIC);
+        cache.get(TOPIC, "{\"name\":\"a\"}", processor);
+
+        assertThat(processed.size(), is(2));
+    }
+}
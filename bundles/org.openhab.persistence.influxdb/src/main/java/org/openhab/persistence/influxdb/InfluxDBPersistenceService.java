@@ -14,10 +14,12 @@ package org.openhab.persistence.influxdb;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -25,21 +27,22 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemFactory;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.ItemUtil;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.ModifiablePersistenceService;
@@ -56,7 +59,10 @@ import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils;
+import org.openhab.persistence.influxdb.internal.InfluxDBWriteQueue;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
+import org.openhab.persistence.influxdb.internal.InfluxPointSpillFile;
+import org.openhab.persistence.influxdb.internal.QueryResultIterable;
 import org.openhab.persistence.influxdb.internal.influx1.InfluxDB1RepositoryImpl;
 import org.openhab.persistence.influxdb.internal.influx2.InfluxDB2RepositoryImpl;
 import org.osgi.framework.Constants;
@@ -98,8 +104,12 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     private final Logger logger = LoggerFactory.getLogger(InfluxDBPersistenceService.class);
 
-    private static final int COMMIT_INTERVAL = 3; // in s
     protected static final String CONFIG_URI = "persistence:influxdb";
+    private static final Path SPILL_FILE = Path.of(OpenHAB.getUserDataFolder(), "persistence", "influxdb",
+            "write-queue.spill");
+    private static final Duration MIN_AGGREGATION_WINDOW = Duration.ofMinutes(1);
+    // results with at most this number of rows are read into memory, larger results are streamed
+    private static final int QUERY_MATERIALIZE_LIMIT = 1000;
 
     // External dependencies
     private final ItemRegistry itemRegistry;
@@ -111,7 +121,7 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     // storage
     private final ScheduledFuture<?> storeJob;
-    private final BlockingQueue<InfluxPoint> pointsQueue = new LinkedBlockingQueue<>();
+    private final InfluxDBWriteQueue pointsQueue;
 
     // conversion
     private final Set<ItemFactory> itemFactories = new HashSet<>();
@@ -124,10 +134,13 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         this.influxDBMetadataService = influxDBMetadataService;
         this.configuration = new InfluxDBConfiguration(config);
         if (configuration.isValid()) {
+            this.pointsQueue = new InfluxDBWriteQueue(configuration.getWriteQueueSize(),
+                    configuration.getWriteBatchSize(), createSpillFile());
             this.influxDBRepository = createInfluxDBRepository();
             this.influxDBRepository.connect();
+            int writeInterval = configuration.getWriteInterval();
             this.storeJob = ThreadPoolManager.getScheduledPool("org.openhab.influxdb")
-                    .scheduleWithFixedDelay(this::commit, COMMIT_INTERVAL, COMMIT_INTERVAL, TimeUnit.SECONDS);
+                    .scheduleWithFixedDelay(this::commit, writeInterval, writeInterval, TimeUnit.SECONDS);
             serviceActivated = true;
         } else {
             throw new IllegalArgumentException("Configuration invalid.");
@@ -145,6 +158,19 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         };
     }
 
+    private @Nullable InfluxPointSpillFile createSpillFile() {
+        if (!configuration.isWriteSpill()) {
+            return null;
+        }
+        try {
+            return new InfluxPointSpillFile(SPILL_FILE, configuration.getWriteSpillMaxSize() * 1024L * 1024L);
+        } catch (IOException e) {
+            logger.warn("Cannot open spill file {}, points exceeding the write queue will be dropped: {}", SPILL_FILE,
+                    e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Disconnect from database when service is deactivated
      */
@@ -155,9 +181,11 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         storeJob.cancel(false);
         commit(); // ensure we at least tried to store the data;
 
-        if (!pointsQueue.isEmpty()) {
-            logger.warn("InfluxDB failed to finally store {} points.", pointsQueue.size());
+        long lost = pointsQueue.close();
+        if (lost > 0) {
+            logger.warn("InfluxDB failed to finally store {} points.", lost);
         }
+        logger.debug("InfluxDB write queue: {}", pointsQueue.getMetrics());
 
         influxDBRepository.disconnect();
         logger.info("InfluxDB persistence service stopped.");
@@ -210,11 +238,8 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 logger.trace("Ignoring item {}, conversion to an InfluxDB point failed.", item.getName());
                 return;
             }
-            if (pointsQueue.offer(point)) {
-                logger.trace("Queued {} for item {}", point, item);
-            } else {
-                logger.warn("Failed to queue {} for item {}", point, item);
-            }
+            pointsQueue.add(point);
+            logger.trace("Queued {} for item {}", point, item);
         });
     }
 
@@ -244,15 +269,49 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 return List.of();
             }
 
-            List<InfluxDBRepository.InfluxRow> results = influxDBRepository.query(filter,
-                    configuration.getRetentionPolicy());
-            return results.stream().map(this::mapRowToHistoricItem).collect(Collectors.toList());
+            String retentionPolicy = configuration.getRetentionPolicy();
+            Duration aggregationWindow = getAggregationWindow(filter);
+            return new QueryResultIterable<>(() -> influxDBRepository
+                    .query(filter, retentionPolicy, aggregationWindow).map(this::mapRowToHistoricItem),
+                    QUERY_MATERIALIZE_LIMIT);
         } else {
             logger.debug("Query for persisted data ignored, InfluxDB is not connected");
             return List.of();
         }
     }
 
+    /**
+     * Determines the window size for downsampling the values of a query to the configured point budget.
+     *
+     * @return the window size, or <code>null</code> if the raw values have to be returned
+     */
+    private @Nullable Duration getAggregationWindow(FilterCriteria filter) {
+        int pointBudget = configuration.getQueryPointBudget();
+        ZonedDateTime beginDate = filter.getBeginDate();
+        // mean values can't be filtered or paged like the raw values
+        if (pointBudget == 0 || beginDate == null || filter.getState() != null
+                || filter.getPageSize() != Integer.MAX_VALUE || !isNumericItem(filter.getItemName())) {
+            return null;
+        }
+        ZonedDateTime endDate = filter.getEndDate();
+        Instant end = endDate == null ? Instant.now() : endDate.toInstant();
+        long rangeSeconds = Duration.between(beginDate.toInstant(), end).toSeconds();
+        Duration window = Duration.ofSeconds((rangeSeconds + pointBudget - 1) / pointBudget);
+        if (window.compareTo(MIN_AGGREGATION_WINDOW) < 0) {
+            return null;
+        }
+        logger.trace("Downsampling query for item {} to windows of {}", filter.getItemName(), window);
+        return window;
+    }
+
+    private boolean isNumericItem(@Nullable String itemName) {
+        Item item = itemName == null ? null : itemRegistry.get(itemName);
+        if (item instanceof GroupItem groupItem) {
+            item = groupItem.getBaseItem();
+        }
+        return item instanceof NumberItem;
+    }
+
     private HistoricItem mapRowToHistoricItem(InfluxDBRepository.InfluxRow row) {
         State state = InfluxDBStateConvertUtils.objectToState(row.value(), row.itemName(), itemRegistry);
         return new InfluxDBHistoricItem(row.itemName(), state,
@@ -281,18 +340,22 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     private void commit() {
         if (!pointsQueue.isEmpty() && checkConnection()) {
-            List<InfluxPoint> points = new ArrayList<>();
-            pointsQueue.drainTo(points);
-            if (!influxDBRepository.write(points)) {
-                logger.warn("Re-queuing {} elements, failed to write batch.", points.size());
-                pointsQueue.addAll(points);
+            if (!pointsQueue.flush(influxDBRepository::write)) {
+                logger.warn("Failed to write batch, keeping {} points queued.", pointsQueue.size());
                 influxDBRepository.disconnect();
             } else {
-                logger.trace("Wrote {} elements to database", points.size());
+                logger.trace("Wrote queued points to database: {}", pointsQueue.getMetrics());
             }
         }
     }
 
+    /**
+     * Returns the counters of the write queue.
+     */
+    public InfluxDBWriteQueue.Metrics getWriteQueueMetrics() {
+        return pointsQueue.getMetrics();
+    }
+
     /**
      * Convert incoming data to an {@link InfluxPoint} for further processing. This is needed because storage is
      * asynchronous and the item data may have changed.
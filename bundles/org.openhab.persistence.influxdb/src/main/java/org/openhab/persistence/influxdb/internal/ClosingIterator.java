@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.lang.ref.Cleaner;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Iterator over a query result stream, which closes the stream (and thus cancels a running query) as soon as the last
+ * element was read.
+ *
+ * Results of {@link org.openhab.core.persistence.QueryablePersistenceService#query} are plain iterables, their
+ * consumers can't tell the service that they stopped iterating early. For such iterators the stream is closed when
+ * the iterator is garbage collected, in addition to the query timeout.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class ClosingIterator<T> implements Iterator<T>, AutoCloseable {
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Iterator<T> iterator;
+    private final Cleaner.Cleanable cleanable;
+
+    public ClosingIterator(Stream<T> stream) {
+        this.iterator = stream.iterator();
+        // the cleaning action must not reference this iterator
+        this.cleanable = CLEANER.register(this, stream::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        boolean hasNext = iterator.hasNext();
+        if (!hasNext) {
+            close();
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        return iterator.next();
+    }
+
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+}
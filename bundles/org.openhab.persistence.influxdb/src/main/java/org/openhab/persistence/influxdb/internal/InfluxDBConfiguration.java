@@ -40,6 +40,12 @@ public class InfluxDBConfiguration {
     public static final String ADD_CATEGORY_TAG_PARAM = "addCategoryTag";
     public static final String ADD_LABEL_TAG_PARAM = "addLabelTag";
     public static final String ADD_TYPE_TAG_PARAM = "addTypeTag";
+    public static final String WRITE_INTERVAL_PARAM = "writeInterval";
+    public static final String WRITE_BATCH_SIZE_PARAM = "writeBatchSize";
+    public static final String WRITE_QUEUE_SIZE_PARAM = "writeQueueSize";
+    public static final String WRITE_SPILL_PARAM = "writeSpill";
+    public static final String WRITE_SPILL_MAX_SIZE_PARAM = "writeSpillMaxSize";
+    public static final String QUERY_POINT_BUDGET_PARAM = "queryPointBudget";
     private final Logger logger = LoggerFactory.getLogger(InfluxDBConfiguration.class);
     private final String url;
     private final String user;
@@ -52,6 +58,12 @@ public class InfluxDBConfiguration {
     private final boolean addCategoryTag;
     private final boolean addTypeTag;
     private final boolean addLabelTag;
+    private final int writeInterval;
+    private final int writeBatchSize;
+    private final int writeQueueSize;
+    private final boolean writeSpill;
+    private final int writeSpillMaxSize;
+    private final int queryPointBudget;
 
     public InfluxDBConfiguration(Map<String, Object> config) {
         url = ConfigParser.valueAsOrElse(config.get(URL_PARAM), String.class, "http://127.0.0.1:8086");
@@ -65,6 +77,16 @@ public class InfluxDBConfiguration {
         addCategoryTag = ConfigParser.valueAsOrElse(config.get(ADD_CATEGORY_TAG_PARAM), Boolean.class, false);
         addLabelTag = ConfigParser.valueAsOrElse(config.get(ADD_LABEL_TAG_PARAM), Boolean.class, false);
         addTypeTag = ConfigParser.valueAsOrElse(config.get(ADD_TYPE_TAG_PARAM), Boolean.class, false);
+        writeInterval = Math.max(1, ConfigParser.valueAsOrElse(config.get(WRITE_INTERVAL_PARAM), Integer.class, 3));
+        writeBatchSize = Math.max(1,
+                ConfigParser.valueAsOrElse(config.get(WRITE_BATCH_SIZE_PARAM), Integer.class, 5000));
+        writeQueueSize = Math.max(writeBatchSize,
+                ConfigParser.valueAsOrElse(config.get(WRITE_QUEUE_SIZE_PARAM), Integer.class, 50000));
+        writeSpill = ConfigParser.valueAsOrElse(config.get(WRITE_SPILL_PARAM), Boolean.class, false);
+        writeSpillMaxSize = Math.max(1,
+                ConfigParser.valueAsOrElse(config.get(WRITE_SPILL_MAX_SIZE_PARAM), Integer.class, 100));
+        queryPointBudget = Math.max(0,
+                ConfigParser.valueAsOrElse(config.get(QUERY_POINT_BUDGET_PARAM), Integer.class, 0));
     }
 
     private InfluxDBVersion parseInfluxVersion(@Nullable String value) {
@@ -155,12 +177,48 @@ public class InfluxDBConfiguration {
         return version;
     }
 
+    /**
+     * @return interval between writes of queued points in seconds
+     */
+    public int getWriteInterval() {
+        return writeInterval;
+    }
+
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public int getWriteQueueSize() {
+        return writeQueueSize;
+    }
+
+    public boolean isWriteSpill() {
+        return writeSpill;
+    }
+
+    /**
+     * @return maximum size of the spill file in MB
+     */
+    public int getWriteSpillMaxSize() {
+        return writeSpillMaxSize;
+    }
+
+    /**
+     * @return maximum number of points returned for a time range of a numeric item, <code>0</code> if queries are
+     *         never downsampled
+     */
+    public int getQueryPointBudget() {
+        return queryPointBudget;
+    }
+
     @Override
     public String toString() {
         return "InfluxDBConfiguration{url='" + url + "', user='" + user + "', password='" + password.length()
                 + " chars', token='" + token.length() + " chars', databaseName='" + databaseName
                 + "', retentionPolicy='" + retentionPolicy + "', version=" + version + ", replaceUnderscore="
                 + replaceUnderscore + ", addCategoryTag=" + addCategoryTag + ", addTypeTag=" + addTypeTag
-                + ", addLabelTag=" + addLabelTag + '}';
+                + ", addLabelTag=" + addLabelTag + ", writeInterval=" + writeInterval + ", writeBatchSize="
+                + writeBatchSize + ", writeQueueSize=" + writeQueueSize + ", writeSpill=" + writeSpill
+                + ", writeSpillMaxSize=" + writeSpillMaxSize + ", queryPointBudget=" + queryPointBudget + '}';
     }
 }
@@ -12,11 +12,14 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.persistence.FilterCriteria;
 
 /**
@@ -63,10 +66,10 @@ public interface InfluxDBRepository {
      * Executes Flux query
      *
      * @param filter the query filter
-     * @return Query results
-     * 
+     * @param aggregationWindow if not <code>null</code>, the values are downsampled to the mean of windows of this size
+     * @return Query results, read lazily from the response while the stream is consumed
      */
-    List<InfluxRow> query(FilterCriteria filter, String retentionPolicy);
+    Stream<InfluxRow> query(FilterCriteria filter, String retentionPolicy, @Nullable Duration aggregationWindow);
 
     /**
      * Write points to database
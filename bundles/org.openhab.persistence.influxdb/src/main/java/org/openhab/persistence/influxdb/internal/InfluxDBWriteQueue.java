@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of {@link InfluxPoint}s waiting to be written to the database.
+ *
+ * Points are kept in a ring buffer of fixed capacity. When the buffer is full, points are appended to an optional
+ * {@link InfluxPointSpillFile}; without a spill file the oldest point is dropped. Once points have been spilled, all
+ * newer points are spilled as well until the file has been written, so points always reach the database in the order
+ * they were queued.
+ *
+ * Spilled points are read back and written without holding the lock of the queue, so adding points is not blocked by
+ * the disk I/O of a flush.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBWriteQueue {
+    private final Logger logger = LoggerFactory.getLogger(InfluxDBWriteQueue.class);
+
+    private final @Nullable InfluxPoint[] buffer;
+    private final int batchSize;
+    private final @Nullable InfluxPointSpillFile spillFile;
+    private final Object flushLock = new Object();
+
+    // sequence numbers of the oldest and the next point in the ring buffer
+    private long head;
+    private long tail;
+
+    private long spilled;
+    private long written;
+    private long dropped;
+    private boolean dropWarningLogged;
+
+    /**
+     * @param capacity maximum number of points kept in memory
+     * @param batchSize maximum number of points passed to a single write
+     * @param spillFile file taking points that do not fit into memory, or <code>null</code> to drop them
+     */
+    public InfluxDBWriteQueue(int capacity, int batchSize, @Nullable InfluxPointSpillFile spillFile) {
+        this.buffer = new InfluxPoint[capacity];
+        this.batchSize = batchSize;
+        this.spillFile = spillFile;
+    }
+
+    public synchronized void add(InfluxPoint point) {
+        InfluxPointSpillFile spillFile = this.spillFile;
+        boolean full = tail - head == buffer.length;
+        if (spillFile != null && (full || spillFile.hasPending())) {
+            try {
+                if (spillFile.append(point)) {
+                    spilled++;
+                    return;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to write point to spill file: {}", e.getMessage());
+            }
+            drop("spill file is full");
+            return;
+        }
+        if (full) {
+            buffer[index(head)] = null;
+            head++;
+            drop("queue is full");
+        }
+        buffer[index(tail)] = point;
+        tail++;
+    }
+
+    public synchronized boolean isEmpty() {
+        InfluxPointSpillFile spillFile = this.spillFile;
+        return tail == head && (spillFile == null || !spillFile.hasPending());
+    }
+
+    /**
+     * Number of points waiting in memory and in the spill file.
+     */
+    public synchronized long size() {
+        InfluxPointSpillFile spillFile = this.spillFile;
+        return (tail - head) + (spillFile == null ? 0 : spillFile.getPendingPoints());
+    }
+
+    /**
+     * Passes all queued points in batches to the writer, points in memory first, then spilled points. Points are only
+     * removed from the queue after the writer reported success; new points can be queued while a batch is written.
+     *
+     * @param writer writes a batch and returns <code>true</code> on success
+     * @return <code>true</code> if the queue has been drained, <code>false</code> if a write failed
+     */
+    public boolean flush(Predicate<List<InfluxPoint>> writer) {
+        synchronized (flushLock) {
+            while (true) {
+                List<InfluxPoint> points = new ArrayList<>();
+                long batchEnd;
+                synchronized (this) {
+                    batchEnd = Math.min(tail, head + batchSize);
+                    for (long seq = head; seq < batchEnd; seq++) {
+                        InfluxPoint point = buffer[index(seq)];
+                        if (point != null) {
+                            points.add(point);
+                        }
+                    }
+                }
+                InfluxPointSpillFile spillFile = this.spillFile;
+                InfluxPointSpillFile.@Nullable Chunk chunk = null;
+                if (points.isEmpty() && spillFile != null && spillFile.hasPending()) {
+                    // the memory queue is empty, new points are spilled until the file has been written
+                    try {
+                        chunk = spillFile.read(batchSize);
+                        points = chunk.points();
+                    } catch (IOException e) {
+                        logger.warn("Failed to read points from spill file: {}", e.getMessage());
+                        return false;
+                    }
+                }
+                if (points.isEmpty()) {
+                    return true;
+                }
+                if (!writer.test(points)) {
+                    return false;
+                }
+                if (chunk != null && spillFile != null) {
+                    try {
+                        spillFile.consume(chunk);
+                    } catch (IOException e) {
+                        logger.warn("Failed to clean up spill file: {}", e.getMessage());
+                    }
+                }
+                synchronized (this) {
+                    if (chunk == null) {
+                        // points dropped while writing have already moved the head
+                        for (long seq = head; seq < batchEnd; seq++) {
+                            buffer[index(seq)] = null;
+                        }
+                        head = Math.max(head, batchEnd);
+                    }
+                    written += points.size();
+                    dropWarningLogged = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the points still kept in memory to the spill file (if any), so they survive a restart, and closes it.
+     *
+     * @return the number of points that are lost
+     */
+    public synchronized long close() {
+        InfluxPointSpillFile spillFile = this.spillFile;
+        long inMemory = tail - head;
+        if (spillFile == null) {
+            return inMemory;
+        }
+        List<InfluxPoint> points = new ArrayList<>();
+        for (long seq = head; seq < tail; seq++) {
+            InfluxPoint point = buffer[index(seq)];
+            if (point != null) {
+                points.add(point);
+            }
+        }
+        try {
+            spillFile.prepend(points);
+            spilled += points.size();
+            head = tail;
+            inMemory = 0;
+        } catch (IOException e) {
+            logger.warn("Failed to move queued points to spill file: {}", e.getMessage());
+        }
+        spillFile.close();
+        return inMemory;
+    }
+
+    public synchronized Metrics getMetrics() {
+        InfluxPointSpillFile spillFile = this.spillFile;
+        return new Metrics(tail - head, spillFile == null ? 0 : spillFile.getPendingPoints(), spilled, written,
+                dropped);
+    }
+
+    private void drop(String reason) {
+        dropped++;
+        if (!dropWarningLogged) {
+            logger.warn("Dropping points because the {}, {} points dropped so far.", reason, dropped);
+            dropWarningLogged = true;
+        }
+    }
+
+    private int index(long seq) {
+        return (int) (seq % buffer.length);
+    }
+
+    /**
+     * Counters of the write queue.
+     *
+     * @param queued points waiting in memory
+     * @param spillPending points waiting in the spill file
+     * @param spilled points written to the spill file since start
+     * @param written points written to the database since start
+     * @param dropped points discarded since start
+     */
+    public record Metrics(long queued, long spillPending, long spilled, long written, long dropped) {
+    }
+}
@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only file holding {@link InfluxPoint}s that did not fit into the in-memory write queue. Points are read back
+ * in the order they were appended; the file is deleted as soon as all of them have been written to the database.
+ *
+ * Each point is stored as a length-prefixed record, so an incomplete last record (e.g. after a crash) is detected and
+ * discarded when the file is opened.
+ *
+ * The file is thread-safe. Reading points does not block appending further points, only one thread may read and
+ * consume points at a time.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointSpillFile {
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BIG_DECIMAL = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_INTEGER = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_BOOLEAN = 6;
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxPointSpillFile.class);
+
+    private final Path path;
+    private final long maxSize;
+    private @Nullable OutputStream out;
+    private long size;
+    private long readPosition;
+    private long pendingPoints;
+    // incremented whenever the file is rewritten, chunks read before refer to the previous content
+    private long generation;
+
+    /**
+     * Opens the spill file. Points left over from a previous run are kept and will be read first.
+     *
+     * @param path location of the file, parent directories are created if needed
+     * @param maxSize maximum size of the file in bytes
+     */
+    public InfluxPointSpillFile(Path path, long maxSize) throws IOException {
+        this.path = path;
+        this.maxSize = maxSize;
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.exists(path)) {
+            scanExistingFile();
+        }
+    }
+
+    public synchronized boolean hasPending() {
+        return pendingPoints > 0;
+    }
+
+    public synchronized long getPendingPoints() {
+        return pendingPoints;
+    }
+
+    /**
+     * Appends a point to the end of the file.
+     *
+     * @return <code>false</code> if the point was not stored because the file reached its maximum size
+     */
+    public synchronized boolean append(InfluxPoint point) throws IOException {
+        if (size >= maxSize) {
+            return false;
+        }
+        byte[] record = encode(point);
+        OutputStream out = this.out;
+        if (out == null) {
+            out = new BufferedOutputStream(
+                    Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+            this.out = out;
+        }
+        out.write(record);
+        out.flush();
+        size += record.length;
+        pendingPoints++;
+        return true;
+    }
+
+    /**
+     * Reads the next points without consuming them. Call {@link #consume(Chunk)} after they have been written.
+     *
+     * The file is read without holding the lock, points appended meanwhile are read by the next call.
+     */
+    public Chunk read(int maxPoints) throws IOException {
+        List<InfluxPoint> points = new ArrayList<>();
+        long position;
+        long end;
+        long generation;
+        synchronized (this) {
+            position = readPosition;
+            end = size;
+            generation = this.generation;
+            if (pendingPoints == 0) {
+                return new Chunk(points, position, generation);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.position(position);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            while (points.size() < maxPoints && position < end) {
+                int length = in.readInt();
+                byte[] record = new byte[length];
+                in.readFully(record);
+                points.add(decode(record));
+                position += Integer.BYTES + length;
+            }
+        }
+        return new Chunk(points, position, generation);
+    }
+
+    /**
+     * Marks the points of a chunk as written. The file is removed once all points have been consumed.
+     */
+    public synchronized void consume(Chunk chunk) throws IOException {
+        if (chunk.generation() != generation) {
+            // the file was rewritten while the chunk was written, its points are kept and will be written again
+            return;
+        }
+        readPosition = chunk.endPosition();
+        pendingPoints -= chunk.points().size();
+        if (readPosition >= size) {
+            clear();
+        }
+    }
+
+    /**
+     * Stores the given points in front of all pending points, e.g. to keep the in-memory queue on shutdown.
+     */
+    public synchronized void prepend(List<InfluxPoint> points) throws IOException {
+        if (points.isEmpty()) {
+            return;
+        }
+        closeOutput();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        long newSize = 0;
+        try (OutputStream tmpOut = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            for (InfluxPoint point : points) {
+                byte[] record = encode(point);
+                tmpOut.write(record);
+                newSize += record.length;
+            }
+            if (pendingPoints > 0) {
+                try (InputStream in = Files.newInputStream(path)) {
+                    in.skipNBytes(readPosition);
+                    newSize += in.transferTo(tmpOut);
+                }
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        size = newSize;
+        readPosition = 0;
+        pendingPoints += points.size();
+        generation++;
+    }
+
+    public synchronized void close() {
+        try {
+            closeOutput();
+        } catch (IOException e) {
+            logger.warn("Closing spill file {} failed: {}", path, e.getMessage());
+        }
+    }
+
+    private void clear() throws IOException {
+        closeOutput();
+        Files.deleteIfExists(path);
+        size = 0;
+        readPosition = 0;
+        pendingPoints = 0;
+        generation++;
+    }
+
+    private void closeOutput() throws IOException {
+        OutputStream out = this.out;
+        this.out = null;
+        if (out != null) {
+            out.close();
+        }
+    }
+
+    private void scanExistingFile() throws IOException {
+        long fileSize = Files.size(path);
+        long position = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (position < fileSize) {
+                int length = in.readInt();
+                if (length < 0 || position + Integer.BYTES + length > fileSize) {
+                    break;
+                }
+                in.skipNBytes(length);
+                position += Integer.BYTES + length;
+                pendingPoints++;
+            }
+        } catch (EOFException e) {
+            // incomplete last record
+        }
+        if (position < fileSize) {
+            logger.warn("Discarding incomplete data at the end of spill file {}", path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(position);
+            }
+        }
+        size = position;
+        if (pendingPoints > 0) {
+            logger.info("Found {} points in spill file {}, they will be written when the database is available",
+                    pendingPoints, path);
+        }
+    }
+
+    private static byte[] encode(InfluxPoint point) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(0); // length, filled in below
+        data.writeUTF(point.getMeasurementName());
+        data.writeLong(point.getTime().getEpochSecond());
+        data.writeInt(point.getTime().getNano());
+        Object value = point.getValue();
+        if (value instanceof BigDecimal bigDecimal) {
+            data.writeByte(TYPE_BIG_DECIMAL);
+            data.writeUTF(bigDecimal.toString());
+        } else if (value instanceof Long longValue) {
+            data.writeByte(TYPE_LONG);
+            data.writeLong(longValue);
+        } else if (value instanceof Integer integerValue) {
+            data.writeByte(TYPE_INTEGER);
+            data.writeInt(integerValue);
+        } else if (value instanceof Number number) {
+            data.writeByte(TYPE_DOUBLE);
+            data.writeDouble(number.doubleValue());
+        } else if (value instanceof Boolean booleanValue) {
+            data.writeByte(TYPE_BOOLEAN);
+            data.writeBoolean(booleanValue);
+        } else {
+            data.writeByte(TYPE_STRING);
+            writeString(data, String.valueOf(value));
+        }
+        Map<String, String> tags = point.getTags();
+        data.writeInt(tags.size());
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            data.writeUTF(tag.getKey());
+            writeString(data, tag.getValue());
+        }
+        data.flush();
+        byte[] record = bytes.toByteArray();
+        int length = record.length - Integer.BYTES;
+        record[0] = (byte) (length >>> 24);
+        record[1] = (byte) (length >>> 16);
+        record[2] = (byte) (length >>> 8);
+        record[3] = (byte) length;
+        return record;
+    }
+
+    private static InfluxPoint decode(byte[] record) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(record));
+        InfluxPoint.Builder builder = InfluxPoint.newBuilder(data.readUTF())
+                .withTime(Instant.ofEpochSecond(data.readLong(), data.readInt()));
+        byte type = data.readByte();
+        switch (type) {
+            case TYPE_BIG_DECIMAL -> builder.withValue(new BigDecimal(data.readUTF()));
+            case TYPE_LONG -> builder.withValue(data.readLong());
+            case TYPE_INTEGER -> builder.withValue(data.readInt());
+            case TYPE_DOUBLE -> builder.withValue(data.readDouble());
+            case TYPE_BOOLEAN -> builder.withValue(data.readBoolean());
+            case TYPE_STRING -> builder.withValue(readString(data));
+            default -> throw new IOException("Unknown value type " + type);
+        }
+        int tagCount = data.readInt();
+        for (int i = 0; i < tagCount; i++) {
+            builder.withTag(data.readUTF(), readString(data));
+        }
+        return builder.build();
+    }
+
+    // writeUTF is limited to 64 kB, string values (e.g. images) can be larger
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Points read from the file together with the file position following them and the generation of the file content
+     * they were read from.
+     */
+    public record Chunk(List<InfluxPoint> points, long endPosition, long generation) {
+    }
+}
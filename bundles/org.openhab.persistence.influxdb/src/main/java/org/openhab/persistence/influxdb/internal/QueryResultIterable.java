@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Result of a query, which runs the query only once.
+ *
+ * The query is executed when the first iterator is requested. Results with at most {@code materializeLimit} rows are
+ * read completely into memory, the query is finished right away and further iterators reuse the rows.
+ *
+ * Larger results are streamed and can only be iterated once, since iterating again would mean running the query
+ * again. The iterator closes the query as soon as the last row has been read or it is {@link AutoCloseable#close()
+ * closed}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class QueryResultIterable<T> implements Iterable<T> {
+    private final Supplier<Stream<T>> query;
+    private final int materializeLimit;
+    private @Nullable List<T> materialized;
+    private boolean streamed;
+
+    /**
+     * @param query runs the query, closing the returned stream cancels it
+     * @param materializeLimit results with at most this number of rows are read into memory
+     */
+    public QueryResultIterable(Supplier<Stream<T>> query, int materializeLimit) {
+        this.query = query;
+        this.materializeLimit = materializeLimit;
+    }
+
+    @Override
+    public synchronized Iterator<T> iterator() {
+        List<T> materialized = this.materialized;
+        if (materialized != null) {
+            return materialized.iterator();
+        }
+        if (streamed) {
+            throw new IllegalStateException("The result of the query is streamed, it can only be iterated once");
+        }
+        ClosingIterator<T> rows = new ClosingIterator<>(query.get());
+        List<T> prefetched = new ArrayList<>();
+        while (prefetched.size() < materializeLimit && rows.hasNext()) {
+            prefetched.add(rows.next());
+        }
+        if (!rows.hasNext()) {
+            // the stream is closed already
+            materialized = Collections.unmodifiableList(prefetched);
+            this.materialized = materialized;
+            return materialized.iterator();
+        }
+        streamed = true;
+        return new StreamedIterator<>(prefetched.iterator(), rows);
+    }
+
+    /**
+     * Iterator over the rows read ahead, followed by the remaining rows of the query
+     */
+    private static class StreamedIterator<T> implements Iterator<T>, AutoCloseable {
+        private final Iterator<T> prefetched;
+        private final ClosingIterator<T> rows;
+
+        private StreamedIterator(Iterator<T> prefetched, ClosingIterator<T> rows) {
+            this.prefetched = prefetched;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return prefetched.hasNext() || rows.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return prefetched.hasNext() ? prefetched.next() : rows.next();
+        }
+
+        @Override
+        public void close() {
+            rows.close();
+        }
+    }
+}
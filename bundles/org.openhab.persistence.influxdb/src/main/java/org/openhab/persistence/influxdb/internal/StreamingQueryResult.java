@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.persistence.influxdb.internal.InfluxDBRepository.InfluxRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the rows of a query over from the client library, which delivers them asynchronously while parsing the
+ * response, to the thread iterating over the result.
+ *
+ * Only a limited number of rows is buffered, the client thread is blocked until the consumer has taken rows from the
+ * buffer. The consumer has to {@link #close()} the result when it is done, closing cancels the query right away and
+ * releases a blocked client thread. The result is closed as well when it is fully read. If the consumer neither takes
+ * rows nor closes the result within the consumer timeout, the query is abandoned and cancelled, too. The consumer
+ * timeout is kept short, since a blocked client thread holds one of the few connections of the HTTP client.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class StreamingQueryResult implements Iterator<InfluxRow>, AutoCloseable {
+    private static final InfluxRow END = new InfluxRow(Instant.EPOCH, "", "");
+    // interval of checking whether the consumer closed the result while the buffer is full
+    private static final long OFFER_POLL_MILLIS = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(StreamingQueryResult.class);
+
+    private final String query;
+    private final BlockingQueue<InfluxRow> rows;
+    private final long timeoutMillis;
+    private final long consumerTimeoutMillis;
+    private volatile boolean abandoned;
+    private volatile @Nullable Runnable cancelAction;
+    private volatile @Nullable String error;
+    private @Nullable InfluxRow next;
+    private boolean done;
+
+    /**
+     * @param query the query, used for logging
+     * @param bufferSize maximum number of rows buffered
+     * @param timeout maximum time to wait for the other side
+     */
+    public StreamingQueryResult(String query, int bufferSize, Duration timeout) {
+        this(query, bufferSize, timeout, timeout);
+    }
+
+    /**
+     * @param query the query, used for logging
+     * @param bufferSize maximum number of rows buffered
+     * @param timeout maximum time to wait for rows of the query
+     * @param consumerTimeout maximum time to wait for the consumer to take a row from the full buffer
+     */
+    public StreamingQueryResult(String query, int bufferSize, Duration timeout, Duration consumerTimeout) {
+        this.query = query;
+        this.rows = new ArrayBlockingQueue<>(bufferSize);
+        this.timeoutMillis = timeout.toMillis();
+        this.consumerTimeoutMillis = consumerTimeout.toMillis();
+    }
+
+    /**
+     * Set the action cancelling the query in the client, it is run when the result is closed. If the result is closed
+     * before, the next {@link #offer(InfluxRow)} returns <code>false</code> instead.
+     */
+    public void setCancelAction(Runnable cancelAction) {
+        this.cancelAction = cancelAction;
+    }
+
+    /**
+     * Called by the client for each row.
+     *
+     * @return <code>false</code> if the consumer abandoned the result and the query should be cancelled
+     */
+    public boolean offer(InfluxRow row) {
+        if (put(row)) {
+            return true;
+        }
+        logger.debug("Rows of query '{}' are not consumed anymore, cancelling it", query);
+        return false;
+    }
+
+    /**
+     * Called by the client after the last row.
+     */
+    public void complete() {
+        put(END);
+    }
+
+    private boolean put(InfluxRow row) {
+        long deadline = System.currentTimeMillis() + consumerTimeoutMillis;
+        try {
+            while (!abandoned) {
+                if (rows.offer(row, OFFER_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+                if (System.currentTimeMillis() - deadline >= 0) {
+                    abandoned = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandoned = true;
+        }
+        return false;
+    }
+
+    /**
+     * Called by the client if the query failed. Rows received before are still returned.
+     */
+    public void fail(Throwable t) {
+        error = t.getMessage();
+        complete();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            next = take();
+        }
+        return next != null;
+    }
+
+    @Override
+    public InfluxRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        InfluxRow row = next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Abandon the result: the query is cancelled and the client thread is released.
+     */
+    @Override
+    public void close() {
+        if (done) {
+            // fully read, or closed before
+            return;
+        }
+        abandoned = true;
+        done = true;
+        next = null;
+        rows.clear();
+        Runnable cancelAction = this.cancelAction;
+        if (cancelAction != null) {
+            cancelAction.run();
+        }
+    }
+
+    /**
+     * @return stream of the rows, closing it closes the result
+     */
+    public Stream<InfluxRow> stream() {
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    private @Nullable InfluxRow take() {
+        InfluxRow row = null;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            while (row == null) {
+                row = rows.poll(OFFER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (row != null) {
+                    break;
+                }
+                if (abandoned) {
+                    // the buffer was full for longer than the consumer timeout, the query is cancelled
+                    logger.warn("Query '{}' was cancelled, its rows were not read within {} ms", query,
+                            consumerTimeoutMillis);
+                    break;
+                }
+                if (System.currentTimeMillis() - deadline >= 0) {
+                    logger.warn("Failed to execute query '{}': no rows received within {} ms", query, timeoutMillis);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (row == null) {
+            close();
+            return null;
+        }
+        if (row == END) {
+            // the query is finished, there is nothing to cancel
+            done = true;
+            abandoned = true;
+            String error = this.error;
+            if (error != null) {
+                logger.warn("Failed to execute query '{}': {}", query, error);
+            }
+            return null;
+        }
+        return row;
+    }
+}
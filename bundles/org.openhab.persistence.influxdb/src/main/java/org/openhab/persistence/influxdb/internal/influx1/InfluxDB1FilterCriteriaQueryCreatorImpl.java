@@ -16,6 +16,7 @@ import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
+import java.time.Duration;
 import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -50,14 +51,20 @@ public class InfluxDB1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
     }
 
     @Override
-    public String createQuery(FilterCriteria criteria, String retentionPolicy) {
+    public String createQuery(FilterCriteria criteria, String retentionPolicy, @Nullable Duration aggregationWindow) {
         final String itemName = Objects.requireNonNull(criteria.getItemName()); // we checked non-null before
         final String tableName = getTableName(itemName);
         final boolean hasCriteriaName = itemName != null;
+        final String fullQualifiedTableName = fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName);
 
-        Select select = select().column("\"" + COLUMN_VALUE_NAME_V1 + "\"::field")
-                .column("\"" + TAG_ITEM_NAME + "\"::tag")
-                .fromRaw(null, fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName));
+        Select select;
+        if (aggregationWindow != null) {
+            select = select().mean(COLUMN_VALUE_NAME_V1).as(COLUMN_VALUE_NAME_V1).fromRaw(null,
+                    fullQualifiedTableName);
+        } else {
+            select = select().column("\"" + COLUMN_VALUE_NAME_V1 + "\"::field")
+                    .column("\"" + TAG_ITEM_NAME + "\"::tag").fromRaw(null, fullQualifiedTableName);
+        }
 
         Where where = select.where();
 
@@ -77,6 +84,11 @@ public class InfluxDB1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
                     getOperationSymbol(criteria.getOperator(), InfluxDBVersion.V1), stateToObject(filterState)));
         }
 
+        if (aggregationWindow != null) {
+            // tags can't be selected together with aggregates, grouping by the item tag returns it with each series
+            select = select.groupBy(time(aggregationWindow.toSeconds(), "s"), TAG_ITEM_NAME).fill("none");
+        }
+
         if (criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING) {
             select = select.orderBy(desc());
         } else if (criteria.getOrdering() == FilterCriteria.Ordering.ASCENDING) {
@@ -17,14 +17,16 @@ import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.COLUMN
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.FIELD_VALUE_NAME;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.TAG_ITEM_NAME;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -42,6 +44,7 @@ import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
+import org.openhab.persistence.influxdb.internal.StreamingQueryResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,6 +60,14 @@ import com.influxdb.exceptions.InfluxException;
  */
 @NonNullByDefault
 public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
+    // number of rows per chunk of the response, also the number of rows buffered
+    private static final int QUERY_CHUNK_SIZE = 1000;
+    private static final Duration QUERY_TIMEOUT = Duration.ofMinutes(1);
+    // the client thread delivering the rows must not wait long for a consumer which stopped reading
+    private static final Duration QUERY_CONSUMER_TIMEOUT = Duration.ofSeconds(10);
+    // marks the end of a chunked response
+    private static final String CHUNKED_RESPONSE_DONE = "DONE";
+
     private final Logger logger = LoggerFactory.getLogger(InfluxDB1RepositoryImpl.class);
     private final InfluxDBConfiguration configuration;
     private final FilterCriteriaQueryCreator queryCreator;
@@ -168,67 +179,107 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
     }
 
     @Override
-    public List<InfluxRow> query(FilterCriteria filter, String retentionPolicy) {
+    public Stream<InfluxRow> query(FilterCriteria filter, String retentionPolicy,
+            @Nullable Duration aggregationWindow) {
         try {
             final InfluxDB currentClient = client;
             if (currentClient != null) {
-                String query = queryCreator.createQuery(filter, retentionPolicy);
+                String query = queryCreator.createQuery(filter, retentionPolicy, aggregationWindow);
                 logger.trace("Query {}", query);
                 Query parsedQuery = new Query(query, configuration.getDatabaseName());
-                List<QueryResult.Result> results = currentClient.query(parsedQuery, TimeUnit.MILLISECONDS).getResults();
-                return convertClientResultToRepository(results);
+                StreamingQueryResult result = new StreamingQueryResult(query, QUERY_CHUNK_SIZE, QUERY_TIMEOUT,
+                        QUERY_CONSUMER_TIMEOUT);
+                // the response is parsed chunk by chunk, instead of loading it completely into memory
+                currentClient.query(parsedQuery, QUERY_CHUNK_SIZE, (cancellable, chunk) -> {
+                    result.setCancelAction(cancellable::cancel);
+                    String error = chunk.getError();
+                    if (error != null) {
+                        if (!CHUNKED_RESPONSE_DONE.equals(error)) {
+                            result.fail(new InfluxDBException(error));
+                        }
+                        return;
+                    }
+                    List<QueryResult.Result> results = chunk.getResults();
+                    if (results == null) {
+                        return;
+                    }
+                    try {
+                        Iterator<InfluxRow> rows = convertClientResultToRepository(results).iterator();
+                        while (rows.hasNext()) {
+                            if (!result.offer(rows.next())) {
+                                cancellable.cancel();
+                                return;
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        cancellable.cancel();
+                        result.fail(e);
+                    }
+                }, result::complete, result::fail);
+                return result.stream();
             } else {
                 throw new InfluxException("API not present");
             }
         } catch (InfluxException | InfluxDBException e) {
             logger.warn("Failed to execute query '{}': {}", filter, e.getMessage());
-            return List.of();
+            return Stream.empty();
         }
     }
 
-    private List<InfluxRow> convertClientResultToRepository(List<QueryResult.Result> results) {
-        List<InfluxRow> rows = new ArrayList<>();
-        for (QueryResult.Result result : results) {
+    private Stream<InfluxRow> convertClientResultToRepository(List<QueryResult.Result> results) {
+        return results.stream().flatMap(result -> {
             List<QueryResult.Series> allSeries = result.getSeries();
             if (result.getError() != null) {
                 logger.warn("{}", result.getError());
-                continue;
+                return Stream.empty();
             }
             if (allSeries == null) {
                 logger.debug("query returned no series");
-            } else {
-                for (QueryResult.Series series : allSeries) {
-                    logger.trace("series {}", series);
-                    String defaultItemName = series.getName();
-                    List<List<Object>> allValues = series.getValues();
-                    if (allValues == null) {
-                        logger.debug("query returned no values");
-                    } else {
-                        List<String> columns = series.getColumns();
-                        logger.trace("columns {}", columns);
-                        if (columns != null) {
-                            int timestampColumn = columns.indexOf(COLUMN_TIME_NAME_V1);
-                            int valueColumn = columns.indexOf(COLUMN_VALUE_NAME_V1);
-                            int itemNameColumn = columns.indexOf(TAG_ITEM_NAME);
-                            if (valueColumn == -1 || timestampColumn == -1) {
-                                throw new IllegalStateException("missing column");
-                            }
-                            for (List<Object> valueObject : allValues) {
-                                Double rawTime = (Double) valueObject.get(timestampColumn);
-                                Instant time = Instant.ofEpochMilli(rawTime.longValue());
-                                Object value = valueObject.get(valueColumn);
-                                String itemName = itemNameColumn == -1 ? defaultItemName
-                                        : Objects.requireNonNullElse((String) valueObject.get(itemNameColumn),
-                                                defaultItemName);
-                                logger.trace("adding historic item {}: time {} value {}", itemName, time, value);
-                                rows.add(new InfluxRow(time, itemName, value));
-                            }
-                        }
-                    }
-                }
+                return Stream.empty();
             }
+            return allSeries.stream().flatMap(this::convertSeries);
+        });
+    }
+
+    private Stream<InfluxRow> convertSeries(QueryResult.Series series) {
+        logger.trace("series {}", series);
+        // aggregated queries return the item name as tag of the series
+        Map<String, String> tags = series.getTags();
+        String seriesItemName = tags == null ? null : tags.get(TAG_ITEM_NAME);
+        String defaultItemName = seriesItemName == null || seriesItemName.isEmpty() ? series.getName()
+                : seriesItemName;
+        List<List<Object>> allValues = series.getValues();
+        if (allValues == null) {
+            logger.debug("query returned no values");
+            return Stream.empty();
         }
-        return rows;
+        List<String> columns = series.getColumns();
+        logger.trace("columns {}", columns);
+        if (columns == null) {
+            return Stream.empty();
+        }
+        int timestampColumn = columns.indexOf(COLUMN_TIME_NAME_V1);
+        int valueColumn = columns.indexOf(COLUMN_VALUE_NAME_V1);
+        int itemNameColumn = columns.indexOf(TAG_ITEM_NAME);
+        if (valueColumn == -1 || timestampColumn == -1) {
+            throw new IllegalStateException("missing column");
+        }
+        return allValues.stream().map(valueObject -> {
+            Instant time = parseTime(valueObject.get(timestampColumn));
+            Object value = valueObject.get(valueColumn);
+            String itemName = itemNameColumn == -1 ? defaultItemName
+                    : Objects.requireNonNullElse((String) valueObject.get(itemNameColumn), defaultItemName);
+            logger.trace("adding historic item {}: time {} value {}", itemName, time, value);
+            return new InfluxRow(time, itemName, value);
+        });
+    }
+
+    /**
+     * Chunked responses contain the time as RFC3339 string, other responses as epoch milliseconds
+     */
+    private static Instant parseTime(Object rawTime) {
+        return rawTime instanceof Number epochMillis ? Instant.ofEpochMilli(epochMillis.longValue())
+                : Instant.parse(rawTime.toString());
     }
 
     @Override
@@ -17,10 +17,12 @@ import static com.influxdb.query.dsl.functions.restriction.Restrictions.tag;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.types.State;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
@@ -49,7 +51,7 @@ public class InfluxDB2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
     }
 
     @Override
-    public String createQuery(FilterCriteria criteria, String retentionPolicy) {
+    public String createQuery(FilterCriteria criteria, String retentionPolicy, @Nullable Duration aggregationWindow) {
         Flux flux = Flux.from(retentionPolicy);
 
         RangeFlux range = flux.range();
@@ -71,6 +73,12 @@ public class InfluxDB2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
         flux = flux.filter(measurement().equal(measurementName));
         if (!measurementName.equals(itemName)) {
             flux = flux.filter(tag(TAG_ITEM_NAME).equal(itemName));
+        }
+        if (aggregationWindow != null) {
+            flux = flux.aggregateWindow().withEvery(aggregationWindow.toSeconds() + "s")
+                    .withAggregateFunction("mean").withTimeSrc(COLUMN_START_NAME_V2).withCreateEmpty(false);
+        }
+        if (!measurementName.equals(itemName)) {
             flux = flux.keep(
                     new String[] { FIELD_MEASUREMENT_NAME, COLUMN_TIME_NAME_V2, COLUMN_VALUE_NAME_V2, TAG_ITEM_NAME });
         } else {
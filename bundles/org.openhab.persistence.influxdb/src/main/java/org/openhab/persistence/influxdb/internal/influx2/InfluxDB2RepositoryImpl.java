@@ -14,6 +14,7 @@ package org.openhab.persistence.influxdb.internal.influx2;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
@@ -35,6 +36,7 @@ import org.openhab.persistence.influxdb.internal.InfluxDBConstants;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
+import org.openhab.persistence.influxdb.internal.StreamingQueryResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,11 +45,12 @@ import com.influxdb.client.InfluxDBClient;
 import com.influxdb.client.InfluxDBClientFactory;
 import com.influxdb.client.InfluxDBClientOptions;
 import com.influxdb.client.QueryApi;
-import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteApiBlocking;
 import com.influxdb.client.domain.Ready;
 import com.influxdb.client.domain.WritePrecision;
 import com.influxdb.client.write.Point;
 import com.influxdb.exceptions.InfluxException;
+import com.influxdb.query.FluxRecord;
 import com.influxdb.query.FluxTable;
 
 /**
@@ -57,6 +60,11 @@ import com.influxdb.query.FluxTable;
  */
 @NonNullByDefault
 public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
+    private static final int QUERY_BUFFER_SIZE = 1000;
+    private static final Duration QUERY_TIMEOUT = Duration.ofMinutes(1);
+    // the client thread delivering the rows must not wait long for a consumer which stopped reading
+    private static final Duration QUERY_CONSUMER_TIMEOUT = Duration.ofSeconds(10);
+
     private final Logger logger = LoggerFactory.getLogger(InfluxDB2RepositoryImpl.class);
     private final InfluxDBConfiguration configuration;
     private final InfluxDBMetadataService influxDBMetadataService;
@@ -64,7 +72,7 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
 
     private @Nullable InfluxDBClient client;
     private @Nullable QueryApi queryAPI;
-    private @Nullable WriteApi writeAPI;
+    private @Nullable WriteApiBlocking writeAPI;
     private @Nullable DeleteApi deleteAPI;
 
     public InfluxDB2RepositoryImpl(InfluxDBConfiguration configuration,
@@ -96,7 +104,8 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
         this.client = createdClient;
 
         queryAPI = createdClient.getQueryApi();
-        writeAPI = createdClient.makeWriteApi();
+        // writes are batched and retried by the write queue of the service, so failures have to be reported directly
+        writeAPI = createdClient.getWriteApiBlocking();
         deleteAPI = createdClient.getDeleteApi();
 
         logger.debug("Successfully connected to InfluxDB. Instance pingable={}", createdClient.ping());
@@ -141,7 +150,7 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
 
     @Override
     public boolean write(List<InfluxPoint> influxPoints) {
-        final WriteApi currentWriteAPI = writeAPI;
+        final WriteApiBlocking currentWriteAPI = writeAPI;
         if (currentWriteAPI == null) {
             return false;
         }
@@ -213,33 +222,40 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
     }
 
     @Override
-    public List<InfluxRow> query(FilterCriteria filter, String retentionPolicy) {
+    public Stream<InfluxRow> query(FilterCriteria filter, String retentionPolicy,
+            @Nullable Duration aggregationWindow) {
         try {
             final QueryApi currentQueryAPI = queryAPI;
             if (currentQueryAPI != null) {
-                String query = queryCreator.createQuery(filter, retentionPolicy);
+                String query = queryCreator.createQuery(filter, retentionPolicy, aggregationWindow);
                 logger.trace("Query {}", query);
-                List<FluxTable> clientResult = currentQueryAPI.query(query);
-                return clientResult.stream().flatMap(this::mapRawResultToHistoric).toList();
+                StreamingQueryResult result = new StreamingQueryResult(query, QUERY_BUFFER_SIZE, QUERY_TIMEOUT,
+                        QUERY_CONSUMER_TIMEOUT);
+                // records are passed to the callback while the response is parsed
+                currentQueryAPI.query(query, (cancellable, record) -> {
+                    result.setCancelAction(cancellable::cancel);
+                    if (!result.offer(mapRecordToRow(record))) {
+                        cancellable.cancel();
+                    }
+                }, result::fail, result::complete);
+                return result.stream();
             } else {
                 throw new InfluxException("API not present");
             }
         } catch (InfluxException | InfluxDBIOException e) {
             logger.warn("Failed to execute query '{}': {}", filter, e.getMessage());
-            return List.of();
+            return Stream.empty();
         }
     }
 
-    private Stream<InfluxRow> mapRawResultToHistoric(FluxTable rawRow) {
-        return rawRow.getRecords().stream().map(r -> {
-            String itemName = (String) r.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
-            if (itemName == null) {
-                itemName = r.getMeasurement();
-            }
-            Object value = r.getValueByKey(COLUMN_VALUE_NAME_V2);
-            Instant time = (Instant) r.getValueByKey(COLUMN_TIME_NAME_V2);
-            return new InfluxRow(time, itemName, value);
-        });
+    private InfluxRow mapRecordToRow(FluxRecord record) {
+        String itemName = (String) record.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
+        if (itemName == null) {
+            itemName = record.getMeasurement();
+        }
+        Object value = record.getValueByKey(COLUMN_VALUE_NAME_V2);
+        Instant time = (Instant) record.getValueByKey(COLUMN_TIME_NAME_V2);
+        return new InfluxRow(time, itemName, value);
     }
 
     @Override
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the {@link InfluxDBWriteQueue}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDBWriteQueueTest {
+
+    public @TempDir @NonNullByDefault({}) Path folder;
+
+    @Test
+    public void fullQueueWithoutSpillFileDropsOldestPoints() {
+        InfluxDBWriteQueue queue = new InfluxDBWriteQueue(3, 10, null);
+        for (int i = 0; i < 5; i++) {
+            queue.add(point(i));
+        }
+
+        List<Long> written = new ArrayList<>();
+        assertThat(queue.flush(points -> collect(points, written)), is(true));
+        assertThat(written, contains(2L, 3L, 4L));
+        assertThat(queue.getMetrics(), is(new InfluxDBWriteQueue.Metrics(0, 0, 0, 3, 2)));
+    }
+
+    @Test
+    public void failedWriteKeepsPointsQueued() {
+        InfluxDBWriteQueue queue = new InfluxDBWriteQueue(10, 2, null);
+        for (int i = 0; i < 5; i++) {
+            queue.add(point(i));
+        }
+
+        assertThat(queue.flush(points -> false), is(false));
+        assertThat(queue.size(), is(5L));
+
+        List<Long> written = new ArrayList<>();
+        assertThat(queue.flush(points -> collect(points, written)), is(true));
+        assertThat(written, contains(0L, 1L, 2L, 3L, 4L));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void spilledPointsAreWrittenInOrder() throws IOException {
+        Path spillPath = folder.resolve("spill");
+        InfluxDBWriteQueue queue = new InfluxDBWriteQueue(2, 2, new InfluxPointSpillFile(spillPath, 1024 * 1024));
+        for (int i = 0; i < 4; i++) {
+            queue.add(point(i));
+        }
+        // the memory queue has space again, but newer points have to follow the spilled ones
+        List<Long> written = new ArrayList<>();
+        assertThat(queue.flush(points -> points.size() == 2 && written.isEmpty() && collect(points, written)),
+                is(false));
+        queue.add(point(4));
+
+        assertThat(queue.flush(points -> collect(points, written)), is(true));
+        assertThat(written, contains(0L, 1L, 2L, 3L, 4L));
+        assertThat(queue.getMetrics(), is(new InfluxDBWriteQueue.Metrics(0, 0, 3, 5, 0)));
+        assertThat(Files.exists(spillPath), is(false));
+    }
+
+    @Test
+    public void pointsCanBeAddedWhileSpilledPointsAreWritten() throws Exception {
+        Path spillPath = folder.resolve("spill");
+        InfluxDBWriteQueue queue = new InfluxDBWriteQueue(1, 2, new InfluxPointSpillFile(spillPath, 1024 * 1024));
+        for (int i = 0; i < 3; i++) {
+            queue.add(point(i));
+        }
+
+        List<Long> written = new ArrayList<>();
+        assertThat(queue.flush(points -> {
+            if (written.size() == 1) {
+                // writing the spilled points, the queue must accept new points from other threads
+                CompletableFuture.runAsync(() -> queue.add(point(3))).orTimeout(5, TimeUnit.SECONDS).join();
+            }
+            return collect(points, written);
+        }), is(true));
+        assertThat(written, contains(0L, 1L, 2L, 3L));
+        assertThat(queue.isEmpty(), is(true));
+        assertThat(Files.exists(spillPath), is(false));
+    }
+
+    @Test
+    public void chunkReadBeforeRewriteIsNotConsumed() throws IOException {
+        InfluxPointSpillFile spillFile = new InfluxPointSpillFile(folder.resolve("spill"), 1024 * 1024);
+        spillFile.append(point(1));
+        InfluxPointSpillFile.Chunk chunk = spillFile.read(10);
+        spillFile.prepend(List.of(point(0)));
+
+        spillFile.consume(chunk);
+        assertThat(spillFile.getPendingPoints(), is(2L));
+        assertThat(spillFile.read(10).points().stream().map(p -> p.getTime().toEpochMilli()).toList(),
+                contains(0L, 1L));
+    }
+
+    @Test
+    public void queuedPointsSurviveRestart() throws IOException {
+        Path spillPath = folder.resolve("spill");
+        InfluxDBWriteQueue queue = new InfluxDBWriteQueue(2, 10, new InfluxPointSpillFile(spillPath, 1024 * 1024));
+        for (int i = 0; i < 3; i++) {
+            queue.add(point(i));
+        }
+        assertThat(queue.close(), is(0L));
+
+        InfluxDBWriteQueue restarted = new InfluxDBWriteQueue(2, 10, new InfluxPointSpillFile(spillPath, 1024 * 1024));
+        assertThat(restarted.size(), is(3L));
+        List<InfluxPoint> written = new ArrayList<>();
+        assertThat(restarted.flush(written::addAll), is(true));
+        assertThat(written.stream().map(p -> p.getTime().toEpochMilli()).toList(), contains(0L, 1L, 2L));
+        assertThat(written.get(0).getValue(), is(new BigDecimal("0.5")));
+        assertThat(written.get(0).getTags().get(InfluxDBConstants.TAG_ITEM_NAME), is("item"));
+    }
+
+    private static InfluxPoint point(long time) {
+        return InfluxPoint.newBuilder("item").withTime(Instant.ofEpochMilli(time))
+                .withValue(new BigDecimal(time + ".5")).withTag(InfluxDBConstants.TAG_ITEM_NAME, "item").build();
+    }
+
+    private static boolean collect(List<InfluxPoint> points, List<Long> written) {
+        points.forEach(p -> written.add(p.getTime().toEpochMilli()));
+        return true;
+    }
+}
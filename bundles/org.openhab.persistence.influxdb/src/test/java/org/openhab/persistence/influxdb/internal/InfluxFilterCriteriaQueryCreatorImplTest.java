@@ -16,6 +16,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -114,6 +115,32 @@ public class InfluxFilterCriteriaQueryCreatorImplTest {
         assertThat(queryV2, equalTo(expectedQueryV2));
     }
 
+    @Test
+    public void testAggregationWindow() {
+        FilterCriteria criteria = createBaseCriteria();
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime lastYear = now.minus(1, ChronoUnit.YEARS);
+        criteria.setBeginDate(lastYear);
+        criteria.setEndDate(now);
+
+        String queryV1 = instanceV1.createQuery(criteria, RETENTION_POLICY, Duration.ofHours(12));
+        String expectedQueryV1 = String.format(
+                "SELECT MEAN(value) AS value FROM \"origin\".\"sampleItem\" WHERE time >= '%s' AND time <= '%s' GROUP BY time(43200s),item fill(none) ORDER BY time DESC;",
+                lastYear.toInstant(), now.toInstant());
+        assertThat(queryV1, equalTo(expectedQueryV1));
+
+        String queryV2 = instanceV2.createQuery(criteria, RETENTION_POLICY, Duration.ofHours(12));
+        String expectedQueryV2 = String.format("""
+                from(bucket:"origin")
+                \t|> range(start:%s, stop:%s)
+                \t|> filter(fn: (r) => r["_measurement"] == "sampleItem")
+                \t|> aggregateWindow(every:43200s, fn:mean, timeSrc:"_start", createEmpty:false)
+                \t|> keep(columns:["_measurement", "_time", "_value"])
+                \t|> sort(desc:true, columns:["_time"])""", INFLUX2_DATE_FORMATTER.format(lastYear.toInstant()),
+                INFLUX2_DATE_FORMATTER.format(now.toInstant()));
+        assertThat(queryV2, equalTo(expectedQueryV2));
+    }
+
     @Test
     public void testValueOperator() {
         FilterCriteria criteria = createBaseCriteria();
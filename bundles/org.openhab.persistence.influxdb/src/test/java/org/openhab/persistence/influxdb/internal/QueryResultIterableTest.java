@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link QueryResultIterable}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class QueryResultIterableTest {
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+
+    private QueryResultIterable<Integer> iterable(int rowCount, int materializeLimit) {
+        return new QueryResultIterable<>(() -> {
+            queries.incrementAndGet();
+            return IntStream.range(0, rowCount).boxed().onClose(closed::incrementAndGet);
+        }, materializeLimit);
+    }
+
+    private static List<Integer> values(Iterator<Integer> iterator) {
+        List<Integer> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+        return values;
+    }
+
+    @Test
+    public void smallResultIsMaterialized() {
+        QueryResultIterable<Integer> iterable = iterable(2, 2);
+
+        assertThat(values(iterable.iterator()), contains(0, 1));
+        assertThat(values(iterable.iterator()), contains(0, 1));
+        assertThat(queries.get(), is(1));
+        assertThat(closed.get(), is(1));
+    }
+
+    @Test
+    public void largeResultIsStreamedOnce() {
+        QueryResultIterable<Integer> iterable = iterable(5, 2);
+
+        Iterator<Integer> iterator = iterable.iterator();
+        assertThat(closed.get(), is(0));
+        assertThat(values(iterator), contains(0, 1, 2, 3, 4));
+        assertThat(closed.get(), is(1));
+        assertThrows(IllegalStateException.class, iterable::iterator);
+        assertThat(queries.get(), is(1));
+    }
+
+    @Test
+    public void closingStreamedResultClosesQuery() throws Exception {
+        Iterator<Integer> iterator = iterable(5, 2).iterator();
+        iterator.next();
+        iterator.next();
+        iterator.next();
+
+        ((AutoCloseable) iterator).close();
+        assertThat(closed.get(), is(1));
+    }
+
+    @Test
+    public void queryIsNotRunBeforeIterating() {
+        new QueryResultIterable<>(() -> {
+            queries.incrementAndGet();
+            return Stream.<Integer> empty();
+        }, 2);
+
+        assertThat(queries.get(), is(0));
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.persistence.influxdb.internal.InfluxDBRepository.InfluxRow;
+
+/**
+ * Tests the {@link StreamingQueryResult}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class StreamingQueryResultTest {
+
+    @Test
+    public void rowsAreHandedOverFromProducerThread() throws Exception {
+        StreamingQueryResult result = new StreamingQueryResult("query", 2, Duration.ofSeconds(10));
+        CompletableFuture<Boolean> producer = CompletableFuture.supplyAsync(() -> {
+            boolean accepted = true;
+            for (int i = 0; i < 10; i++) {
+                accepted &= result.offer(row(i));
+            }
+            result.complete();
+            return accepted;
+        });
+
+        List<Long> values = result.stream().map(row -> (Long) row.value()).toList();
+        assertThat(values, contains(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L));
+        assertThat(producer.get(10, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void failedQueryEndsResult() {
+        StreamingQueryResult result = new StreamingQueryResult("query", 10, Duration.ofSeconds(10));
+        result.offer(row(0));
+        result.fail(new IllegalStateException("failed"));
+
+        assertThat(result.stream().map(row -> (Long) row.value()).toList(), contains(0L));
+    }
+
+    @Test
+    public void abandonedResultCancelsProducer() {
+        StreamingQueryResult result = new StreamingQueryResult("query", 1, Duration.ofMillis(50));
+        assertThat(result.offer(row(0)), is(true));
+        assertThat(result.offer(row(1)), is(false));
+        assertThat(result.offer(row(2)), is(false));
+    }
+
+    @Test
+    public void closingReleasesBlockedProducerAndCancelsQuery() throws Exception {
+        StreamingQueryResult result = new StreamingQueryResult("query", 1, Duration.ofMinutes(1));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        result.setCancelAction(() -> cancelled.set(true));
+        CompletableFuture<Boolean> producer = CompletableFuture.supplyAsync(() -> {
+            boolean accepted = true;
+            for (int i = 0; i < 10 && accepted; i++) {
+                accepted = result.offer(row(i));
+            }
+            return accepted;
+        });
+
+        Iterator<InfluxRow> rows = result.stream().iterator();
+        assertThat(rows.next().value(), is(0L));
+        result.close();
+
+        // the producer must not wait for the query timeout
+        assertThat(producer.get(5, TimeUnit.SECONDS), is(false));
+        assertThat(cancelled.get(), is(true));
+        assertThat(rows.hasNext(), is(false));
+    }
+
+    @Test
+    public void consumerTimeoutReleasesProducerOfAbandonedResult() throws Exception {
+        StreamingQueryResult result = new StreamingQueryResult("query", 1, Duration.ofMinutes(1),
+                Duration.ofMillis(200));
+        AtomicBoolean rejected = new AtomicBoolean();
+        CompletableFuture<Boolean> producer = CompletableFuture.supplyAsync(() -> {
+            boolean accepted = true;
+            for (int i = 0; i < 10 && accepted; i++) {
+                accepted = result.offer(row(i));
+            }
+            rejected.set(!accepted);
+            return accepted;
+        });
+
+        // the consumer stops reading after the first row, without closing the result
+        Iterator<InfluxRow> rows = result.stream().iterator();
+        assertThat(rows.next().value(), is(0L));
+
+        // the producer must not wait for the query timeout
+        assertThat(producer.get(5, TimeUnit.SECONDS), is(false));
+        assertThat(rejected.get(), is(true));
+        // a consumer reading again gets the buffered row, then the result ends
+        assertThat(rows.next().value(), is(1L));
+        assertThat(rows.hasNext(), is(false));
+    }
+
+    @Test
+    public void closingStreamClosesResult() {
+        StreamingQueryResult result = new StreamingQueryResult("query", 10, Duration.ofMinutes(1));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        result.setCancelAction(() -> cancelled.set(true));
+        result.offer(row(0));
+        result.offer(row(1));
+
+        try (Stream<InfluxRow> stream = result.stream()) {
+            assertThat(stream.findFirst().isPresent(), is(true));
+        }
+        assertThat(cancelled.get(), is(true));
+        assertThat(result.offer(row(2)), is(false));
+    }
+
+    @Test
+    public void fullyReadResultIsNotCancelled() {
+        StreamingQueryResult result = new StreamingQueryResult("query", 10, Duration.ofMinutes(1));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        result.setCancelAction(() -> cancelled.set(true));
+        result.offer(row(0));
+        result.complete();
+
+        ClosingIterator<InfluxRow> rows = new ClosingIterator<>(result.stream());
+        assertThat(rows.next().value(), is(0L));
+        assertThat(rows.hasNext(), is(false));
+        rows.close();
+        assertThat(cancelled.get(), is(false));
+    }
+
+    @Test
+    public void closingIteratorClosesStreamAfterLastElement() {
+        AtomicBoolean closed = new AtomicBoolean();
+        ClosingIterator<Integer> iterator = new ClosingIterator<>(Stream.of(1, 2).onClose(() -> closed.set(true)));
+
+        assertThat(iterator.next(), is(1));
+        assertThat(iterator.hasNext(), is(true));
+        assertThat(closed.get(), is(false));
+        assertThat(iterator.next(), is(2));
+        assertThat(iterator.hasNext(), is(false));
+        assertThat(closed.get(), is(true));
+    }
+
+    private static InfluxRow row(long value) {
+        return new InfluxRow(Instant.ofEpochMilli(value), "item", value);
+    }
+}
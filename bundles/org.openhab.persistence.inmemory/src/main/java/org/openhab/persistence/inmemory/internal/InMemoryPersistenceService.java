@@ -13,18 +13,18 @@
 package org.openhab.persistence.inmemory.internal;
 
 import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -86,9 +86,7 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
             Lock lock = persistItem.lock();
             lock.lock();
             try {
-                while (persistItem.database().size() > maxEntries) {
-                    persistItem.database().pollFirst();
-                }
+                persistItem.series().trim(maxEntries);
             } finally {
                 lock.unlock();
             }
@@ -151,8 +149,8 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         Lock lock = persistItem.lock();
         lock.lock();
         try {
-            List<PersistEntry> toRemove = persistItem.database().stream().filter(e -> applies(e, filter)).toList();
-            toRemove.forEach(persistItem.database()::remove);
+            InMemoryTimeSeries series = persistItem.series();
+            series.removeIf(fromIndex(series, filter), toIndex(series, filter), state -> applies(state, filter));
         } finally {
             lock.unlock();
         }
@@ -173,14 +171,16 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
 
         Lock lock = persistItem.lock();
         lock.lock();
-
-        Comparator<PersistEntry> comparator = filter.getOrdering() == FilterCriteria.Ordering.ASCENDING
-                ? Comparator.comparing(PersistEntry::timestamp)
-                : Comparator.comparing(PersistEntry::timestamp).reversed();
-
         try {
-            return persistItem.database().stream().filter(e -> applies(e, filter)).sorted(comparator)
-                    .map(e -> toHistoricItem(itemName, e)).toList();
+            InMemoryTimeSeries series = persistItem.series();
+            boolean descending = filter.getOrdering() == FilterCriteria.Ordering.DESCENDING;
+            @Nullable
+            Predicate<State> stateFilter = filter.getState() == null ? null : state -> applies(state, filter);
+            long skip = (long) filter.getPageNumber() * filter.getPageSize();
+            return series.find(fromIndex(series, filter), toIndex(series, filter), descending, stateFilter, skip,
+                    filter.getPageSize()).stream()
+                    .map(index -> toHistoricItem(itemName, series.getTimestamp(index), series.getState(index)))
+                    .toList();
         } finally {
             lock.unlock();
         }
@@ -197,9 +197,12 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         lock.lock();
         try {
             String name = itemEntry.getKey();
-            Integer count = itemEntry.getValue().database().size();
-            Instant earliest = itemEntry.getValue().database().first().timestamp().toInstant();
-            Instant latest = itemEntry.getValue().database.last().timestamp.toInstant();
+            InMemoryTimeSeries series = itemEntry.getValue().series();
+            Integer count = series.size();
+            @Nullable
+            Instant earliest = count > 0 ? Instant.ofEpochMilli(series.getTimestamp(0)) : null;
+            @Nullable
+            Instant latest = count > 0 ? Instant.ofEpochMilli(series.getTimestamp(count - 1)) : null;
             return new PersistenceItemInfo() {
 
                 @Override
@@ -214,12 +217,12 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
 
                 @Override
                 public @Nullable Date getEarliest() {
-                    return Date.from(earliest);
+                    return earliest == null ? null : Date.from(earliest);
                 }
 
                 @Override
                 public @Nullable Date getLatest() {
-                    return Date.from(latest);
+                    return latest == null ? null : Date.from(latest);
                 }
             };
         } finally {
@@ -227,16 +230,17 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         }
     }
 
-    private HistoricItem toHistoricItem(String itemName, PersistEntry entry) {
+    private HistoricItem toHistoricItem(String itemName, long timestamp, State state) {
+        ZonedDateTime dateTime = ZonedDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
         return new HistoricItem() {
             @Override
             public ZonedDateTime getTimestamp() {
-                return entry.timestamp();
+                return dateTime;
             }
 
             @Override
             public State getState() {
-                return entry.state();
+                return state;
             }
 
             @Override
@@ -252,33 +256,35 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         }
 
         PersistItem persistItem = Objects.requireNonNull(persistMap.computeIfAbsent(itemName,
-                k -> new PersistItem(new TreeSet<>(Comparator.comparing(PersistEntry::timestamp)),
-                        new ReentrantLock())));
+                k -> new PersistItem(new InMemoryTimeSeries(), new ReentrantLock())));
 
         Lock lock = persistItem.lock();
         lock.lock();
         try {
-            persistItem.database().add(new PersistEntry(timestamp, state));
-
-            while (persistItem.database.size() > maxEntries) {
-                persistItem.database().pollFirst();
-            }
+            persistItem.series().add(timestamp.toInstant().toEpochMilli(), state, maxEntries);
         } finally {
             lock.unlock();
         }
     }
 
-    @SuppressWarnings({ "rawType", "unchecked" })
-    private boolean applies(PersistEntry entry, FilterCriteria filter) {
+    /**
+     * Returns the index of the first entry not before the begin date of the filter.
+     */
+    private int fromIndex(InMemoryTimeSeries series, FilterCriteria filter) {
         ZonedDateTime beginDate = filter.getBeginDate();
-        if (beginDate != null && beginDate.isAfter(entry.timestamp())) {
-            return false;
-        }
+        return beginDate == null ? 0 : series.lowerBound(beginDate.toInstant().toEpochMilli());
+    }
+
+    /**
+     * Returns the index after the last entry not after the end date of the filter.
+     */
+    private int toIndex(InMemoryTimeSeries series, FilterCriteria filter) {
         ZonedDateTime endDate = filter.getEndDate();
-        if (endDate != null && endDate.isBefore(entry.timestamp())) {
-            return false;
-        }
+        return endDate == null ? series.size() : series.upperBound(endDate.toInstant().toEpochMilli());
+    }
 
+    @SuppressWarnings({ "rawType", "unchecked" })
+    private boolean applies(State state, FilterCriteria filter) {
         State refState = filter.getState();
         FilterCriteria.Operator operator = filter.getOperator();
         if (refState == null) {
@@ -287,14 +293,14 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         }
 
         if (operator == FilterCriteria.Operator.EQ) {
-            return entry.state().equals(refState);
+            return state.equals(refState);
         }
 
         if (operator == FilterCriteria.Operator.NEQ) {
-            return !entry.state().equals(refState);
+            return !state.equals(refState);
         }
 
-        if (entry.state() instanceof Comparable comparableState && entry.state.getClass().equals(refState.getClass())) {
+        if (state instanceof Comparable comparableState && state.getClass().equals(refState.getClass())) {
             if (operator == FilterCriteria.Operator.GT) {
                 return comparableState.compareTo(refState) > 0;
             }
@@ -313,9 +319,6 @@ public class InMemoryPersistenceService implements ModifiablePersistenceService
         return true;
     }
 
-    private record PersistEntry(ZonedDateTime timestamp, State state) {
-    }
-
-    private record PersistItem(TreeSet<PersistEntry> database, Lock lock) {
+    private record PersistItem(InMemoryTimeSeries series, Lock lock) {
     }
 }
@@ -0,0 +1,479 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.inmemory.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link InMemoryTimeSeries} stores the states of one item ordered by time.
+ *
+ * Timestamps (epoch milliseconds) are kept in a ring buffer of primitive longs. As long as all states of the series
+ * are of the same numeric type (and unit) and can be represented as double without loss, the values are kept in a
+ * primitive double array as well and {@link State} objects are only created when they are queried. The scale of each
+ * value is kept next to it, so e.g. <code>21.50</code> is returned as stored and not as <code>21.5</code>. Other
+ * states are stored as objects; a numeric series is converted when a state that doesn't fit arrives.
+ *
+ * All methods must be called while holding the lock of the series.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+class InMemoryTimeSeries {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] timestamps = new long[0];
+    private double @Nullable [] numbers;
+    // scale of the decimal value of each number
+    private byte @Nullable [] scales;
+    private @Nullable State @Nullable [] states;
+    private @Nullable NumericCodec codec;
+
+    // physical index of the oldest entry and number of entries
+    private int head;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[physical(index)];
+    }
+
+    public State getState(int index) {
+        int physical = physical(index);
+        NumericCodec codec = this.codec;
+        double[] numbers = this.numbers;
+        byte[] scales = this.scales;
+        if (codec != null && numbers != null && scales != null) {
+            return codec.decode(numbers[physical], scales[physical]);
+        }
+        return stateAt(physical);
+    }
+
+    /**
+     * Adds a state, a state with the same timestamp is replaced.
+     *
+     * @param maxEntries maximum number of entries, the oldest entry is removed when it is exceeded, <code>0</code>
+     *            means no limit
+     */
+    public void add(long timestamp, State state, long maxEntries) {
+        if (size == 0 && codec == null && states == null) {
+            codec = NumericCodec.forState(state);
+        }
+        double number = encode(state);
+
+        int index = lowerBound(timestamp);
+        if (index < size && getTimestamp(index) == timestamp) {
+            setValue(physical(index), state, number);
+            return;
+        }
+        if (maxEntries > 0 && size >= maxEntries) {
+            if (index == 0) {
+                // older than all entries, it would be removed right away
+                return;
+            }
+            removeOldest(size - maxEntries + 1);
+            index = lowerBound(timestamp);
+        }
+        ensureCapacity(size + 1);
+        // move newer entries, usually there are none
+        for (int i = size; i > index; i--) {
+            int to = physical(i);
+            int from = physical(i - 1);
+            timestamps[to] = timestamps[from];
+            moveValue(from, to);
+        }
+        size++;
+        int physical = physical(index);
+        timestamps[physical] = timestamp;
+        setValue(physical, state, number);
+    }
+
+    /**
+     * Removes the oldest entries, so no more than the given number of entries is left.
+     */
+    public void trim(long maxEntries) {
+        if (maxEntries > 0 && size > maxEntries) {
+            removeOldest(size - maxEntries);
+        }
+    }
+
+    /**
+     * Removes all entries in the range of logical indices which are accepted by the filter.
+     */
+    public void removeIf(int fromIndex, int toIndex, Predicate<State> filter) {
+        int kept = fromIndex;
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (!filter.test(getState(i))) {
+                if (kept != i) {
+                    int from = physical(i);
+                    int to = physical(kept);
+                    timestamps[to] = timestamps[from];
+                    moveValue(from, to);
+                }
+                kept++;
+            }
+        }
+        int removed = toIndex - kept;
+        if (removed > 0) {
+            for (int i = toIndex; i < size; i++) {
+                int from = physical(i);
+                int to = physical(i - removed);
+                timestamps[to] = timestamps[from];
+                moveValue(from, to);
+            }
+            for (int i = size - removed; i < size; i++) {
+                clearValue(physical(i));
+            }
+            size -= removed;
+        }
+    }
+
+    /**
+     * Returns the logical indices of the entries in the given range, in ascending or descending order of time.
+     *
+     * @param stateFilter accepts the states of the entries to return, <code>null</code> accepts all entries
+     * @param skip number of matching entries to skip
+     * @param limit maximum number of indices to return
+     */
+    public List<Integer> find(int fromIndex, int toIndex, boolean descending, @Nullable Predicate<State> stateFilter,
+            long skip, long limit) {
+        List<Integer> result = new ArrayList<>();
+        long skipped = 0;
+        for (int n = 0; n < toIndex - fromIndex && result.size() < limit; n++) {
+            int index = descending ? toIndex - 1 - n : fromIndex + n;
+            if (stateFilter != null && !stateFilter.test(getState(index))) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                result.add(index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the logical index of the first entry with a timestamp not before the given one.
+     */
+    public int lowerBound(long timestamp) {
+        return search(t -> t >= timestamp);
+    }
+
+    /**
+     * Returns the logical index of the first entry with a timestamp after the given one.
+     */
+    public int upperBound(long timestamp) {
+        return search(t -> t > timestamp);
+    }
+
+    private int search(LongPredicate condition) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (condition.test(getTimestamp(mid))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private int physical(int index) {
+        int physical = head + index;
+        return physical >= timestamps.length ? physical - timestamps.length : physical;
+    }
+
+    private void removeOldest(long count) {
+        for (int i = 0; i < count; i++) {
+            clearValue(head);
+            head = physical(1);
+            size--;
+        }
+        if (size == 0) {
+            head = 0;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        int oldCapacity = timestamps.length;
+        if (capacity <= oldCapacity) {
+            return;
+        }
+        int newCapacity = Math.max(INITIAL_CAPACITY, oldCapacity + (oldCapacity >> 1));
+        long[] newTimestamps = new long[newCapacity];
+        double[] numbers = this.numbers;
+        double[] newNumbers = numbers == null ? null : new double[newCapacity];
+        byte[] scales = this.scales;
+        byte[] newScales = scales == null ? null : new byte[newCapacity];
+        State[] states = this.states;
+        @Nullable
+        State[] newStates = states == null ? null : new State[newCapacity];
+        for (int i = 0; i < size; i++) {
+            int physical = physical(i);
+            newTimestamps[i] = timestamps[physical];
+            if (numbers != null && newNumbers != null) {
+                newNumbers[i] = numbers[physical];
+            }
+            if (scales != null && newScales != null) {
+                newScales[i] = scales[physical];
+            }
+            if (states != null && newStates != null) {
+                newStates[i] = states[physical];
+            }
+        }
+        timestamps = newTimestamps;
+        this.numbers = newNumbers;
+        this.scales = newScales;
+        this.states = newStates;
+        head = 0;
+        if (newNumbers == null && newStates == null) {
+            if (codec != null) {
+                this.numbers = new double[newCapacity];
+                this.scales = new byte[newCapacity];
+            } else {
+                this.states = new State[newCapacity];
+            }
+        }
+    }
+
+    private double encode(State state) {
+        NumericCodec codec = this.codec;
+        if (codec == null) {
+            return Double.NaN;
+        }
+        double number = codec.encode(state);
+        if (Double.isNaN(number)) {
+            convertToStates();
+        }
+        return number;
+    }
+
+    /**
+     * Switches from primitive to object storage, e.g. when a state of a different type is added.
+     */
+    private void convertToStates() {
+        NumericCodec codec = this.codec;
+        double[] numbers = this.numbers;
+        byte[] scales = this.scales;
+        @Nullable
+        State[] states = new State[timestamps.length];
+        if (codec != null && numbers != null && scales != null) {
+            for (int i = 0; i < size; i++) {
+                int physical = physical(i);
+                states[physical] = codec.decode(numbers[physical], scales[physical]);
+            }
+        }
+        this.states = states;
+        this.numbers = null;
+        this.scales = null;
+        this.codec = null;
+    }
+
+    private void setValue(int physical, State state, double number) {
+        NumericCodec codec = this.codec;
+        double[] numbers = this.numbers;
+        byte[] scales = this.scales;
+        State[] states = this.states;
+        if (codec != null && numbers != null && scales != null) {
+            numbers[physical] = number;
+            scales[physical] = (byte) codec.scale(state);
+        } else if (states != null) {
+            states[physical] = state;
+        }
+    }
+
+    private void moveValue(int from, int to) {
+        double[] numbers = this.numbers;
+        State[] states = this.states;
+        if (numbers != null) {
+            numbers[to] = numbers[from];
+        }
+        byte[] scales = this.scales;
+        if (scales != null) {
+            scales[to] = scales[from];
+        }
+        if (states != null) {
+            states[to] = states[from];
+        }
+    }
+
+    private void clearValue(int physical) {
+        State[] states = this.states;
+        if (states != null) {
+            states[physical] = null;
+        }
+    }
+
+    private State stateAt(int physical) {
+        State[] states = this.states;
+        State state = states == null ? null : states[physical];
+        if (state == null) {
+            throw new IllegalStateException("No state stored at index " + physical);
+        }
+        return state;
+    }
+
+    /**
+     * Converts states of one type to double values and back.
+     */
+    private interface NumericCodec {
+        /**
+         * @return the value, or {@link Double#NaN} if the state is of another type or can't be represented exactly
+         */
+        double encode(State state);
+
+        /**
+         * @return the scale of the decimal value of an encoded state
+         */
+        default int scale(State state) {
+            return 0;
+        }
+
+        State decode(double number, int scale);
+
+        static @Nullable NumericCodec forState(State state) {
+            if (state instanceof QuantityType<?> quantity) {
+                return new QuantityCodec(quantity.getUnit());
+            }
+            for (SimpleCodec codec : SimpleCodec.values()) {
+                if (codec.stateClass == state.getClass()) {
+                    return codec;
+                }
+            }
+            return null;
+        }
+
+        static double exactDouble(BigDecimal value) {
+            if (value.scale() < Byte.MIN_VALUE || value.scale() > Byte.MAX_VALUE) {
+                return Double.NaN;
+            }
+            double number = value.doubleValue();
+            return !Double.isInfinite(number) && BigDecimal.valueOf(number).compareTo(value) == 0 ? number
+                    : Double.NaN;
+        }
+
+        /**
+         * @return the decimal value of an encoded number, with the scale of the original value. Since the number
+         *         represents the original value exactly, no rounding is needed.
+         */
+        static BigDecimal exactDecimal(double number, int scale) {
+            return BigDecimal.valueOf(number).setScale(scale);
+        }
+    }
+
+    private enum SimpleCodec implements NumericCodec {
+        DECIMAL(DecimalType.class) {
+            @Override
+            public double encode(State state) {
+                return state.getClass() == DecimalType.class
+                        ? NumericCodec.exactDouble(((DecimalType) state).toBigDecimal())
+                        : Double.NaN;
+            }
+
+            @Override
+            public int scale(State state) {
+                return ((DecimalType) state).toBigDecimal().scale();
+            }
+
+            @Override
+            public State decode(double number, int scale) {
+                return new DecimalType(NumericCodec.exactDecimal(number, scale));
+            }
+        },
+        PERCENT(PercentType.class) {
+            @Override
+            public double encode(State state) {
+                return state instanceof PercentType percent ? NumericCodec.exactDouble(percent.toBigDecimal())
+                        : Double.NaN;
+            }
+
+            @Override
+            public int scale(State state) {
+                return ((PercentType) state).toBigDecimal().scale();
+            }
+
+            @Override
+            public State decode(double number, int scale) {
+                return new PercentType(NumericCodec.exactDecimal(number, scale));
+            }
+        },
+        ON_OFF(OnOffType.class) {
+            @Override
+            public double encode(State state) {
+                return state instanceof OnOffType ? (state == OnOffType.ON ? 1 : 0) : Double.NaN;
+            }
+
+            @Override
+            public State decode(double number, int scale) {
+                return OnOffType.from(number != 0);
+            }
+        },
+        OPEN_CLOSED(OpenClosedType.class) {
+            @Override
+            public double encode(State state) {
+                return state instanceof OpenClosedType ? (state == OpenClosedType.OPEN ? 1 : 0) : Double.NaN;
+            }
+
+            @Override
+            public State decode(double number, int scale) {
+                return number != 0 ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            }
+        };
+
+        private final Class<? extends State> stateClass;
+
+        SimpleCodec(Class<? extends State> stateClass) {
+            this.stateClass = stateClass;
+        }
+    }
+
+    private record QuantityCodec(Unit<?> unit) implements NumericCodec {
+        @Override
+        public double encode(State state) {
+            return state instanceof QuantityType<?> quantity && unit.equals(quantity.getUnit())
+                    ? NumericCodec.exactDouble(quantity.toBigDecimal())
+                    : Double.NaN;
+        }
+
+        @Override
+        public int scale(State state) {
+            return ((QuantityType<?>) state).toBigDecimal().scale();
+        }
+
+        @Override
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        public State decode(double number, int scale) {
+            return new QuantityType(NumericCodec.exactDecimal(number, scale), unit);
+        }
+    }
+}
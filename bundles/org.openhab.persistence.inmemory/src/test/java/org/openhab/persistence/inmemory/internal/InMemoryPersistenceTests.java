@@ -16,11 +16,13 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -34,8 +36,11 @@ import org.mockito.quality.Strictness;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
@@ -275,4 +280,93 @@ public class InMemoryPersistenceTests {
 
         // begin date is before first date is already covered by case #1
     }
+
+    @Test
+    public void oldestEntriesAreRemovedWhenMaxEntriesIsReached() {
+        service.activate(Map.of("maxEntries", 3L));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 100; i++) {
+            service.store(item, start.plusMinutes(i), new DecimalType(i));
+        }
+        // older than all stored entries
+        service.store(item, start, new DecimalType(-1));
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(97, 98, 99));
+    }
+
+    @Test
+    public void outOfOrderStoresAreSorted() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start.plusHours(2), new DecimalType(3));
+        service.store(item, start, new DecimalType(1));
+        service.store(item, start.plusHours(1), new DecimalType(2));
+        // same timestamp replaces the value
+        service.store(item, start.plusHours(2), new DecimalType(4.5));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<HistoricItem> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(resultSet::add);
+
+        assertThat(resultSet.stream().map(HistoricItem::getState).toList(),
+                contains(new DecimalType(1), new DecimalType(2), new DecimalType(4.5)));
+        assertThat(resultSet.get(0).getTimestamp(), is(start));
+        assertThat(resultSet.get(2).getTimestamp(), is(start.plusHours(2)));
+    }
+
+    @Test
+    public void differentStateTypesAreKept() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, OnOffType.ON);
+        service.store(item, start.plusHours(1), OnOffType.OFF);
+        service.store(item, start.plusHours(2), new StringType("value"));
+        service.store(item, start.plusHours(3), new DecimalType("0.1000000000000000000001"));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<State> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(h.getState()));
+
+        assertThat(resultSet, contains(OnOffType.ON, OnOffType.OFF, new StringType("value"),
+                new DecimalType("0.1000000000000000000001")));
+    }
+
+    @Test
+    public void numericStatesKeepTheirScale() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start, new QuantityType<>(new BigDecimal("21.50"), SIUnits.CELSIUS));
+        service.store(item, start.plusHours(1), new QuantityType<>(new BigDecimal("21.5"), SIUnits.CELSIUS));
+        service.store(item, start.plusHours(2), new QuantityType<>(new BigDecimal("2.2E+1"), SIUnits.CELSIUS));
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        List<BigDecimal> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((QuantityType<?>) h.getState()).toBigDecimal()));
+
+        // BigDecimal.equals() compares the scale as well
+        assertThat(resultSet, contains(new BigDecimal("21.50"), new BigDecimal("21.5"), new BigDecimal("2.2E+1")));
+    }
+
+    @Test
+    public void queryObservesStateFilterAndPaging() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < 10; i++) {
+            service.store(item, start.plusMinutes(i), new DecimalType(i));
+        }
+
+        filterCriteria.setOrdering(FilterCriteria.Ordering.DESCENDING);
+        filterCriteria.setState(new DecimalType(2));
+        filterCriteria.setOperator(FilterCriteria.Operator.GT);
+        filterCriteria.setPageSize(3);
+        filterCriteria.setPageNumber(1);
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+
+        assertThat(resultSet, contains(6, 5, 4));
+    }
 }
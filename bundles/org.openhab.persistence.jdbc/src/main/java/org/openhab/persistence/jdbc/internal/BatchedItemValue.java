@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.time.ZonedDateTime;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.items.Item;
+import org.openhab.core.types.State;
+
+/**
+ * Item state waiting in the write-behind queue to be stored by the next batch flush.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class BatchedItemValue {
+
+    private final Item item;
+    private final State state;
+    private final ZonedDateTime date;
+
+    public BatchedItemValue(Item item, State state, ZonedDateTime date) {
+        this.item = item;
+        this.state = state;
+        this.date = date;
+    }
+
+    public Item getItem() {
+        return item;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+}
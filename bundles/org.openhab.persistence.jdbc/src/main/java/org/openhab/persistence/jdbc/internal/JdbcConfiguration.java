@@ -65,6 +65,13 @@ public class JdbcConfiguration {
 
     private int errReconnectThreshold = 0;
 
+    private boolean batchWriteEnabled = false;
+    private int batchWriteSize = 500;
+    private int batchWriteInterval = 1000;
+    private int batchWriteQueueSize = 10000;
+
+    private int queryFetchSize = 0;
+
     public int timerCount = 0;
     public int time1000Statements = 0;
     public long timer1000 = 0;
@@ -189,6 +196,36 @@ public class JdbcConfiguration {
             logger.debug("JDBC::updateConfig: rebuildTableNames={}", rebuildTableNames);
         }
 
+        String bw = (String) configuration.get("enableBatchWrite");
+        if (bw != null && !bw.isBlank()) {
+            batchWriteEnabled = Boolean.parseBoolean(bw);
+            logger.debug("JDBC::updateConfig: enableBatchWrite={}", batchWriteEnabled);
+        }
+
+        String bs = (String) configuration.get("batchWriteSize");
+        if (bs != null && !bs.isBlank() && isNumericPattern.matcher(bs).matches()) {
+            batchWriteSize = Math.max(1, Integer.parseInt(bs));
+            logger.debug("JDBC::updateConfig: batchWriteSize={}", batchWriteSize);
+        }
+
+        String bi = (String) configuration.get("batchWriteInterval");
+        if (bi != null && !bi.isBlank() && isNumericPattern.matcher(bi).matches()) {
+            batchWriteInterval = Math.max(10, Integer.parseInt(bi));
+            logger.debug("JDBC::updateConfig: batchWriteInterval={}", batchWriteInterval);
+        }
+
+        String bq = (String) configuration.get("batchWriteQueueSize");
+        if (bq != null && !bq.isBlank() && isNumericPattern.matcher(bq).matches()) {
+            batchWriteQueueSize = Math.max(batchWriteSize, Integer.parseInt(bq));
+            logger.debug("JDBC::updateConfig: batchWriteQueueSize={}", batchWriteQueueSize);
+        }
+
+        String qf = (String) configuration.get("queryFetchSize");
+        if (qf != null && !qf.isBlank() && isNumericPattern.matcher(qf).matches()) {
+            queryFetchSize = Integer.parseInt(qf);
+            logger.debug("JDBC::updateConfig: queryFetchSize={}", queryFetchSize);
+        }
+
         // undocumented
         String ac = (String) configuration.get("maximumPoolSize");
         if (ac != null && !ac.isBlank()) {
@@ -394,6 +431,26 @@ public class JdbcConfiguration {
         return tableUseRealItemNames && tableCaseSensitiveItemNames;
     }
 
+    public boolean isBatchWriteEnabled() {
+        return batchWriteEnabled;
+    }
+
+    public int getBatchWriteSize() {
+        return batchWriteSize;
+    }
+
+    public int getBatchWriteInterval() {
+        return batchWriteInterval;
+    }
+
+    public int getBatchWriteQueueSize() {
+        return batchWriteQueueSize;
+    }
+
+    public int getQueryFetchSize() {
+        return queryFetchSize;
+    }
+
     public int getTableIdDigitCount() {
         return tableIdDigitCount;
     }
@@ -12,10 +12,12 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.sql.SQLException;
 import java.sql.SQLInvalidAuthorizationSpecException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -32,12 +34,15 @@ import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.db.HistItemResultSetIterable.QueryListener;
+import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.dto.JdbcPersistenceItemInfo;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
+import org.openhab.persistence.jdbc.internal.utils.PageBoundaryCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,9 +56,11 @@ import com.zaxxer.hikari.pool.HikariPool.PoolInitializationException;
 @NonNullByDefault
 public class JdbcMapper {
     private static final int MIGRATION_PERCENTAGE_THRESHOLD = 50;
+    private static final int PAGE_BOUNDARY_CACHE_SIZE = 256;
 
     private final Logger logger = LoggerFactory.getLogger(JdbcMapper.class);
     private final TimeZoneProvider timeZoneProvider;
+    private final PageBoundaryCache pageBoundaryCache = new PageBoundaryCache(PAGE_BOUNDARY_CACHE_SIZE);
 
     // Error counter - used to reconnect to database on error
     protected int errCnt;
@@ -221,10 +228,34 @@ public class JdbcMapper {
         } else {
             conf.getDBDAO().doStoreItemValue(item, itemState, new ItemVO(tableName, null), date);
         }
+        pageBoundaryCache.invalidate(tableName);
         logTime("storeItemValue", timerStart, System.currentTimeMillis());
         errCnt = 0;
     }
 
+    /**
+     * Stores a batch of item values within a single transaction. Values are grouped per item table, keeping the
+     * order in which they were queued.
+     *
+     * @param values the values to store
+     * @throws JdbcException if a table cannot be resolved or the transaction fails
+     */
+    protected void storeItemValues(List<BatchedItemValue> values) throws JdbcException {
+        logger.debug("JDBC::storeItemValues: size={}", values.size());
+        long timerStart = System.currentTimeMillis();
+        JdbcBaseDAO dao = conf.getDBDAO();
+        Map<String, List<ItemVO>> tableValues = new LinkedHashMap<>();
+        for (BatchedItemValue value : values) {
+            String tableName = getTable(value.getItem());
+            tableValues.computeIfAbsent(tableName, t -> new ArrayList<>()).add(dao.prepareItemValue(value.getItem(),
+                    value.getState(), new ItemVO(tableName, null), value.getDate()));
+        }
+        dao.doStoreItemValues(tableValues);
+        tableValues.keySet().forEach(pageBoundaryCache::invalidate);
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+    }
+
     public long getRowCount(String tableName) throws JdbcSQLException {
         return conf.getDBDAO().doGetRowCount(tableName);
     }
@@ -235,17 +266,48 @@ public class JdbcMapper {
                 "JDBC::getHistItemFilterQuery filter='{}' numberDecimalcount='{}' table='{}' item='{}' itemName='{}'",
                 true, numberDecimalcount, table, item, item.getName());
         long timerStart = System.currentTimeMillis();
+        long tableVersion = pageBoundaryCache.getVersion(table);
+        ZonedDateTime keysetBoundary = pageBoundaryCache.getPreviousPageBoundary(table, filter);
         List<HistoricItem> result = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount, table,
-                item.getName(), timeZoneProvider.getTimeZone());
+                item.getName(), timeZoneProvider.getTimeZone(), keysetBoundary);
+        if (filter.getPageSize() != Integer.MAX_VALUE && result.size() == filter.getPageSize()) {
+            pageBoundaryCache.putPageBoundary(table, filter, result.get(result.size() - 1).getTimestamp(),
+                    tableVersion);
+        }
         logTime("getHistItemFilterQuery", timerStart, System.currentTimeMillis());
         errCnt = 0;
         return result;
     }
 
+    protected Iterable<HistoricItem> streamHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount,
+            String table, Item item) {
+        logger.debug("JDBC::streamHistItemFilterQuery filter='{}' numberDecimalcount='{}' table='{}' itemName='{}'",
+                filter, numberDecimalcount, table, item.getName());
+        long tableVersion = pageBoundaryCache.getVersion(table);
+        ZonedDateTime keysetBoundary = pageBoundaryCache.getPreviousPageBoundary(table, filter);
+        int pageSize = filter.getPageSize();
+        return conf.getDBDAO().doStreamHistItemFilterQuery(item, filter, numberDecimalcount, table, item.getName(),
+                timeZoneProvider.getTimeZone(), keysetBoundary, conf.getQueryFetchSize(), new QueryListener() {
+                    @Override
+                    public void completed(int rowCount, @Nullable ZonedDateTime lastRowTime) {
+                        if (lastRowTime != null && pageSize != Integer.MAX_VALUE && rowCount == pageSize) {
+                            pageBoundaryCache.putPageBoundary(table, filter, lastRowTime, tableVersion);
+                        }
+                        errCnt = 0;
+                    }
+
+                    @Override
+                    public void failed(SQLException e) {
+                        errCnt++;
+                    }
+                });
+    }
+
     protected void deleteItemValues(FilterCriteria filter, String table) throws JdbcSQLException {
         logger.debug("JDBC::deleteItemValues filter='{}' table='{}' itemName='{}'", true, table, filter.getItemName());
         long timerStart = System.currentTimeMillis();
         conf.getDBDAO().doDeleteItemValues(filter, table, timeZoneProvider.getTimeZone());
+        pageBoundaryCache.invalidate(table);
         logTime("deleteItemValues", timerStart, System.currentTimeMillis());
         errCnt = 0;
     }
@@ -21,8 +21,14 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -48,6 +54,7 @@ import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
+import org.openhab.persistence.jdbc.internal.utils.MovingAverage;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
@@ -77,6 +84,16 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory(JdbcPersistenceServiceConstants.SERVICE_ID));
 
+    // Write-behind queue, only used when batch writing is enabled
+    private @Nullable BlockingQueue<BatchedItemValue> batchQueue;
+    private @Nullable ScheduledFuture<?> batchFlushJob;
+    private final AtomicBoolean batchFlushPending = new AtomicBoolean();
+    private final AtomicLong batchWrittenCount = new AtomicLong();
+    private final AtomicLong batchDroppedCount = new AtomicLong();
+    private final MovingAverage batchFlushTimeAverage = new MovingAverage(50);
+    private volatile long batchLastFlushTime;
+    private volatile double batchAverageFlushTime;
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
@@ -120,6 +137,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
+        stopBatchWriter();
         // closeConnection();
         initialized = false;
     }
@@ -137,37 +155,49 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
     @Override
     public void store(Item item) {
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        BlockingQueue<BatchedItemValue> batchQueue = this.batchQueue;
+        if (batchQueue != null) {
+            // the row time is the time the value was queued, not the later database time of the flush
+            // (sqltype.tablePrimaryValue), which could also give several values of a batch the same time
+            enqueue(batchQueue, item, ZonedDateTime.now(), item.getState());
+        } else {
+            scheduler.execute(() -> internalStore(item, null, item.getState()));
+        }
     }
 
     @Override
     public void store(Item item, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        store(item);
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state) {
-        scheduler.execute(() -> internalStore(item, date, state));
+        BlockingQueue<BatchedItemValue> batchQueue = this.batchQueue;
+        if (batchQueue != null) {
+            enqueue(batchQueue, item, date, state);
+        } else {
+            scheduler.execute(() -> internalStore(item, date, state));
+        }
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, date, state));
+        store(item, date, state);
     }
 
-    private synchronized void internalStore(Item item, @Nullable ZonedDateTime date, State state) {
+    private synchronized boolean internalStore(Item item, @Nullable ZonedDateTime date, State state) {
         // Do not store undefined/uninitialized data
         if (state instanceof UnDefType) {
             logger.debug("JDBC::store: ignore Item '{}' because it is UnDefType", item.getName());
-            return;
+            return false;
         }
         if (!checkDBAccessability()) {
             logger.warn(
                     "JDBC::store: No connection to database. Cannot persist state '{}' for item '{}'! Will retry connecting to database when error count:{} equals errReconnectThreshold:{}",
                     state, item, errCnt, conf.getErrReconnectThreshold());
-            return;
+            return false;
         }
         try {
             long timerStart = System.currentTimeMillis();
@@ -176,9 +206,125 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
                 logger.debug("JDBC: Stored item '{}' as '{}' in SQL database at {} in {} ms.", item.getName(), state,
                         new Date(), System.currentTimeMillis() - timerStart);
             }
+            return true;
         } catch (JdbcException e) {
             logger.warn("JDBC::store: Unable to store item", e);
+            return false;
+        }
+    }
+
+    private void enqueue(BlockingQueue<BatchedItemValue> batchQueue, Item item, ZonedDateTime date, State state) {
+        // Do not store undefined/uninitialized data
+        if (state instanceof UnDefType) {
+            logger.debug("JDBC::store: ignore Item '{}' because it is UnDefType", item.getName());
+            return;
+        }
+        if (!batchQueue.offer(new BatchedItemValue(item, state, date))) {
+            batchDroppedCount.incrementAndGet();
+            logger.warn("JDBC::store: Write queue is full ({} values). Dropping state '{}' for item '{}'!",
+                    conf.getBatchWriteQueueSize(), state, item.getName());
+            return;
+        }
+        // Flush early when a full batch is waiting, instead of waiting for the next interval
+        if (batchQueue.size() >= conf.getBatchWriteSize() && batchFlushPending.compareAndSet(false, true)) {
+            scheduler.execute(this::flushBatchQueue);
+        }
+    }
+
+    void startBatchWriter() {
+        int interval = conf.getBatchWriteInterval();
+        batchQueue = new ArrayBlockingQueue<>(conf.getBatchWriteQueueSize());
+        batchFlushJob = scheduler.scheduleWithFixedDelay(this::flushBatchQueue, interval, interval,
+                TimeUnit.MILLISECONDS);
+        logger.debug("JDBC::startBatchWriter: batch size={}, interval={} ms, queue size={}",
+                conf.getBatchWriteSize(), interval, conf.getBatchWriteQueueSize());
+    }
+
+    private void stopBatchWriter() {
+        ScheduledFuture<?> batchFlushJob = this.batchFlushJob;
+        if (batchFlushJob != null) {
+            batchFlushJob.cancel(false);
+            this.batchFlushJob = null;
+        }
+        BlockingQueue<BatchedItemValue> batchQueue = this.batchQueue;
+        if (batchQueue != null) {
+            // Drain what is left before the connection goes away
+            flushBatchQueue();
+            this.batchQueue = null;
+            if (!batchQueue.isEmpty()) {
+                logger.warn("JDBC::stopBatchWriter: {} queued values could not be stored", batchQueue.size());
+            }
+        }
+    }
+
+    private synchronized void flushBatchQueue() {
+        batchFlushPending.set(false);
+        BlockingQueue<BatchedItemValue> batchQueue = this.batchQueue;
+        if (batchQueue == null || batchQueue.isEmpty()) {
+            return;
+        }
+        if (!checkDBAccessability()) {
+            logger.warn("JDBC::flush: No connection to database. Keeping {} queued values for the next attempt.",
+                    batchQueue.size());
+            return;
         }
+        int batchSize = conf.getBatchWriteSize();
+        List<BatchedItemValue> values = new ArrayList<>(batchSize);
+        while (batchQueue.drainTo(values, batchSize) > 0) {
+            long timerStart = System.currentTimeMillis();
+            try {
+                storeItemValues(values);
+                batchWrittenCount.addAndGet(values.size());
+            } catch (JdbcException e) {
+                // A single bad row (e.g. a duplicate time on databases without upsert) rolls back the whole batch
+                logger.debug("JDBC::flush: Batch of {} values failed, storing them one by one: {}", values.size(),
+                        e.getMessage());
+                for (BatchedItemValue value : values) {
+                    if (internalStore(value.getItem(), value.getDate(), value.getState())) {
+                        batchWrittenCount.incrementAndGet();
+                    }
+                }
+            }
+            long flushTime = System.currentTimeMillis() - timerStart;
+            batchFlushTimeAverage.add(flushTime);
+            batchLastFlushTime = flushTime;
+            batchAverageFlushTime = batchFlushTimeAverage.getAverageDouble();
+            logger.debug("JDBC::flush: Stored {} values in {} ms, {} values left in queue", values.size(), flushTime,
+                    batchQueue.size());
+            values.clear();
+        }
+    }
+
+    /**
+     * Get the number of values waiting in the write-behind queue.
+     *
+     * @return number of queued values, or -1 if batch writing is disabled
+     */
+    public int getBatchQueueSize() {
+        BlockingQueue<BatchedItemValue> batchQueue = this.batchQueue;
+        return batchQueue == null ? -1 : batchQueue.size();
+    }
+
+    public long getBatchWrittenCount() {
+        return batchWrittenCount.get();
+    }
+
+    public long getBatchDroppedCount() {
+        return batchDroppedCount.get();
+    }
+
+    /**
+     * Get the duration of the latest batch flush in milliseconds.
+     */
+    public long getBatchLastFlushTime() {
+        return batchLastFlushTime;
+    }
+
+    /**
+     * Get the average duration of the last 50 batch flushes in milliseconds.
+     */
+    public double getBatchAverageFlushTime() {
+        return batchAverageFlushTime;
     }
 
     @Override
@@ -237,6 +383,11 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
             return List.of();
         }
 
+        if (conf.getQueryFetchSize() > 0) {
+            // rows are read while the caller iterates the result
+            return streamHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+        }
+
         try {
             long timerStart = System.currentTimeMillis();
             List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
@@ -257,6 +408,9 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         logger.debug("JDBC::updateConfig");
 
         conf = new JdbcConfiguration(configuration);
+        if (conf.valid && conf.isBatchWriteEnabled()) {
+            startBatchWriter();
+        }
         if (conf.valid && checkDBAccessability()) {
             namingStrategy = new NamingStrategy(conf);
             try {
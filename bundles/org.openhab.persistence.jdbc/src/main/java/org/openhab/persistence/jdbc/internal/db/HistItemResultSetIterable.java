@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.Cleaner.Cleanable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.knowm.yank.Yank;
+import org.openhab.core.items.Item;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lazily maps the rows of a historic item query to {@link HistoricItem}s.
+ *
+ * The query is executed when the first iterator is requested. Rows are converted one by one straight from the result
+ * set. Results which fit into the first fetch of {@code fetchSize} rows are materialized: the connection is returned to
+ * the pool right away and further iterators reuse the rows instead of running the query again.
+ *
+ * Only larger results are streamed. Each iterator then runs the query on its own pooled connection, which is released
+ * as soon as the last row has been read or the iterator is {@link ResultSetIterator#close() closed}. Iterators
+ * abandoned before that release it when they are garbage collected.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class HistItemResultSetIterable implements Iterable<HistoricItem> {
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * Listener for the outcome of reading a result
+     */
+    public interface QueryListener {
+        /**
+         * Called when the result has been read completely
+         *
+         * @param rowCount number of rows
+         * @param lastRowTime time of the last row, {@code null} if the result is empty
+         */
+        void completed(int rowCount, @Nullable ZonedDateTime lastRowTime);
+
+        /**
+         * Called when running the query or reading its rows failed
+         */
+        void failed(SQLException e);
+    }
+
+    /**
+     * Source of the connections the queries run on
+     */
+    @FunctionalInterface
+    interface ConnectionSupplier {
+        Connection getConnection() throws SQLException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(HistItemResultSetIterable.class);
+
+    private final JdbcBaseDAO dao;
+    private final Item item;
+    private final @Nullable Unit<? extends Quantity<?>> unit;
+    private final String sql;
+    private final Object[] params;
+    private final int fetchSize;
+    private final int materializeLimit;
+    private final @Nullable QueryListener listener;
+    private final ConnectionSupplier connectionSupplier;
+    private volatile @Nullable List<HistoricItem> materialized;
+
+    /**
+     * @param fetchSize fetch size set on the statement
+     * @param materializeLimit results with at most this number of rows are materialized
+     * @param listener informed about the outcome of each query
+     */
+    public HistItemResultSetIterable(JdbcBaseDAO dao, Item item, @Nullable Unit<? extends Quantity<?>> unit,
+            String sql, Object[] params, int fetchSize, int materializeLimit, @Nullable QueryListener listener) {
+        this(dao, item, unit, sql, params, fetchSize, materializeLimit, listener,
+                () -> Yank.getDefaultConnectionPool().getConnection());
+    }
+
+    HistItemResultSetIterable(JdbcBaseDAO dao, Item item, @Nullable Unit<? extends Quantity<?>> unit, String sql,
+            Object[] params, int fetchSize, int materializeLimit, @Nullable QueryListener listener,
+            ConnectionSupplier connectionSupplier) {
+        this.dao = dao;
+        this.item = item;
+        this.unit = unit;
+        this.sql = sql;
+        this.params = params;
+        this.fetchSize = fetchSize;
+        this.materializeLimit = materializeLimit;
+        this.listener = listener;
+        this.connectionSupplier = connectionSupplier;
+    }
+
+    @Override
+    public Iterator<HistoricItem> iterator() {
+        List<HistoricItem> materialized = this.materialized;
+        if (materialized != null) {
+            return materialized.iterator();
+        }
+        ResultSetIterator iterator = new ResultSetIterator();
+        if (iterator.isMaterialized()) {
+            materialized = Collections.unmodifiableList(iterator.prefetched);
+            this.materialized = materialized;
+            return materialized.iterator();
+        }
+        return iterator;
+    }
+
+    /**
+     * Iterator over the rows of one execution of the query
+     */
+    public class ResultSetIterator implements Iterator<HistoricItem>, AutoCloseable {
+        private final QueryResources resources = new QueryResources();
+        private final Cleanable cleanable = CLEANER.register(this, resources);
+        private final List<HistoricItem> prefetched = new ArrayList<>();
+        private int prefetchedIndex;
+        private @Nullable HistoricItem next;
+        private int rowCount;
+        private boolean failed;
+
+        ResultSetIterator() {
+            try {
+                resources.open(connectionSupplier.getConnection(), sql, params, fetchSize);
+                advance();
+                // rows of the first fetch are read anyway, keep them to avoid streaming small results
+                while (next instanceof HistoricItem current && prefetched.size() < materializeLimit) {
+                    prefetched.add(current);
+                    advance();
+                }
+            } catch (SQLException e) {
+                fail("Query", e);
+            }
+        }
+
+        /**
+         * @return whether all rows have been read into memory, i.e. the result is not streamed
+         */
+        boolean isMaterialized() {
+            return next == null && !failed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return prefetchedIndex < prefetched.size() || next != null;
+        }
+
+        @Override
+        public HistoricItem next() {
+            if (prefetchedIndex < prefetched.size()) {
+                return prefetched.get(prefetchedIndex++);
+            }
+            HistoricItem current = next;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            try {
+                advance();
+            } catch (SQLException e) {
+                fail("Reading rows", e);
+            }
+            return current;
+        }
+
+        /**
+         * Stop iterating and return the connection to the pool
+         */
+        @Override
+        public void close() {
+            next = null;
+            cleanable.clean();
+        }
+
+        private void fail(String task, SQLException e) {
+            logger.warn("JDBC::doStreamHistItemFilterQuery: {} for item '{}' failed: {}", task, item.getName(),
+                    e.getMessage());
+            failed = true;
+            close();
+            QueryListener listener = HistItemResultSetIterable.this.listener;
+            if (listener != null) {
+                listener.failed(e);
+            }
+        }
+
+        /**
+         * Reads the following row ahead, so the connection is released right after the last row has been handed out.
+         */
+        private void advance() throws SQLException {
+            ResultSet resultSet = resources.resultSet;
+            if (resultSet == null) {
+                next = null;
+                return;
+            }
+            try {
+                while (resultSet.next()) {
+                    rowCount++;
+                    Object time = resultSet.getObject(1);
+                    Object value = resultSet.getObject(2);
+                    if (time != null && value != null) {
+                        next = new JdbcHistoricItem(item.getName(), dao.objectAsState(item, unit, value),
+                                dao.objectAsZonedDateTime(time));
+                        return;
+                    }
+                }
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            HistoricItem last = next;
+            close();
+            QueryListener listener = HistItemResultSetIterable.this.listener;
+            if (listener != null) {
+                listener.completed(rowCount, last != null ? last.getTimestamp() : null);
+            }
+        }
+    }
+
+    /**
+     * Database resources of a running query. Kept separate from the iterator, so they can be closed by the
+     * {@link Cleaner} once the iterator is unreachable.
+     */
+    private static class QueryResources implements Runnable {
+        private final Logger logger = LoggerFactory.getLogger(QueryResources.class);
+
+        private @Nullable Connection connection;
+        private @Nullable PreparedStatement statement;
+        private @Nullable ResultSet resultSet;
+        private boolean autoCommit = true;
+
+        void open(Connection connection, String sql, Object[] params, int fetchSize) throws SQLException {
+            this.connection = connection;
+            autoCommit = connection.getAutoCommit();
+            // some drivers (e.g. PostgreSQL) only fetch in chunks within a transaction
+            connection.setAutoCommit(false);
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            this.statement = statement;
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            resultSet = statement.executeQuery();
+        }
+
+        @Override
+        public void run() {
+            ResultSet resultSet = this.resultSet;
+            PreparedStatement statement = this.statement;
+            Connection connection = this.connection;
+            this.resultSet = null;
+            this.statement = null;
+            this.connection = null;
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                if (statement != null) {
+                    statement.close();
+                }
+            } catch (SQLException e) {
+                logger.debug("JDBC::doStreamHistItemFilterQuery: Closing result failed: {}", e.getMessage());
+            }
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                    connection.setAutoCommit(autoCommit);
+                } catch (SQLException e) {
+                    logger.debug("JDBC::doStreamHistItemFilterQuery: Ending transaction failed: {}", e.getMessage());
+                }
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.warn("JDBC::doStreamHistItemFilterQuery: Closing connection failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
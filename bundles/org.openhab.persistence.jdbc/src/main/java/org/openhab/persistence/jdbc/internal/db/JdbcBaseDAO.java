@@ -13,17 +13,22 @@
 package org.openhab.persistence.jdbc.internal.db;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -56,6 +61,7 @@ import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
+import org.openhab.persistence.jdbc.internal.db.HistItemResultSetIterable.QueryListener;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
@@ -98,6 +104,8 @@ public class JdbcBaseDAO {
     protected String sqlInsertItemValue = "INSERT INTO #tableName# (time, value) VALUES( #tablePrimaryValue#, ? ) ON DUPLICATE KEY UPDATE VALUE= ?";
     protected String sqlGetRowCount = "SELECT COUNT(*) FROM #tableName#";
 
+    private final Map<String, String> filterQueryCache = new ConcurrentHashMap<>();
+
     /********
      * INIT *
      ********/
@@ -393,6 +401,7 @@ public class JdbcBaseDAO {
      *************/
     public void doUpdateItemTableNames(List<ItemVO> vol) throws JdbcSQLException {
         logger.debug("JDBC::doUpdateItemTableNames vol.size = {}", vol.size());
+        filterQueryCache.clear();
         for (ItemVO itemTable : vol) {
             String sql = updateItemTableNamesProvider(itemTable);
             try {
@@ -444,10 +453,9 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] { storedVO.getTableName(), "?" });
+        String sql = timedInsertItemValueProvider(storedVO);
         java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue(), storedVO.getValue() };
+        Object[] params = timedInsertItemValueParams(timestamp, storedVO);
         logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
         try {
             Yank.execute(sql, params);
@@ -456,13 +464,78 @@ public class JdbcBaseDAO {
         }
     }
 
+    /**
+     * Prepares a value for {@link #doStoreItemValues(Map)}: the value is converted to its SQL representation and the
+     * given date is attached as row time.
+     */
+    public ItemVO prepareItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) {
+        ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
+        storedVO.setTime(new java.sql.Timestamp(date.toInstant().toEpochMilli()));
+        return storedVO;
+    }
+
+    /**
+     * Stores prepared values of several item tables within a single transaction. Rows of the same table are sent as
+     * one JDBC batch, which drivers supporting batch rewriting turn into multi-row inserts.
+     *
+     * @param tableValues prepared values (see {@link #prepareItemValue}) grouped by table name
+     * @throws JdbcSQLException on SQL errors, in which case the whole transaction is rolled back
+     */
+    public void doStoreItemValues(Map<String, List<ItemVO>> tableValues) throws JdbcSQLException {
+        try (Connection connection = Yank.getDefaultConnectionPool().getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (List<ItemVO> values : tableValues.values()) {
+                    if (values.isEmpty()) {
+                        continue;
+                    }
+                    String sql = timedInsertItemValueProvider(values.get(0));
+                    logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, values.size());
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        for (ItemVO storedVO : values) {
+                            Object[] params = timedInsertItemValueParams(
+                                    new java.sql.Timestamp(storedVO.getTime().getTime()), storedVO);
+                            for (int i = 0; i < params.length; i++) {
+                                statement.setObject(i + 1, params[i]);
+                            }
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new JdbcSQLException(e);
+        }
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        logger.debug("JDBC::doGetHistItemFilterQuery sql={}", sql);
+        return doGetHistItemFilterQuery(item, filter, numberDecimalcount, table, name, timeZone, null);
+    }
+
+    /**
+     * Queries historic values of an item table.
+     *
+     * @param keysetBoundary time of the last row of the previous page, if known. Instead of skipping
+     *            {@code pageNumber * pageSize} rows, the page is then selected by continuing after this time.
+     */
+    public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
+            String table, String name, ZoneId timeZone, @Nullable ZonedDateTime keysetBoundary)
+            throws JdbcSQLException {
+        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, keysetBoundary != null);
+        Object[] params = histItemFilterQueryParams(filter, timeZone, keysetBoundary).toArray();
+        logger.debug("JDBC::doGetHistItemFilterQuery sql={} params={}", sql, params);
         List<Object[]> m;
         try {
-            m = Yank.queryObjectArrays(sql, null);
+            m = Yank.queryObjectArrays(sql, params);
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
@@ -478,11 +551,32 @@ public class JdbcBaseDAO {
                 .collect(Collectors.<HistoricItem> toList());
     }
 
+    /**
+     * Queries historic values of an item table like {@link #doGetHistItemFilterQuery}, but returns them lazily. The
+     * query is executed when iteration starts and rows are converted while the result set is walked.
+     *
+     * @param fetchSize number of rows the driver should fetch per round trip. Results with at most this number of rows
+     *            are materialized instead of streamed.
+     * @param listener informed when a result has been read completely or the query failed
+     */
+    public Iterable<HistoricItem> doStreamHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
+            String table, String name, ZoneId timeZone, @Nullable ZonedDateTime keysetBoundary, int fetchSize,
+            @Nullable QueryListener listener) {
+        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, keysetBoundary != null);
+        Object[] params = histItemFilterQueryParams(filter, timeZone, keysetBoundary).toArray();
+        logger.debug("JDBC::doStreamHistItemFilterQuery sql={} params={} fetchSize={}", sql, params, fetchSize);
+        // we already retrieve the unit here once as it is a very costly operation
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
+        return new HistItemResultSetIterable(this, item, unit, sql, params, streamingFetchSize(fetchSize), fetchSize,
+                listener);
+    }
+
     public void doDeleteItemValues(FilterCriteria filter, String table, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterDeleteProvider(filter, table, timeZone);
-        logger.debug("JDBC::doDeleteItemValues sql={}", sql);
+        String sql = histItemFilterDeleteProvider(filter, table);
+        Object[] params = resolveTimeFilterParams(filter, timeZone).toArray();
+        logger.debug("JDBC::doDeleteItemValues sql={} params={}", sql, params);
         try {
-            Yank.execute(sql, null);
+            Yank.execute(sql, params);
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
@@ -503,54 +597,153 @@ public class JdbcBaseDAO {
     /*************
      * Providers *
      *************/
-    static final DateTimeFormatter JDBC_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /**
+     * Provides the query for historic values. Dates and paging values are passed as parameters (see
+     * {@link #histItemFilterQueryParams}), so the query string only depends on the table and the shape of the filter.
+     * It is cached per table, which lets the JDBC driver reuse its prepared statement for repeated queries.
+     *
+     * @param keyset select the page by the time of the last row of the previous page instead of an offset
+     */
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
-            String simpleName, ZoneId timeZone) {
+            String simpleName, boolean keyset) {
         logger.debug(
                 "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
                 filter, numberDecimalcount, table, simpleName);
 
-        String filterString = resolveTimeFilter(filter, timeZone);
-        filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
+        boolean ascending = filter.getOrdering() == Ordering.ASCENDING;
+        boolean paged = filter.getPageSize() != Integer.MAX_VALUE;
+        String cacheKey = table + "|" + simpleName + "|" + numberDecimalcount + "|" + (filter.getBeginDate() != null)
+                + (filter.getEndDate() != null) + ascending + paged + keyset;
+        String queryString = filterQueryCache.get(cacheKey);
+        if (queryString == null) {
+            String filterString = resolveTimeFilter(filter);
+            if (keyset) {
+                filterString += filterString.isEmpty() ? " WHERE" : " AND";
+                filterString += ascending ? " TIME>?" : " TIME<?";
+            }
+            filterString += ascending ? " ORDER BY time ASC" : " ORDER BY time DESC";
+            if (paged) {
+                filterString += keyset ? limitClause() : limitOffsetClause();
+            }
+            queryString = histItemSelectProvider(numberDecimalcount, table, simpleName) + filterString;
+            filterQueryCache.put(cacheKey, queryString);
+        }
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
+    /**
+     * Provides the parameters for {@link #histItemFilterQueryProvider}: time filter, keyset boundary and paging.
+     */
+    protected List<Object> histItemFilterQueryParams(FilterCriteria filter, ZoneId timeZone,
+            @Nullable ZonedDateTime keysetBoundary) {
+        List<Object> params = resolveTimeFilterParams(filter, timeZone);
+        if (keysetBoundary != null) {
+            // the boundary was read from the database, so it is passed back unchanged instead of being shifted to
+            // the configured time zone
+            params.add(timestampParam(java.sql.Timestamp.from(keysetBoundary.toInstant())));
+        }
         if (filter.getPageSize() != Integer.MAX_VALUE) {
-            filterString += " LIMIT " + filter.getPageNumber() * filter.getPageSize() + "," + filter.getPageSize();
+            if (keysetBoundary == null) {
+                params.add(filter.getPageNumber() * filter.getPageSize());
+            }
+            params.add(filter.getPageSize());
         }
+        return params;
+    }
+
+    protected String histItemSelectProvider(int numberDecimalcount, String table, String simpleName) {
         // SELECT time, ROUND(value,3) FROM number_item_0114 ORDER BY time DESC LIMIT 0,1
         // rounding HALF UP
-        String queryString = "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1
+        return "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1
                 ? "SELECT time, ROUND(value," + numberDecimalcount + ") FROM " + table
                 : "SELECT time, value FROM " + table;
-        if (!filterString.isEmpty()) {
-            queryString += filterString;
-        }
-        logger.debug("JDBC::query queryString = {}", queryString);
-        return queryString;
     }
 
-    protected String histItemFilterDeleteProvider(FilterCriteria filter, String table, ZoneId timeZone) {
+    /**
+     * Provides the fetch size to set on statements of streamed queries.
+     */
+    protected int streamingFetchSize(int fetchSize) {
+        return fetchSize;
+    }
+
+    /**
+     * Provides the paging clause taking the parameters offset and row count.
+     */
+    protected String limitOffsetClause() {
+        return " LIMIT ?,?";
+    }
+
+    /**
+     * Provides the paging clause taking the row count as only parameter.
+     */
+    protected String limitClause() {
+        return " LIMIT ?";
+    }
+
+    protected String histItemFilterDeleteProvider(FilterCriteria filter, String table) {
         logger.debug("JDBC::histItemFilterDeleteProvider filter = {}, table = {}", filter, table);
 
-        String filterString = resolveTimeFilter(filter, timeZone);
+        String filterString = resolveTimeFilter(filter);
         String deleteString = filterString.isEmpty() ? "TRUNCATE TABLE " + table
                 : "DELETE FROM " + table + filterString;
         logger.debug("JDBC::delete deleteString = {}", deleteString);
         return deleteString;
     }
 
-    protected String resolveTimeFilter(FilterCriteria filter, ZoneId timeZone) {
+    protected String resolveTimeFilter(FilterCriteria filter) {
         String filterString = "";
+        if (filter.getBeginDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME>=?";
+        }
+        if (filter.getEndDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME<=?";
+        }
+        return filterString;
+    }
+
+    protected List<Object> resolveTimeFilterParams(FilterCriteria filter, ZoneId timeZone) {
+        List<Object> params = new ArrayList<>();
         ZonedDateTime beginDate = filter.getBeginDate();
         if (beginDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>='" + JDBC_DATE_FORMAT.format(beginDate.withZoneSameInstant(timeZone)) + "'";
+            params.add(timestampParam(toTimestamp(beginDate, timeZone)));
         }
         ZonedDateTime endDate = filter.getEndDate();
         if (endDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<='" + JDBC_DATE_FORMAT.format(endDate.withZoneSameInstant(timeZone)) + "'";
+            params.add(timestampParam(toTimestamp(endDate, timeZone)));
         }
-        return filterString;
+        return params;
+    }
+
+    /**
+     * Converts a filter date to the local time of the given time zone, truncated to seconds.
+     */
+    private java.sql.Timestamp toTimestamp(ZonedDateTime date, ZoneId timeZone) {
+        return java.sql.Timestamp
+                .valueOf(date.withZoneSameInstant(timeZone).toLocalDateTime().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Provides the value to bind for a time parameter. Databases without a native timestamp type may convert it.
+     */
+    protected Object timestampParam(java.sql.Timestamp timestamp) {
+        return timestamp;
+    }
+
+    /**
+     * Provides the insert statement for a value with an explicit time, i.e. with a parameter instead of
+     * {@code tablePrimaryValue}. Parameters are provided by {@link #timedInsertItemValueParams}.
+     */
+    protected String timedInsertItemValueProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] { storedVO.getTableName(), "?" });
+    }
+
+    protected Object[] timedInsertItemValueParams(java.sql.Timestamp timestamp, ItemVO storedVO) {
+        return new Object[] { timestampParam(timestamp), storedVO.getValue(), storedVO.getValue() };
     }
 
     private String updateItemTableNamesProvider(ItemVO itemTable) {
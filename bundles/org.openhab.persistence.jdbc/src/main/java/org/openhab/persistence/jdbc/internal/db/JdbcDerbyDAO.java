@@ -28,7 +28,6 @@ import org.knowm.yank.exceptions.YankSQLException;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
-import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.types.State;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
@@ -195,28 +194,26 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
     }
 
     @Override
-    public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
-        ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+    protected String timedInsertItemValueProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
                 new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
                 new String[] { storedVO.getTableName().toUpperCase(), storedVO.getDbType(), "?" });
-        java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
-        try {
-            Yank.execute(sql, params);
-        } catch (YankSQLException e) {
-            throw new JdbcSQLException(e);
-        }
+    }
+
+    @Override
+    protected Object[] timedInsertItemValueParams(java.sql.Timestamp timestamp, ItemVO storedVO) {
+        return new Object[] { timestampParam(timestamp), storedVO.getValue() };
     }
 
     @Override
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
-            String table, String name, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
+            String table, String name, ZoneId timeZone, @Nullable ZonedDateTime keysetBoundary)
+            throws JdbcSQLException {
+        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, keysetBoundary != null);
+        Object[] params = histItemFilterQueryParams(filter, timeZone, keysetBoundary).toArray();
         List<Object[]> m;
         try {
-            m = Yank.queryObjectArrays(sql, null);
+            m = Yank.queryObjectArrays(sql, params);
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
@@ -235,37 +232,7 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
      ****************************/
 
     @Override
-    protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
-            String simpleName, ZoneId timeZone) {
-        logger.debug(
-                "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
-                StringUtilsExt.filterToString(filter), numberDecimalcount, table, simpleName);
-
-        String filterString = "";
-        ZonedDateTime beginDate = filter.getBeginDate();
-        if (beginDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>='" + JDBC_DATE_FORMAT.format(beginDate.withZoneSameInstant(timeZone)) + "'";
-        }
-        ZonedDateTime endDate = filter.getEndDate();
-        if (endDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<='" + JDBC_DATE_FORMAT.format(endDate.withZoneSameInstant(timeZone)) + "'";
-        }
-        filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
-        if (filter.getPageSize() != 0x7fffffff) {
-            // TODO: TESTING!!!
-            // filterString += " LIMIT " + filter.getPageNumber() *
-            // filter.getPageSize() + "," + filter.getPageSize();
-            // SELECT time, value FROM ohscriptfiles_sw_ace_paths_0001 ORDER BY
-            // time DESC OFFSET 1 ROWS FETCH NEXT 0 ROWS ONLY
-            // filterString += " OFFSET " + filter.getPageSize() +" ROWS FETCH
-            // FIRST||NEXT " + filter.getPageNumber() * filter.getPageSize() + "
-            // ROWS ONLY";
-            filterString += " OFFSET " + filter.getPageSize() + " ROWS FETCH FIRST "
-                    + (filter.getPageNumber() * filter.getPageSize() + 1) + " ROWS ONLY";
-        }
-
+    protected String histItemSelectProvider(int numberDecimalcount, String table, String simpleName) {
         // http://www.seemoredata.com/en/showthread.php?132-Round-function-in-Apache-Derby
         // simulated round function in Derby: CAST(value 0.0005 AS DECIMAL(15,3))
         // simulated round function in Derby: "CAST(value 0.0005 AS DECIMAL(15,"+numberDecimalcount+"))"
@@ -282,14 +249,19 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
         } else {
             queryString += " value FROM " + table.toUpperCase();
         }
-
-        if (!filterString.isEmpty()) {
-            queryString += filterString;
-        }
-        logger.debug("JDBC::query queryString = {}", queryString);
         return queryString;
     }
 
+    @Override
+    protected String limitOffsetClause() {
+        return " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    protected String limitClause() {
+        return " FETCH FIRST ? ROWS ONLY";
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
@@ -76,6 +76,8 @@ public class JdbcMysqlDAO extends JdbcBaseDAO {
         databaseProps.setProperty("dataSource.prepStmtCacheSqlLimit", "2048");
         databaseProps.setProperty("dataSource.jdbcCompliantTruncation", "false");// jdbc standard max varchar max length
                                                                                  // of 21845
+        // Send batched inserts of the write-behind queue as multi-row INSERTs
+        databaseProps.setProperty("dataSource.rewriteBatchedStatements", "true");
 
         // Properties for HikariCP
         // Use driverClassName
@@ -120,6 +122,13 @@ public class JdbcMysqlDAO extends JdbcBaseDAO {
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected int streamingFetchSize(int fetchSize) {
+        // Connector/J only streams rows with this special value, any other fetch size reads the complete result
+        // unless cursor fetching is enabled
+        return Integer.MIN_VALUE;
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
@@ -12,16 +12,12 @@
  */
 package org.openhab.persistence.jdbc.internal.db;
 
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.knowm.yank.Yank;
 import org.knowm.yank.exceptions.YankSQLException;
 import org.openhab.core.items.Item;
-import org.openhab.core.persistence.FilterCriteria;
-import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.types.State;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
@@ -127,6 +123,8 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
         // databaseProps.setProperty("dataSource.cachePrepStmts", "true");
         // databaseProps.setProperty("dataSource.prepStmtCacheSize", "250");
         // databaseProps.setProperty("dataSource.prepStmtCacheSqlLimit", "2048");
+        // Send batched inserts of the write-behind queue as multi-row INSERTs
+        databaseProps.setProperty("dataSource.reWriteBatchedInserts", "true");
 
         // Properties for HikariCP
         databaseProps.setProperty("driverClassName", DRIVER_CLASS_NAME);
@@ -239,19 +237,15 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
     }
 
     @Override
-    public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
-        ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+    protected String timedInsertItemValueProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
                 new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
                 new String[] { storedVO.getTableName(), storedVO.getDbType(), "?" });
-        java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
-        try {
-            Yank.execute(sql, params);
-        } catch (YankSQLException e) {
-            throw new JdbcSQLException(e);
-        }
+    }
+
+    @Override
+    protected Object[] timedInsertItemValueParams(java.sql.Timestamp timestamp, ItemVO storedVO) {
+        return new Object[] { timestampParam(timestamp), storedVO.getValue() };
     }
 
     /****************************
@@ -259,38 +253,17 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
      ****************************/
 
     @Override
-    protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
-            String simpleName, ZoneId timeZone) {
-        logger.debug(
-                "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
-                filter.toString(), numberDecimalcount, table, simpleName);
-
-        String filterString = "";
-        ZonedDateTime beginDate = filter.getBeginDate();
-        if (beginDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>='" + JDBC_DATE_FORMAT.format(beginDate.withZoneSameInstant(timeZone)) + "'";
-        }
-        ZonedDateTime endDate = filter.getEndDate();
-        if (endDate != null) {
-            filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<='" + JDBC_DATE_FORMAT.format(endDate.withZoneSameInstant(timeZone)) + "'";
-        }
-        filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
-        if (filter.getPageSize() != 0x7fffffff) {
-            // see:
-            // http://www.jooq.org/doc/3.5/manual/sql-building/sql-statements/select-statement/limit-clause/
-            filterString += " OFFSET " + filter.getPageNumber() * filter.getPageSize() + " LIMIT "
-                    + filter.getPageSize();
-        }
-        String queryString = "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1
+    protected String histItemSelectProvider(int numberDecimalcount, String table, String simpleName) {
+        return "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1
                 ? "SELECT time, ROUND(CAST (value AS numeric)," + numberDecimalcount + ") FROM " + table
                 : "SELECT time, value FROM " + table;
-        if (!filterString.isEmpty()) {
-            queryString += filterString;
-        }
-        logger.debug("JDBC::query queryString = {}", queryString);
-        return queryString;
+    }
+
+    @Override
+    protected String limitOffsetClause() {
+        // see:
+        // http://www.jooq.org/doc/3.5/manual/sql-building/sql-statements/select-statement/limit-clause/
+        return " OFFSET ? LIMIT ?";
     }
 
     /*****************
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.utils;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.FilterCriteria;
+
+/**
+ * Remembers the time of the last row of recently queried pages, so the following page of the same query can be
+ * selected by time (keyset pagination) instead of skipping all rows of the previous pages.
+ *
+ * A boundary is only valid as long as the table doesn't change: new or deleted rows shift the pages. Writes to a table
+ * have to {@link #invalidate(String) invalidate} its boundaries. Boundaries of queries which were running while the
+ * table was invalidated are not stored.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class PageBoundaryCache {
+
+    private final Map<String, ZonedDateTime> boundaries;
+    private final Map<String, Long> tableVersions = new HashMap<>();
+
+    public PageBoundaryCache(int maxEntries) {
+        boundaries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, ZonedDateTime> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the time of the last row of the page preceding the requested page, if known.
+     */
+    public synchronized @Nullable ZonedDateTime getPreviousPageBoundary(String table, FilterCriteria filter) {
+        int pageNumber = filter.getPageNumber();
+        if (pageNumber == 0 || filter.getPageSize() == Integer.MAX_VALUE) {
+            return null;
+        }
+        return boundaries.get(key(table, filter, pageNumber - 1));
+    }
+
+    /**
+     * Returns the version of a table, to be taken before a page is queried.
+     */
+    public synchronized long getVersion(String table) {
+        return tableVersions.getOrDefault(table, 0L);
+    }
+
+    /**
+     * Stores the time of the last row of the requested page.
+     *
+     * @param version version of the table when the page was queried, the boundary is ignored if the table was
+     *            invalidated since
+     */
+    public synchronized void putPageBoundary(String table, FilterCriteria filter, ZonedDateTime lastRowTime,
+            long version) {
+        if (version == getVersion(table)) {
+            boundaries.put(key(table, filter, filter.getPageNumber()), lastRowTime);
+        }
+    }
+
+    /**
+     * Forgets the boundaries of a table, e.g. because rows were stored or deleted.
+     */
+    public synchronized void invalidate(String table) {
+        tableVersions.merge(table, 1L, Long::sum);
+        if (!boundaries.isEmpty()) {
+            String prefix = table + "|";
+            boundaries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private String key(String table, FilterCriteria filter, int pageNumber) {
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        return table + "|" + filter.getOrdering() + "|" + (beginDate == null ? "" : beginDate.toInstant()) + "|"
+                + (endDate == null ? "" : endDate.toInstant()) + "|" + filter.getPageSize() + "|" + pageNumber;
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+
+/**
+ * Tests the page boundaries remembered by the {@link JdbcMapper}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcMapperTest {
+
+    private static final String ITEM_NAME = "Number";
+    private static final String TABLE = "item0001";
+    private static final int PAGE_SIZE = 2;
+    private static final ZonedDateTime START = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    private final NumberItem item = new NumberItem(ITEM_NAME);
+    private final List<@Nullable ZonedDateTime> keysetBoundaries = new ArrayList<>();
+    private @NonNullByDefault({}) JdbcBaseDAO dao;
+    private @NonNullByDefault({}) JdbcMapper mapper;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        TimeZoneProvider timeZoneProvider = mock(TimeZoneProvider.class);
+        when(timeZoneProvider.getTimeZone()).thenReturn(ZoneId.of("UTC"));
+        dao = mock(JdbcBaseDAO.class);
+        // every page is full, its rows are one minute apart
+        when(dao.doGetHistItemFilterQuery(any(), any(), anyInt(), anyString(), anyString(), any(), any()))
+                .thenAnswer(invocation -> {
+                    FilterCriteria filter = invocation.getArgument(1);
+                    keysetBoundaries.add(invocation.getArgument(6));
+                    List<HistoricItem> rows = new ArrayList<>();
+                    for (int i = 0; i < filter.getPageSize(); i++) {
+                        int row = filter.getPageNumber() * filter.getPageSize() + i;
+                        rows.add(new JdbcHistoricItem(ITEM_NAME, new DecimalType(row), START.plusMinutes(row)));
+                    }
+                    return rows;
+                });
+        JdbcConfiguration conf = mock(JdbcConfiguration.class);
+        when(conf.getDBDAO()).thenReturn(dao);
+
+        mapper = new JdbcMapper(timeZoneProvider);
+        mapper.conf = conf;
+        mapper.initialized = true;
+        mapper.itemNameToTableNameMap.put(ITEM_NAME, TABLE);
+    }
+
+    private void queryPage(int pageNumber) throws Exception {
+        FilterCriteria filter = new FilterCriteria().setItemName(ITEM_NAME).setOrdering(Ordering.DESCENDING)
+                .setPageSize(PAGE_SIZE).setPageNumber(pageNumber);
+        mapper.getHistItemFilterQuery(filter, 0, TABLE, item);
+    }
+
+    @Test
+    public void followingPageUsesBoundaryOfPreviousPage() throws Exception {
+        queryPage(0);
+        queryPage(1);
+
+        assertThat(keysetBoundaries.get(0), is(nullValue()));
+        assertThat(keysetBoundaries.get(1), is(START.plusMinutes(1)));
+    }
+
+    @Test
+    public void storingValuesInvalidatesBoundaries() throws Exception {
+        queryPage(0);
+        mapper.storeItemValue(item, new DecimalType(42), null);
+        queryPage(1);
+
+        // the stored value shifts the pages, the page is selected by offset again
+        assertThat(keysetBoundaries.get(1), is(nullValue()));
+        verify(dao).doStoreItemValue(eq(item), any(), any());
+    }
+
+    @Test
+    public void storingBatchInvalidatesBoundaries() throws Exception {
+        when(dao.prepareItemValue(any(), any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(2));
+        queryPage(0);
+        mapper.storeItemValues(List.of(new BatchedItemValue(item, new DecimalType(42), START)));
+        queryPage(1);
+
+        assertThat(keysetBoundaries.get(1), is(nullValue()));
+    }
+}
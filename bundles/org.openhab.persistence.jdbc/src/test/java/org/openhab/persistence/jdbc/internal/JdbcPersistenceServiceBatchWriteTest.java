@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.*;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.i18n.TimeZoneProvider;
+import org.openhab.core.items.Item;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
+
+/**
+ * Tests the write-behind queue of the {@link JdbcPersistenceService}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcPersistenceServiceBatchWriteTest {
+
+    private static final int BATCH_SIZE = 2;
+    // long enough that values are only flushed by a full batch or on deactivation
+    private static final int FLUSH_INTERVAL = 60000;
+    private static final ZonedDateTime DATE = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    private final NumberItem item = new NumberItem("Number");
+    private final BlockingQueue<List<BatchedItemValue>> batches = new LinkedBlockingQueue<>();
+    private final BlockingQueue<BatchedItemValue> singleValues = new LinkedBlockingQueue<>();
+    private volatile boolean databaseAccessible = true;
+    private volatile boolean batchFails;
+
+    private final JdbcPersistenceService service = new JdbcPersistenceService(mock(ItemRegistry.class),
+            mock(TimeZoneProvider.class)) {
+        @Override
+        protected boolean checkDBAccessability() {
+            return databaseAccessible;
+        }
+
+        @Override
+        protected void storeItemValues(List<BatchedItemValue> values) throws JdbcException {
+            if (batchFails) {
+                throw new JdbcException("duplicate key");
+            }
+            batches.add(new ArrayList<>(values));
+        }
+
+        @Override
+        protected void storeItemValue(Item item, State itemState, @Nullable ZonedDateTime date) throws JdbcException {
+            singleValues.add(new BatchedItemValue(item, itemState, date == null ? ZonedDateTime.now() : date));
+        }
+    };
+
+    @BeforeEach
+    public void setup() {
+        JdbcConfiguration conf = mock(JdbcConfiguration.class);
+        when(conf.getBatchWriteSize()).thenReturn(BATCH_SIZE);
+        when(conf.getBatchWriteInterval()).thenReturn(FLUSH_INTERVAL);
+        when(conf.getBatchWriteQueueSize()).thenReturn(2 * BATCH_SIZE);
+        service.conf = conf;
+        service.startBatchWriter();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.deactivate(0);
+    }
+
+    private void store(int value) {
+        service.store(item, DATE.plusMinutes(value), new DecimalType(value));
+    }
+
+    private static List<Integer> values(List<BatchedItemValue> values) {
+        return values.stream().map(value -> ((DecimalType) value.getState()).intValue()).toList();
+    }
+
+    @Test
+    public void fullBatchIsStoredWithoutWaitingForInterval() throws Exception {
+        store(0);
+        store(1);
+
+        List<BatchedItemValue> batch = batches.poll(5, TimeUnit.SECONDS);
+        assertThat(batch, is(notNullValue()));
+        assertThat(values(batch), contains(0, 1));
+        assertThat(batch.get(1).getDate(), is(DATE.plusMinutes(1)));
+        // waits for the running flush to finish
+        service.deactivate(0);
+        assertThat(service.getBatchWrittenCount(), is(2L));
+        assertThat(singleValues.isEmpty(), is(true));
+    }
+
+    @Test
+    public void failedBatchIsStoredValueByValue() throws Exception {
+        batchFails = true;
+        store(0);
+        store(1);
+
+        BatchedItemValue first = singleValues.poll(5, TimeUnit.SECONDS);
+        BatchedItemValue second = singleValues.poll(5, TimeUnit.SECONDS);
+        assertThat(first, is(notNullValue()));
+        assertThat(second, is(notNullValue()));
+        assertThat(values(List.of(first, second)), contains(0, 1));
+        // the values keep the time they were queued with
+        assertThat(second.getDate(), is(DATE.plusMinutes(1)));
+        assertThat(batches.isEmpty(), is(true));
+    }
+
+    @Test
+    public void queueIsDrainedOnDeactivation() {
+        store(0);
+
+        service.deactivate(0);
+        assertThat(values(batches.remove()), contains(0));
+        assertThat(service.getBatchQueueSize(), is(-1));
+    }
+
+    @Test
+    public void valuesAreKeptWhileDatabaseIsNotAccessible() throws Exception {
+        databaseAccessible = false;
+        for (int i = 0; i < 5; i++) {
+            store(i);
+        }
+        assertThat(service.getBatchQueueSize(), is(2 * BATCH_SIZE));
+        assertThat(service.getBatchDroppedCount(), is(1L));
+
+        databaseAccessible = true;
+        service.deactivate(0);
+        List<Integer> stored = new ArrayList<>();
+        batches.forEach(batch -> stored.addAll(values(batch)));
+        assertThat(stored, contains(0, 1, 2, 3));
+    }
+
+    @Test
+    public void valueWithoutDateGetsTimeOfQueueing() {
+        item.setState(new DecimalType(42));
+        ZonedDateTime before = ZonedDateTime.now();
+        service.store(item);
+        ZonedDateTime after = ZonedDateTime.now();
+
+        service.deactivate(0);
+        ZonedDateTime date = batches.remove().get(0).getDate();
+        assertThat(date.isBefore(before), is(false));
+        assertThat(date.isAfter(after), is(false));
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.persistence.jdbc.internal.db.HistItemResultSetIterable.QueryListener;
+
+/**
+ * Tests the {@link HistItemResultSetIterable}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class HistItemResultSetIterableTest {
+
+    private static final int MATERIALIZE_LIMIT = 2;
+
+    private final JdbcBaseDAO dao = new JdbcBaseDAO();
+    private final NumberItem item = new NumberItem("Number");
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final List<String> events = new ArrayList<>();
+    private final QueryListener listener = new QueryListener() {
+        @Override
+        public void completed(int rowCount, @Nullable ZonedDateTime lastRowTime) {
+            events.add("completed " + rowCount);
+        }
+
+        @Override
+        public void failed(SQLException e) {
+            events.add("failed");
+        }
+    };
+
+    private @NonNullByDefault({}) Connection connection;
+    private @NonNullByDefault({}) PreparedStatement statement;
+    private @NonNullByDefault({}) ResultSet resultSet;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+    }
+
+    /**
+     * Let the result set return rows with the values 0 .. rowCount - 1. If failingRow is not negative, reading that
+     * row fails.
+     */
+    private void rows(int rowCount, int failingRow) throws SQLException {
+        AtomicInteger row = new AtomicInteger(-1);
+        when(resultSet.next()).thenAnswer(invocation -> {
+            int current = row.incrementAndGet();
+            if (current == failingRow) {
+                throw new SQLException("connection lost");
+            }
+            return current < rowCount;
+        });
+        when(resultSet.getObject(1)).thenAnswer(invocation -> (long) row.get() * 1000);
+        when(resultSet.getObject(2)).thenAnswer(invocation -> (double) row.get());
+    }
+
+    private HistItemResultSetIterable iterable() {
+        return new HistItemResultSetIterable(dao, item, null, "SELECT time, value FROM item0001", new Object[0], 100,
+                MATERIALIZE_LIMIT, listener, () -> {
+                    connectionCount.incrementAndGet();
+                    return connection;
+                });
+    }
+
+    private static List<Integer> values(Iterator<HistoricItem> iterator) {
+        List<Integer> values = new ArrayList<>();
+        iterator.forEachRemaining(historicItem -> values.add(((DecimalType) historicItem.getState()).intValue()));
+        return values;
+    }
+
+    @Test
+    public void smallResultIsMaterialized() throws SQLException {
+        rows(2, -1);
+        HistItemResultSetIterable iterable = iterable();
+
+        Iterator<HistoricItem> iterator = iterable.iterator();
+        // the connection is released before iterating
+        verify(connection).close();
+        assertThat(values(iterator), is(List.of(0, 1)));
+        assertThat(values(iterable.iterator()), is(List.of(0, 1)));
+        assertThat(connectionCount.get(), is(1));
+        assertThat(events, is(List.of("completed 2")));
+    }
+
+    @Test
+    public void largeResultIsStreamed() throws SQLException {
+        rows(5, -1);
+        Iterator<HistoricItem> iterator = iterable().iterator();
+
+        verify(connection, never()).close();
+        assertThat(values(iterator), is(List.of(0, 1, 2, 3, 4)));
+        verify(connection).rollback();
+        verify(connection).close();
+        assertThat(events, is(List.of("completed 5")));
+    }
+
+    @Test
+    public void closingStreamedResultReleasesConnection() throws SQLException {
+        rows(5, -1);
+        Iterator<HistoricItem> iterator = iterable().iterator();
+        iterator.next();
+        iterator.next();
+        iterator.next();
+
+        ((AutoCloseable) iterator).close();
+        verify(connection).close();
+        assertThat(iterator.hasNext(), is(false));
+        assertThat(events, is(List.of()));
+    }
+
+    @Test
+    public void failingIterationEndsResult() throws SQLException {
+        rows(5, 3);
+        Iterator<HistoricItem> iterator = iterable().iterator();
+
+        assertThat(values(iterator), is(List.of(0, 1, 2)));
+        verify(connection).close();
+        assertThat(events, is(List.of("failed")));
+    }
+
+    @Test
+    public void failingQueryReturnsNoRows() throws SQLException {
+        when(statement.executeQuery()).thenThrow(new SQLException("syntax error"));
+        HistItemResultSetIterable iterable = iterable();
+
+        assertThat(iterable.iterator().hasNext(), is(false));
+        verify(connection).close();
+        // failed results are not materialized, the query runs again
+        iterable.iterator();
+        assertThat(connectionCount.get(), is(2));
+        assertThat(events, is(List.of("failed", "failed")));
+    }
+}
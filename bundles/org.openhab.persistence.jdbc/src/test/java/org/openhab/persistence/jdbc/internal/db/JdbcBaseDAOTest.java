@@ -23,7 +23,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Objects;
+import java.util.List;
 import java.util.stream.Stream;
 
 import javax.measure.Quantity;
@@ -66,6 +66,7 @@ import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 
 /**
  * Tests the {@link JdbcBaseDAO}.
@@ -162,7 +163,7 @@ public class JdbcBaseDAOTest {
 
     @Test
     void testHistItemFilterQueryProviderReturnsSelectQueryWithoutWhereClauseDescendingOrder() {
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", false);
         assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time DESC"));
     }
 
@@ -170,7 +171,7 @@ public class JdbcBaseDAOTest {
     void testHistItemFilterQueryProviderReturnsSelectQueryWithoutWhereClauseAscendingOrder() {
         filter.setOrdering(Ordering.ASCENDING);
 
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", false);
         assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time ASC"));
     }
 
@@ -179,24 +180,43 @@ public class JdbcBaseDAOTest {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
-        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>='" //
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'" //
-                + " AND TIME<='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate()))
-                + "' ORDER BY time DESC"));
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", false);
+        assertThat(sql,
+                is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=? ORDER BY time DESC"));
     }
 
     @Test
     void testHistItemFilterQueryProviderReturnsSelectQueryWithoutWhereClauseDescendingOrderAndLimit() {
         filter.setPageSize(1);
 
-        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", UTC_ZONE_ID);
-        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time DESC LIMIT 0,1"));
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", false);
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time DESC LIMIT ?,?"));
+        assertThat(jdbcBaseDAO.histItemFilterQueryParams(filter, UTC_ZONE_ID, null), is(List.<Object> of(0, 1)));
+    }
+
+    @Test
+    void testHistItemFilterQueryProviderWithKeysetReturnsSelectQueryContinuingAfterBoundary() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setPageSize(10);
+        filter.setPageNumber(2);
+        ZonedDateTime boundary = parseDateTimeString("2022-01-12T08:30:00");
+
+        String sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", true);
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME
+                + " WHERE TIME>=? AND TIME<? ORDER BY time DESC LIMIT ?"));
+        assertThat(jdbcBaseDAO.histItemFilterQueryParams(filter, UTC_ZONE_ID, boundary),
+                is(List.<Object> of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"),
+                        java.sql.Timestamp.from(boundary.toInstant()), 10)));
+
+        filter.setOrdering(Ordering.ASCENDING);
+        sql = jdbcBaseDAO.histItemFilterQueryProvider(filter, 0, DB_TABLE_NAME, "TEST", true);
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME
+                + " WHERE TIME>=? AND TIME>? ORDER BY time ASC LIMIT ?"));
     }
 
     @Test
     void testHistItemFilterDeleteProviderReturnsDeleteQueryWithoutWhereClause() {
-        String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID);
+        String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME);
         assertThat(sql, is("TRUNCATE TABLE " + DB_TABLE_NAME));
     }
 
@@ -205,35 +225,35 @@ public class JdbcBaseDAOTest {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
-        String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID);
-        assertThat(sql, is("DELETE FROM " + DB_TABLE_NAME + " WHERE TIME>='" //
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'" //
-                + " AND TIME<='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate()))
-                + "'"));
+        String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME);
+        assertThat(sql, is("DELETE FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=?"));
     }
 
     @Test
     void testResolveTimeFilterWithNoDatesReturnsEmptyString() {
-        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
+        String sql = jdbcBaseDAO.resolveTimeFilter(filter);
         assertThat(sql, is(""));
+        assertThat(jdbcBaseDAO.resolveTimeFilterParams(filter, UTC_ZONE_ID), is(List.<Object> of()));
     }
 
     @Test
     void testResolveTimeFilterWithStartDateOnlyReturnsWhereClause() {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
 
-        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql, is(" WHERE TIME>='"
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate())) + "'"));
+        String sql = jdbcBaseDAO.resolveTimeFilter(filter);
+        assertThat(sql, is(" WHERE TIME>=?"));
+        assertThat(jdbcBaseDAO.resolveTimeFilterParams(filter, UTC_ZONE_ID),
+                is(List.<Object> of(java.sql.Timestamp.valueOf("2022-01-10 15:01:44"))));
     }
 
     @Test
     void testResolveTimeFilterWithEndDateOnlyReturnsWhereClause() {
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
-        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql, is(" WHERE TIME<='"
-                + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate())) + "'"));
+        String sql = jdbcBaseDAO.resolveTimeFilter(filter);
+        assertThat(sql, is(" WHERE TIME<=?"));
+        assertThat(jdbcBaseDAO.resolveTimeFilterParams(filter, UTC_ZONE_ID),
+                is(List.<Object> of(java.sql.Timestamp.valueOf("2022-01-15 15:01:44"))));
     }
 
     @Test
@@ -241,12 +261,37 @@ public class JdbcBaseDAOTest {
         filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
         filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
 
-        String sql = jdbcBaseDAO.resolveTimeFilter(filter, UTC_ZONE_ID);
-        assertThat(sql,
-                is(" WHERE TIME>='" + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getBeginDate()))
-                        + "'" //
-                        + " AND TIME<='"
-                        + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate())) + "'"));
+        String sql = jdbcBaseDAO.resolveTimeFilter(filter);
+        assertThat(sql, is(" WHERE TIME>=? AND TIME<=?"));
+    }
+
+    @Test
+    void testResolveTimeFilterParamsConvertsDatesToGivenTimeZone() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+
+        assertThat(jdbcBaseDAO.resolveTimeFilterParams(filter, ZoneId.of("Europe/Berlin")),
+                is(List.<Object> of(java.sql.Timestamp.valueOf("2022-01-10 16:01:44"))));
+    }
+
+    @Test
+    void testTimedInsertItemValueProviderReturnsInsertQueryWithTimeParameter() {
+        String sql = jdbcBaseDAO.timedInsertItemValueProvider(new ItemVO(DB_TABLE_NAME, null));
+        assertThat(sql, is("INSERT INTO " + DB_TABLE_NAME
+                + " (time, value) VALUES( ?, ? ) ON DUPLICATE KEY UPDATE VALUE= ?"));
+    }
+
+    @Test
+    void testPrepareItemValueAttachesTimeToConvertedValue() {
+        ZonedDateTime date = parseDateTimeString("2022-01-10T15:01:44");
+
+        ItemVO vo = jdbcBaseDAO.prepareItemValue(new SwitchItem("String_SwitchItem"), OnOffType.ON,
+                new ItemVO(DB_TABLE_NAME, null), date);
+        assertThat(vo.getValue(), is("ON"));
+        assertThat(vo.getTime().getTime(), is(date.toInstant().toEpochMilli()));
+
+        java.sql.Timestamp timestamp = new java.sql.Timestamp(vo.getTime().getTime());
+        Object[] params = jdbcBaseDAO.timedInsertItemValueParams(timestamp, vo);
+        assertThat(params, is(new Object[] { timestamp, "ON", "ON" }));
     }
 
     private ZonedDateTime parseDateTimeString(String dts) {
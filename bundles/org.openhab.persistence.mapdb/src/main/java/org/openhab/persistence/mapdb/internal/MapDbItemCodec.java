@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.TypeParser;
+
+/**
+ * Converts {@link MapDbItem}s to a compact binary representation and back.
+ *
+ * The item name is the key of the map and therefore not part of the value. The value consists of a format version, the
+ * timestamp in epoch milliseconds and the state. Common state types are written in a type specific binary form, all
+ * other types by their class name and full string representation.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemCodec {
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte TYPE_GENERIC = 0;
+    private static final byte TYPE_DECIMAL = 1;
+    private static final byte TYPE_PERCENT = 2;
+    private static final byte TYPE_ON_OFF = 3;
+    private static final byte TYPE_OPEN_CLOSED = 4;
+    private static final byte TYPE_STRING = 5;
+
+    private MapDbItemCodec() {
+        // utility class
+    }
+
+    public static byte[] encode(MapDbItem item) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(item.getTimestamp().toInstant().toEpochMilli());
+            State state = item.getState();
+            Class<?> stateClass = state.getClass();
+            if (stateClass == DecimalType.class) {
+                out.writeByte(TYPE_DECIMAL);
+                writeDecimal(out, ((DecimalType) state).toBigDecimal());
+            } else if (stateClass == PercentType.class) {
+                out.writeByte(TYPE_PERCENT);
+                writeDecimal(out, ((PercentType) state).toBigDecimal());
+            } else if (state instanceof OnOffType) {
+                out.writeByte(TYPE_ON_OFF);
+                out.writeBoolean(state == OnOffType.ON);
+            } else if (state instanceof OpenClosedType) {
+                out.writeByte(TYPE_OPEN_CLOSED);
+                out.writeBoolean(state == OpenClosedType.OPEN);
+            } else if (stateClass == StringType.class) {
+                out.writeByte(TYPE_STRING);
+                writeString(out, state.toFullString());
+            } else {
+                out.writeByte(TYPE_GENERIC);
+                writeString(out, stateClass.getName());
+                writeString(out, state.toFullString());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException if the value is corrupt or the state can't be restored
+     */
+    public static MapDbItem decode(String name, byte[] value) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            checkVersion(in);
+            MapDbItem item = new MapDbItem();
+            item.setName(name);
+            item.setTimestamp(new Date(in.readLong()));
+            item.setState(readState(in));
+            return item;
+        }
+    }
+
+    /**
+     * Reads only the timestamp of a value, e.g. to build an index without restoring the states.
+     */
+    public static long decodeTimestamp(byte[] value) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            checkVersion(in);
+            return in.readLong();
+        }
+    }
+
+    private static void checkVersion(DataInputStream in) throws IOException {
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported format version " + version);
+        }
+    }
+
+    private static State readState(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_DECIMAL:
+                return new DecimalType(readDecimal(in));
+            case TYPE_PERCENT:
+                return new PercentType(readDecimal(in));
+            case TYPE_ON_OFF:
+                return OnOffType.from(in.readBoolean());
+            case TYPE_OPEN_CLOSED:
+                return in.readBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case TYPE_STRING:
+                return new StringType(readString(in));
+            case TYPE_GENERIC:
+                String className = readString(in);
+                String value = readString(in);
+                try {
+                    @SuppressWarnings("unchecked")
+                    Class<? extends State> stateClass = (Class<? extends State>) Class.forName(className);
+                    State state = TypeParser.parseState(List.of(stateClass), value);
+                    if (state != null) {
+                        return state;
+                    }
+                } catch (ClassNotFoundException | ClassCastException e) {
+                    throw new IOException("Unknown state type " + className, e);
+                }
+                throw new IOException("Couldn't parse state '" + value + "' as " + className);
+            default:
+                throw new IOException("Unknown state type " + type);
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readInt()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // writeUTF is limited to 64k, string items may hold more
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -24,16 +24,21 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.persistence.FilterCriteria;
@@ -62,8 +67,9 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class }, property = Constants.SERVICE_PID
-        + "=org.openhab.mapdb")
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", property = Constants.SERVICE_PID
+                + "=org.openhab.mapdb")
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_ID = "mapdb";
@@ -71,25 +77,48 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
     private static final Path DB_DIR = new File(OpenHAB.getUserDataFolder(), "persistence").toPath().resolve("mapdb");
     private static final Path BACKUP_DIR = DB_DIR.resolve("backup");
     private static final String DB_FILE_NAME = "storage.mapdb";
+    private static final String LEGACY_MAP_NAME = "itemStore";
+    private static final String MAP_NAME = "items";
+
+    private static final String COMMIT_INTERVAL_PARAM = "commitInterval";
+    private static final String COMMIT_SIZE_PARAM = "commitSize";
+    private static final long COMMIT_INTERVAL_DEFAULT = 0;
+    private static final int COMMIT_SIZE_DEFAULT = 100;
 
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
-    private final ExecutorService threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+    private final ScheduledExecutorService threadPool = ThreadPoolManager
+            .getScheduledPool(getClass().getSimpleName());
 
     /**
      * holds the local instance of the MapDB database
      */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    private @NonNullByDefault({}) Map<String, byte[]> map;
+
+    /**
+     * names of the stored items and the timestamps of their last update
+     */
+    private final Map<String, Long> index = new ConcurrentHashMap<>();
+
+    private long commitInterval = COMMIT_INTERVAL_DEFAULT;
+    private int commitSize = COMMIT_SIZE_DEFAULT;
+    private final AtomicInteger uncommittedWrites = new AtomicInteger();
+    private @Nullable ScheduledFuture<?> commitJob;
 
     private transient Gson mapper = new GsonBuilder().setDateFormat(DateTimeType.DATE_PATTERN_JSON_COMPAT)
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
 
     @Activate
-    public void activate() {
+    public void activate(Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
+        commitInterval = ConfigParser.valueAsOrElse(config.get(COMMIT_INTERVAL_PARAM), Long.class,
+                COMMIT_INTERVAL_DEFAULT);
+        commitSize = Math.max(1,
+                ConfigParser.valueAsOrElse(config.get(COMMIT_SIZE_PARAM), Integer.class, COMMIT_SIZE_DEFAULT));
+
         try {
             Files.createDirectories(DB_DIR);
         } catch (IOException e) {
@@ -101,7 +130,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         File dbFile = DB_DIR.resolve(DB_FILE_NAME).toFile();
         try {
             db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-            map = db.createTreeMap("itemStore").makeOrGet();
+            map = openMap();
         } catch (RuntimeException re) {
             Throwable cause = re.getCause();
             if (cause instanceof ClassNotFoundException cnf) {
@@ -133,23 +162,72 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                 }
 
                 db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-                map = db.createTreeMap("itemStore").makeOrGet();
+                map = openMap();
             } else {
                 logger.warn("Failed to create or open the MapDB: {}", re.getMessage());
                 logger.warn("MapDB persistence service activation has failed.");
+                return;
             }
         }
+        buildIndex();
         logger.debug("MapDB persistence service is now activated");
     }
 
     @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        synchronized (this) {
+            ScheduledFuture<?> commitJob = this.commitJob;
+            if (commitJob != null) {
+                commitJob.cancel(false);
+                this.commitJob = null;
+            }
+        }
         if (db != null) {
+            commit();
             db.close();
         }
     }
 
+    /**
+     * Opens the map of binary values. Values of the map used by previous versions, which are stored as JSON, are
+     * converted.
+     */
+    private Map<String, byte[]> openMap() {
+        Map<String, byte[]> binaryMap = db.createTreeMap(MAP_NAME).valueSerializer(Serializer.BYTE_ARRAY)
+                .makeOrGet();
+        if (db.exists(LEGACY_MAP_NAME)) {
+            Map<String, String> legacyMap = db.getTreeMap(LEGACY_MAP_NAME);
+            int converted = 0;
+            for (Map.Entry<String, String> entry : legacyMap.entrySet()) {
+                Optional<MapDbItem> item = deserialize(entry.getValue());
+                if (item.isPresent()) {
+                    try {
+                        binaryMap.put(entry.getKey(), MapDbItemCodec.encode(item.get()));
+                        converted++;
+                    } catch (IOException e) {
+                        logger.warn("Failed to convert '{}': {}", entry.getKey(), e.getMessage());
+                    }
+                }
+            }
+            db.delete(LEGACY_MAP_NAME);
+            db.commit();
+            logger.info("Converted {} items of the MapDB to the binary format", converted);
+        }
+        return binaryMap;
+    }
+
+    private void buildIndex() {
+        index.clear();
+        for (Map.Entry<String, byte[]> entry : map.entrySet()) {
+            try {
+                index.put(entry.getKey(), MapDbItemCodec.decodeTimestamp(entry.getValue()));
+            } catch (IOException e) {
+                logger.warn("Failed to read the timestamp of '{}': {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
     @Override
     public String getId() {
         return SERVICE_ID;
@@ -162,7 +240,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream().map(this::deserialize).flatMap(MapDbPersistenceService::streamOptional)
+        return index.entrySet().stream().map(entry -> new MapDbItemInfo(entry.getKey(), entry.getValue()))
                 .collect(Collectors.<PersistenceItemInfo> toUnmodifiableSet());
     }
 
@@ -187,25 +265,57 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setState(state);
         mItem.setTimestamp(new Date());
         threadPool.submit(() -> {
-            String json = serialize(mItem);
-            map.put(localAlias, json);
-            db.commit();
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
+            try {
+                map.put(localAlias, MapDbItemCodec.encode(mItem));
+            } catch (IOException e) {
+                logger.warn("Failed to store '{}' with state '{}': {}", localAlias, state, e.getMessage());
+                return;
+            }
+            index.put(localAlias, mItem.getTimestamp().toInstant().toEpochMilli());
+            written();
+            logger.debug("Stored '{}' with state '{}' in MapDB database", localAlias, state);
         });
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        String itemName = filter.getItemName();
+        if (itemName == null || !index.containsKey(itemName)) {
+            return List.of();
+        }
+        byte[] value = map.get(itemName);
+        if (value == null) {
+            return List.of();
+        }
+        try {
+            return List.of(MapDbItemCodec.decode(itemName, value));
+        } catch (IOException e) {
+            logger.warn("Failed to read '{}' from MapDB database: {}", itemName, e.getMessage());
             return List.of();
         }
-        Optional<MapDbItem> item = deserialize(json);
-        return item.isPresent() ? List.of(item.get()) : List.of();
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    /**
+     * Commits after a write, or after a number of writes or a period of time if group commits are configured.
+     */
+    private void written() {
+        if (commitInterval <= 0 || uncommittedWrites.incrementAndGet() >= commitSize) {
+            uncommittedWrites.set(0);
+            db.commit();
+            return;
+        }
+        synchronized (this) {
+            ScheduledFuture<?> commitJob = this.commitJob;
+            if (commitJob == null || commitJob.isDone()) {
+                this.commitJob = threadPool.schedule(this::commit, commitInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void commit() {
+        if (uncommittedWrites.getAndSet(0) > 0) {
+            db.commit();
+        }
     }
 
     @SuppressWarnings("null")
@@ -221,12 +331,30 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
-    private static <T> Stream<T> streamOptional(Optional<T> opt) {
-        return opt.isPresent() ? Stream.of(opt.get()) : Stream.empty();
-    }
-
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.RESTORE, PersistenceStrategy.Globals.CHANGE);
     }
+
+    private record MapDbItemInfo(String name, long timestamp) implements PersistenceItemInfo {
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public @Nullable Integer getCount() {
+            return 1;
+        }
+
+        @Override
+        public @Nullable Date getEarliest() {
+            return new Date(timestamp);
+        }
+
+        @Override
+        public @Nullable Date getLatest() {
+            return new Date(timestamp);
+        }
+    }
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.unit.SIUnits;
+import org.openhab.core.types.State;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemCodec;
+
+/**
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemCodecTest {
+
+    @ParameterizedTest
+    @MethodSource
+    public void encodeDecodeRoundtripShouldRecreateTheItem(State state) throws IOException {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1700000000123L));
+
+        byte[] value = MapDbItemCodec.encode(item);
+        MapDbItem actual = MapDbItemCodec.decode("item", value);
+
+        assertThat(actual.getName(), is("item"));
+        assertThat(actual.getState(), is(equalTo(state)));
+        assertThat(actual.getState().getClass(), is(equalTo(state.getClass())));
+        assertThat(actual.getTimestamp(), is(item.getTimestamp()));
+        assertThat(MapDbItemCodec.decodeTimestamp(value), is(1700000000123L));
+    }
+
+    public static Stream<State> encodeDecodeRoundtripShouldRecreateTheItem() {
+        return Stream.of(DecimalType.ZERO, new DecimalType(1.123), new DecimalType(-10000000),
+                new DecimalType(new BigDecimal("12345678901234567890.123456789")), PercentType.valueOf("0.0000001"),
+                PercentType.HUNDRED, OnOffType.ON, OnOffType.OFF, OpenClosedType.OPEN, OpenClosedType.CLOSED,
+                StringType.valueOf(""), StringType.valueOf("äöü @@@ " + "x".repeat(70000)), HSBType.fromRGB(1, 2, 3),
+                new QuantityType<>(new BigDecimal("21.23"), SIUnits.CELSIUS));
+    }
+}
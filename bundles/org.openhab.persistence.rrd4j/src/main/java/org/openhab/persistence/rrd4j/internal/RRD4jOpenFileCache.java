@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.rrd4j.core.RrdDb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds a reference to the most recently used databases, so the database pool keeps their files open. With the NIO
+ * backend an open file stays memory-mapped, stores and queries then work on the mapped pages instead of mapping,
+ * reading and syncing the file again for every access.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jOpenFileCache {
+    private final Logger logger = LoggerFactory.getLogger(RRD4jOpenFileCache.class);
+
+    private final int maxOpenFiles;
+    private final Map<String, RrdDb> databases = new LinkedHashMap<>(16, 0.75f, true);
+
+    public RRD4jOpenFileCache(int maxOpenFiles) {
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    /**
+     * Marks the database as recently used.
+     *
+     * @return <code>true</code> if the database is kept open by this cache
+     */
+    public synchronized boolean touch(String name) {
+        return databases.get(name) != null;
+    }
+
+    /**
+     * Keeps the database open. The least recently used database is closed if the cache is full.
+     */
+    public void put(String name, RrdDb db) {
+        List<RrdDb> evicted = new ArrayList<>();
+        synchronized (this) {
+            RrdDb previous = databases.put(name, db);
+            if (previous != null && previous != db) {
+                evicted.add(previous);
+            }
+            Iterator<RrdDb> iterator = databases.values().iterator();
+            while (databases.size() > maxOpenFiles && iterator.hasNext()) {
+                evicted.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        // closing syncs the file, so do it outside of the lock
+        evicted.forEach(this::close);
+    }
+
+    /**
+     * Closes the database, e.g. before its file is deleted.
+     */
+    public void remove(String name) {
+        RrdDb db;
+        synchronized (this) {
+            db = databases.remove(name);
+        }
+        close(db);
+    }
+
+    public void clear() {
+        List<RrdDb> evicted;
+        synchronized (this) {
+            evicted = new ArrayList<>(databases.values());
+            databases.clear();
+        }
+        evicted.forEach(this::close);
+    }
+
+    public synchronized int size() {
+        return databases.size();
+    }
+
+    private void close(@Nullable RrdDb db) {
+        if (db != null) {
+            try {
+                db.close();
+            } catch (IOException e) {
+                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+            }
+        }
+    }
+}
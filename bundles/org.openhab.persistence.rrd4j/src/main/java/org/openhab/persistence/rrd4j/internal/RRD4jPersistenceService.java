@@ -21,14 +21,18 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
@@ -82,9 +86,11 @@ import org.rrd4j.ConsolFun;
 import org.rrd4j.DsType;
 import org.rrd4j.core.FetchData;
 import org.rrd4j.core.FetchRequest;
+import org.rrd4j.core.RrdBackendFactory;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDb.Builder;
 import org.rrd4j.core.RrdDbPool;
+import org.rrd4j.core.RrdNioBackendFactory;
 import org.rrd4j.core.RrdDef;
 import org.rrd4j.core.Sample;
 import org.slf4j.Logger;
@@ -114,8 +120,20 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private record StoredValue(long timestamp, double value) {
+    }
+
     public static final String SERVICE_ID = "rrd4j";
 
+    private static final String BACKEND_PARAM = "backend";
+    private static final String SYNC_PERIOD_PARAM = "syncperiod";
+    private static final String MAX_OPEN_FILES_PARAM = "maxopenfiles";
+    private static final Set<String> BACKEND_PARAMS = Set.of(BACKEND_PARAM, SYNC_PERIOD_PARAM, MAX_OPEN_FILES_PARAM);
+    private static final String BACKEND_MAPPED = "mapped";
+    private static final int DEFAULT_MAX_OPEN_FILES = 100;
+    // files that can be opened by stores, queries and charts in addition to the ones kept open
+    private static final int RESERVED_OPEN_FILES = 16;
+
     private static final String DEFAULT_OTHER = "default_other";
     private static final String DEFAULT_NUMERIC = "default_numeric";
     private static final String DEFAULT_QUANTIFIABLE = "default_quantifiable";
@@ -123,8 +141,16 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     private static final Set<String> SUPPORTED_TYPES = Set.of(CoreItemFactory.SWITCH, CoreItemFactory.CONTACT,
             CoreItemFactory.DIMMER, CoreItemFactory.NUMBER, CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.COLOR);
 
+    private static final int WRITE_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final int LOCK_STRIPES = 64;
+
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory("RRD4j"));
+    private final ExecutorService writeExecutor = Executors.newFixedThreadPool(WRITE_THREADS,
+            new NamedThreadFactory("RRD4j-writer"));
+
+    // databases are independent files, so they are only locked against concurrent access to the same file
+    private final Object[] databaseLocks = new Object[LOCK_STRIPES];
 
     private final Map<String, RrdDefConfig> rrdDefs = new ConcurrentHashMap<>();
 
@@ -134,7 +160,11 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private static final Path DB_FOLDER = Path.of(OpenHAB.getUserDataFolder(), "persistence", "rrd4j").toAbsolutePath();
 
-    private static final RrdDbPool DATABASE_POOL = new RrdDbPool();
+    private final RrdDbPool databasePool = new RrdDbPool();
+
+    private volatile RrdBackendFactory backendFactory = RrdBackendFactory.getDefaultFactory();
+
+    private volatile @Nullable RRD4jOpenFileCache openFileCache;
 
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
     private final ItemRegistry itemRegistry;
@@ -144,8 +174,12 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return DB_FOLDER.resolve(name + ".rrd");
     }
 
-    public static RrdDbPool getDatabasePool() {
-        return DATABASE_POOL;
+    public RrdDbPool getDatabasePool() {
+        return databasePool;
+    }
+
+    public RrdBackendFactory getBackendFactory() {
+        return backendFactory;
     }
 
     private final ScheduledFuture<?> storeJob;
@@ -153,6 +187,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     @Activate
     public RRD4jPersistenceService(final @Reference ItemRegistry itemRegistry, Map<String, Object> config) {
         this.itemRegistry = itemRegistry;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            databaseLocks[i] = new Object();
+        }
         storeJob = scheduler.scheduleWithFixedDelay(() -> doStore(false), 1, 1, TimeUnit.SECONDS);
         modified(config);
         active = true;
@@ -202,6 +239,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         defaultOther.addArchives("LAST,0.5,1,720:LAST,0.5,12,10080:LAST,0.5,180,35040:LAST,0.5,2880,21900");
         rrdDefs.put(DEFAULT_OTHER, defaultOther);
 
+        configureBackend(config);
+
         if (config.isEmpty()) {
             logger.debug("using default configuration only");
             return;
@@ -211,8 +250,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         while (keys.hasNext()) {
             String key = keys.next();
 
-            if ("service.pid".equals(key) || "component.name".equals(key)) {
-                // ignore service.pid and name
+            if ("service.pid".equals(key) || "component.name".equals(key)
+                    || BACKEND_PARAMS.contains(key.toLowerCase())) {
+                // ignore service.pid and name, backend parameters have already been processed
                 continue;
             }
 
@@ -266,6 +306,71 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private void configureBackend(Map<String, Object> config) {
+        Map<String, Object> backendConfig = new HashMap<>();
+        config.forEach((key, value) -> {
+            if (BACKEND_PARAMS.contains(key.toLowerCase())) {
+                backendConfig.put(key.toLowerCase(), value);
+            }
+        });
+        boolean mapped = BACKEND_MAPPED.equalsIgnoreCase(String.valueOf(backendConfig.get(BACKEND_PARAM)).trim());
+        int syncPeriod = parsePositiveInt(backendConfig.get(SYNC_PERIOD_PARAM),
+                RrdNioBackendFactory.DEFAULT_SYNC_PERIOD);
+        int maxOpenFiles = parsePositiveInt(backendConfig.get(MAX_OPEN_FILES_PARAM), DEFAULT_MAX_OPEN_FILES);
+
+        RRD4jOpenFileCache oldCache = openFileCache;
+        openFileCache = null;
+        if (oldCache != null) {
+            oldCache.clear();
+        }
+
+        RrdBackendFactory oldBackendFactory = backendFactory;
+        if (syncPeriod != RrdNioBackendFactory.DEFAULT_SYNC_PERIOD) {
+            // the factory gets its own sync executor, closing the factory shuts it down
+            backendFactory = new RrdNioBackendFactory(syncPeriod,
+                    Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("RRD4j-sync")));
+        } else {
+            backendFactory = RrdBackendFactory.getDefaultFactory();
+        }
+        closeBackendFactory(oldBackendFactory);
+        if (mapped) {
+            databasePool.setCapacity(maxOpenFiles + RESERVED_OPEN_FILES);
+            openFileCache = new RRD4jOpenFileCache(maxOpenFiles);
+            logger.debug("Keeping up to {} rrd4j databases memory-mapped, syncing them every {} s", maxOpenFiles,
+                    syncPeriod);
+        } else {
+            databasePool.setCapacity(RrdDbPool.INITIAL_CAPACITY);
+        }
+    }
+
+    /**
+     * Stops the sync tasks of a backend factory created by this service. The default factory is shared and kept.
+     */
+    private void closeBackendFactory(RrdBackendFactory factory) {
+        if (factory != RrdBackendFactory.getDefaultFactory()) {
+            try {
+                factory.close();
+            } catch (IOException e) {
+                logger.debug("Error closing rrd4j backend factory: {}", e.getMessage());
+            }
+        }
+    }
+
+    private int parsePositiveInt(@Nullable Object value, int defaultValue) {
+        if (value != null) {
+            try {
+                int intValue = Integer.parseInt(value.toString().trim());
+                if (intValue > 0) {
+                    return intValue;
+                }
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+            logger.warn("Ignoring illegal configuration value '{}', using {}", value, defaultValue);
+        }
+        return defaultValue;
+    }
+
     @Deactivate
     protected void deactivate() {
         active = false;
@@ -273,6 +378,13 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
         // make sure we really store everything
         doStore(true);
+        writeExecutor.shutdown();
+
+        RRD4jOpenFileCache openFileCache = this.openFileCache;
+        if (openFileCache != null) {
+            openFileCache.clear();
+        }
+        closeBackendFactory(backendFactory);
     }
 
     @Override
@@ -340,30 +452,68 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private void doStore(boolean force) {
         long now = System.currentTimeMillis() / 1000;
+        // collect all values per database, so each file is opened only once
+        Map<String, List<StoredValue>> pendingValues = new LinkedHashMap<>();
         while (!storageMap.isEmpty()) {
             Key key = storageMap.firstKey();
             if (now > key.timestamp || force) {
                 // no new elements can be added for this timestamp because we are already past that time or the service
                 // requires forced storing
                 Double value = storageMap.pollFirstEntry().getValue();
-                writePointToDatabase(key.name, value, key.timestamp);
+                pendingValues.computeIfAbsent(key.name, k -> new ArrayList<>())
+                        .add(new StoredValue(key.timestamp, value));
             } else {
-                return;
+                break;
             }
         }
-    }
+        if (pendingValues.isEmpty()) {
+            return;
+        }
 
-    private synchronized void writePointToDatabase(String name, double value, long timestamp) {
-        RrdDb db = null;
+        List<Callable<@Nullable Void>> writes = new ArrayList<>(pendingValues.size());
+        pendingValues.forEach((name, values) -> writes.add(() -> {
+            writePointsToDatabase(name, values);
+            return null;
+        }));
         try {
-            db = getDB(name, true);
-        } catch (Exception e) {
-            logger.warn("Failed to open rrd4j database '{}' to store data ({})", name, e.toString());
+            writeExecutor.invokeAll(writes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RejectedExecutionException e) {
+            // this happens if the system is shut down
+            logger.debug("Could not store values in rrd4j databases: {}", e.getMessage());
         }
-        if (db == null) {
-            return;
+    }
+
+    private Object getDatabaseLock(String name) {
+        return databaseLocks[Math.floorMod(name.hashCode(), LOCK_STRIPES)];
+    }
+
+    private void writePointsToDatabase(String name, List<StoredValue> values) {
+        synchronized (getDatabaseLock(name)) {
+            RrdDb db = null;
+            try {
+                db = getDB(name, true);
+            } catch (Exception e) {
+                logger.warn("Failed to open rrd4j database '{}' to store data ({})", name, e.toString());
+            }
+            if (db == null) {
+                return;
+            }
+
+            for (StoredValue value : values) {
+                writePointToDatabase(db, name, value.value(), value.timestamp());
+            }
+
+            try {
+                db.close();
+            } catch (IOException e) {
+                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+            }
         }
+    }
 
+    private void writePointToDatabase(RrdDb db, String name, double value, long timestamp) {
         ConsolFun function = getConsolidationFunction(db);
         if (function != ConsolFun.AVERAGE) {
             try {
@@ -400,11 +550,6 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         } catch (Exception e) {
             logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
         }
-        try {
-            db.close();
-        } catch (IOException e) {
-            logger.debug("Error closing rrd4j database: {}", e.getMessage());
-        }
     }
 
     @Override
@@ -541,12 +686,19 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
+    protected @Nullable RrdDb getDB(String alias, boolean createFileIfAbsent) {
+        synchronized (getDatabaseLock(alias)) {
+            return openDB(alias, createFileIfAbsent);
+        }
+    }
+
+    private @Nullable RrdDb openDB(String alias, boolean createFileIfAbsent) {
         RrdDb db = null;
         Path path = getDatabasePath(alias);
         try {
             Builder builder = RrdDb.getBuilder();
-            builder.setPool(DATABASE_POOL);
+            builder.setPool(databasePool);
+            builder.setBackendFactory(backendFactory);
 
             if (Files.exists(path)) {
                 // recreate the RrdDb instance from the file
@@ -567,6 +719,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                             alias);
                 }
             }
+            if (db != null) {
+                keepOpen(alias, path);
+            }
         } catch (IOException e) {
             logger.error("Could not create rrd4j database file '{}': {}", path, e.getMessage());
         } catch (RejectedExecutionException e) {
@@ -576,6 +731,25 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return db;
     }
 
+    private void keepOpen(String alias, Path path) throws IOException {
+        RRD4jOpenFileCache openFileCache = this.openFileCache;
+        if (openFileCache != null && !openFileCache.touch(alias)) {
+            // a second reference keeps the file open in the pool after the caller closed its database
+            openFileCache.put(alias, RrdDb.getBuilder().setPool(databasePool).setBackendFactory(backendFactory)
+                    .setPath(path.toString()).build());
+        }
+    }
+
+    /**
+     * Closes the database if it is kept open, e.g. before its file is deleted.
+     */
+    public void releaseDB(String alias) {
+        RRD4jOpenFileCache openFileCache = this.openFileCache;
+        if (openFileCache != null) {
+            openFileCache.remove(alias);
+        }
+    }
+
     private @Nullable RrdDefConfig getRrdDefConfig(String itemName) {
         RrdDefConfig useRdc = null;
         for (Map.Entry<String, RrdDefConfig> e : rrdDefs.entrySet()) {
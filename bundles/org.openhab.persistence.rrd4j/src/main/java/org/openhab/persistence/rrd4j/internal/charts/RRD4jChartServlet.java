@@ -38,6 +38,8 @@ import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.persistence.PersistenceService;
+import org.openhab.core.persistence.PersistenceServiceRegistry;
 import org.openhab.core.ui.chart.ChartProvider;
 import org.openhab.core.ui.items.ItemUIRegistry;
 import org.openhab.persistence.rrd4j.internal.RRD4jPersistenceService;
@@ -49,6 +51,7 @@ import org.osgi.service.http.HttpService;
 import org.osgi.service.http.NamespaceException;
 import org.rrd4j.ConsolFun;
 import org.rrd4j.core.RrdDb;
+import org.rrd4j.core.RrdBackendFactory;
 import org.rrd4j.core.RrdDb.Builder;
 import org.rrd4j.graph.RrdGraph;
 import org.rrd4j.graph.RrdGraphConstants.FontTag;
@@ -106,13 +109,16 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     private final HttpService httpService;
     private final ItemUIRegistry itemUIRegistry;
     private final TimeZoneProvider timeZoneProvider;
+    private final PersistenceServiceRegistry persistenceServiceRegistry;
 
     @Activate
     public RRD4jChartServlet(final @Reference HttpService httpService, final @Reference ItemUIRegistry itemUIRegistry,
-            final @Reference TimeZoneProvider timeZoneProvider) {
+            final @Reference TimeZoneProvider timeZoneProvider,
+            final @Reference PersistenceServiceRegistry persistenceServiceRegistry) {
         this.httpService = httpService;
         this.itemUIRegistry = itemUIRegistry;
         this.timeZoneProvider = timeZoneProvider;
+        this.persistenceServiceRegistry = persistenceServiceRegistry;
     }
 
     @Activate
@@ -178,8 +184,10 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
      * @param graphDef the graph definition to fill
      * @param item the item to add a line for
      * @param counter defines the number of the datasource and is used to determine the line color
+     * @param persistenceService the persistence service whose database pool and backend are used, if it is running
      */
-    protected void addLine(RrdGraphDef graphDef, Item item, int counter) {
+    protected void addLine(RrdGraphDef graphDef, Item item, int counter,
+            @Nullable RRD4jPersistenceService persistenceService) {
         Color color = LINECOLORS[counter % LINECOLORS.length];
         String label = itemUIRegistry.getLabel(item.getName());
         String rrdName = RRD4jPersistenceService.getDatabasePath(item.getName()).toString();
@@ -187,9 +195,14 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         if (label != null && label.contains("[") && label.contains("]")) {
             label = label.substring(0, label.indexOf('['));
         }
+        RrdBackendFactory backendFactory = persistenceService != null ? persistenceService.getBackendFactory()
+                : RrdBackendFactory.getDefaultFactory();
         try {
             Builder builder = RrdDb.getBuilder();
-            builder.setPool(RRD4jPersistenceService.getDatabasePool());
+            if (persistenceService != null) {
+                builder.setPool(persistenceService.getDatabasePool());
+            }
+            builder.setBackendFactory(backendFactory);
             builder.setPath(rrdName);
 
             RrdDb db = builder.build();
@@ -200,11 +213,11 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         }
         if (item instanceof NumberItem) {
             // we only draw a line
-            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun); // RRD4jService.getConsolidationFunction(item));
+            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun, backendFactory); // RRD4jService.getConsolidationFunction(item));
             graphDef.line(Integer.toString(counter), color, label, 2);
         } else {
             // we draw a line and fill the area beneath it with a transparent color
-            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun); // RRD4jService.getConsolidationFunction(item));
+            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun, backendFactory); // RRD4jService.getConsolidationFunction(item));
             Color areaColor = AREACOLORS[counter % LINECOLORS.length];
 
             graphDef.area(Integer.toString(counter), areaColor);
@@ -243,6 +256,12 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
             ZonedDateTime endTime, int height, int width, @Nullable String items, @Nullable String groups,
             @Nullable Integer dpi, @Nullable Boolean legend) throws ItemNotFoundException {
         RrdGraphDef graphDef = new RrdGraphDef(startTime.toEpochSecond(), endTime.toEpochSecond());
+        RRD4jPersistenceService persistenceService = getPersistenceService();
+        if (persistenceService != null) {
+            // read through the pool of the persistence service, which may keep the files open
+            graphDef.setPool(persistenceService.getDatabasePool());
+            graphDef.setPoolUsed(true);
+        }
         graphDef.setWidth(width);
         graphDef.setHeight(height);
         graphDef.setAntiAliasing(true);
@@ -258,7 +277,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
             String[] itemNames = items.split(",");
             for (String itemName : itemNames) {
                 Item item = itemUIRegistry.getItem(itemName);
-                addLine(graphDef, item, seriesCounter++);
+                addLine(graphDef, item, seriesCounter++, persistenceService);
             }
         }
 
@@ -269,7 +288,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
                 Item item = itemUIRegistry.getItem(groupName);
                 if (item instanceof GroupItem groupItem) {
                     for (Item member : groupItem.getMembers()) {
-                        addLine(graphDef, member, seriesCounter++);
+                        addLine(graphDef, member, seriesCounter++, persistenceService);
                     }
                 } else {
                     throw new ItemNotFoundException("Item '" + item.getName() + "' defined in groups is not a group.");
@@ -293,4 +312,13 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     public ImageType getChartType() {
         return ImageType.png;
     }
+
+    private @Nullable RRD4jPersistenceService getPersistenceService() {
+        for (PersistenceService persistenceService : persistenceServiceRegistry.getAll()) {
+            if (persistenceService instanceof RRD4jPersistenceService service) {
+                return service;
+            }
+        }
+        return null;
+    }
 }
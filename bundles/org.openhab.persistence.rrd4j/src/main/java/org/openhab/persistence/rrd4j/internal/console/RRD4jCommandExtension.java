@@ -125,7 +125,7 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
                 if (checkOnly) {
                     console.println("  - " + filename + ": no item found");
                     nb++;
-                } else if (path.toFile().delete()) {
+                } else if (releaseAndDelete(persistenceService, name, path)) {
                     console.println("  - " + filename + ": file deleted");
                     nb++;
                 } else {
@@ -136,6 +136,11 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
         console.println(nb + " files " + (checkOnly ? "to delete." : "deleted."));
     }
 
+    private boolean releaseAndDelete(RRD4jPersistenceService persistenceService, String name, Path path) {
+        persistenceService.releaseDB(name);
+        return path.toFile().delete();
+    }
+
     @Override
     public List<String> getUsages() {
         return List.of(buildCommandUsage(CMD_LIST, "list Round Robin Database files"),
@@ -137,6 +137,43 @@ public class Bin2Json {
         }
     }
 
+    /**
+     * Append the JSON object of the byte array to a {@link StringBuilder}.
+     *
+     * The JSON is written directly without creating a Gson {@link JsonObject}, the result is the same as the string of
+     * {@link #convert(byte[])}.
+     *
+     * @param data Data in byte array format.
+     * @param out the builder to append the JSON to
+     * @throws ConversionException
+     */
+    public void appendJson(byte[] data, StringBuilder out) throws ConversionException {
+        try {
+            Bin2JsonWriter.write(parser.parse(data), out);
+        } catch (IOException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage()), e);
+        } catch (JBBPException e) {
+            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Append the JSON object of the data in hexadecimal string format to a {@link StringBuilder}.
+     *
+     * @param hexString Data in hexadecimal string format. Example data: 03FAFF
+     * @param out the builder to append the JSON to
+     * @throws ConversionException
+     */
+    public void appendJson(String hexString, StringBuilder out) throws ConversionException {
+        byte[] data;
+        try {
+            data = HexUtils.hexToBytes(hexString);
+        } catch (IllegalArgumentException e) {
+            throw new ConversionException(String.format("Illegal hexstring , reason: %s", e.getMessage()), e);
+        }
+        appendJson(data, out);
+    }
+
     private JsonObject convert(JBBPFieldStruct data) throws ConversionException {
         try {
             LocalDateTime start = LocalDateTime.now();
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A bounded cache of converters with compiled parsers by their parser rule, the least recently used converter is
+ * dropped. A compiled parser keeps no state of a parsed data, so a converter can be used by several threads.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class Bin2JsonParserCache {
+    static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private final Map<String, Bin2Json> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public Bin2JsonParserCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public Bin2JsonParserCache(int maxEntries) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, Bin2Json> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the converter for the parser rule, the rule is compiled if it is not cached.
+     *
+     * @throws ConversionException if the parser rule is illegal
+     */
+    public Bin2Json get(String parserRule) throws ConversionException {
+        synchronized (entries) {
+            Bin2Json converter = entries.get(parserRule);
+            if (converter != null) {
+                hits.incrementAndGet();
+                return converter;
+            }
+        }
+        misses.incrementAndGet();
+        // compile outside of the lock, in the rare case of a concurrent miss the rule is compiled twice
+        Bin2Json converter = new Bin2Json(parserRule);
+        synchronized (entries) {
+            entries.put(parserRule, converter);
+        }
+        return converter;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -24,14 +24,22 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * hexa string formatted binary data by Binary Block Parser syntax to JSON format.
  *
+ * The compiled parsers are cached by their syntax and the JSON is written into a reused {@link StringBuilder}.
+ *
  * @author Pauli Anttila - Initial contribution
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=BIN2JSON" })
 public class Bin2JsonTransformationService implements TransformationService {
 
+    // builders larger than this are not kept for the next transformation
+    private static final int MAX_BUILDER_CAPACITY = 16 * 1024;
+
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    private final Bin2JsonParserCache cache = new Bin2JsonParserCache();
+    private final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
@@ -45,8 +53,10 @@ public class Bin2JsonTransformationService implements TransformationService {
 
         String result = "";
 
+        StringBuilder builder = getBuilder();
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            cache.get(syntax).appendJson(source, builder);
+            result = builder.toString();
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -56,4 +66,35 @@ public class Bin2JsonTransformationService implements TransformationService {
                     result);
         }
     }
+
+    /**
+     * Transforms the binary <code>source</code> by Java Binary Block Parser syntax, without converting the data to a
+     * hexadecimal string first.
+     *
+     * @param syntax Java Binary Block Parser syntax.
+     * @param source the binary data to transform
+     */
+    public String transform(String syntax, byte[] source) throws TransformationException {
+        StringBuilder builder = getBuilder();
+        try {
+            cache.get(syntax).appendJson(source, builder);
+            return builder.toString();
+        } catch (ConversionException e) {
+            throw new TransformationException("An error occurred while executing the converter. " + e.getMessage(), e);
+        }
+    }
+
+    Bin2JsonParserCache getCache() {
+        return cache;
+    }
+
+    private StringBuilder getBuilder() {
+        StringBuilder builder = builders.get();
+        if (builder.capacity() > MAX_BUILDER_CAPACITY) {
+            builder = new StringBuilder(256);
+            builders.set(builder);
+        }
+        builder.setLength(0);
+        return builder;
+    }
 }
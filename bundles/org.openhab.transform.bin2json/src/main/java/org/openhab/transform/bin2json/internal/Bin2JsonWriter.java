@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.igormaznitsa.jbbp.model.JBBPAbstractArrayField;
+import com.igormaznitsa.jbbp.model.JBBPAbstractField;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayBit;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayBoolean;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayByte;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayInt;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayLong;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayShort;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayStruct;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayUByte;
+import com.igormaznitsa.jbbp.model.JBBPFieldArrayUShort;
+import com.igormaznitsa.jbbp.model.JBBPFieldBit;
+import com.igormaznitsa.jbbp.model.JBBPFieldBoolean;
+import com.igormaznitsa.jbbp.model.JBBPFieldByte;
+import com.igormaznitsa.jbbp.model.JBBPFieldInt;
+import com.igormaznitsa.jbbp.model.JBBPFieldLong;
+import com.igormaznitsa.jbbp.model.JBBPFieldShort;
+import com.igormaznitsa.jbbp.model.JBBPFieldStruct;
+import com.igormaznitsa.jbbp.model.JBBPFieldUByte;
+import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
+
+/**
+ * Writes parsed binary data as JSON text directly into a {@link StringBuilder}, without building a Gson tree first.
+ *
+ * The output is the same as the string of the {@link com.google.gson.JsonObject} created by {@link Bin2Json}: if
+ * several fields of a structure have the same name, the name is written at the position of the first field with the
+ * value of the last one.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+final class Bin2JsonWriter {
+    private static final String NO_NAME = "nonamed";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private Bin2JsonWriter() {
+    }
+
+    /**
+     * Appends the JSON object of the parsed root structure.
+     */
+    static void write(JBBPFieldStruct root, StringBuilder out) throws ConversionException {
+        writeObject(root.getArray(), out);
+    }
+
+    private static void writeObject(JBBPAbstractField[] fields, StringBuilder out) throws ConversionException {
+        out.append('{');
+        boolean first = true;
+        for (int i = 0; i < fields.length; i++) {
+            String name = getName(fields[i]);
+            if (isDuplicate(fields, i, name)) {
+                continue;
+            }
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            writeString(name, out);
+            out.append(':');
+            writeValue(fields[lastIndexOf(fields, i, name)], out);
+        }
+        out.append('}');
+    }
+
+    private static void writeValue(JBBPAbstractField field, StringBuilder out) throws ConversionException {
+        if (field instanceof JBBPAbstractArrayField) {
+            writeArray(field, out);
+        } else if (field instanceof JBBPFieldBit bit) {
+            out.append(bit.getAsInt());
+        } else if (field instanceof JBBPFieldBoolean boolean1) {
+            out.append(boolean1.getAsBool());
+        } else if (field instanceof JBBPFieldByte byte1) {
+            out.append(byte1.getAsInt());
+        } else if (field instanceof JBBPFieldInt int1) {
+            out.append(int1.getAsInt());
+        } else if (field instanceof JBBPFieldLong long1) {
+            out.append(long1.getAsLong());
+        } else if (field instanceof JBBPFieldShort short1) {
+            out.append(short1.getAsInt());
+        } else if (field instanceof JBBPFieldStruct struct) {
+            writeObject(struct.getArray(), out);
+        } else if (field instanceof JBBPFieldUByte byte1) {
+            out.append(byte1.getAsInt());
+        } else if (field instanceof JBBPFieldUShort short1) {
+            out.append(short1.getAsInt());
+        } else {
+            throw new ConversionException(String.format("Unexpected field '%s'", field));
+        }
+    }
+
+    private static void writeArray(JBBPAbstractField field, StringBuilder out) throws ConversionException {
+        out.append('[');
+        if (field instanceof JBBPFieldArrayBit bit) {
+            byte[] array = bit.getArray();
+            for (int i = 0; i < array.length; i++) {
+                separate(i, out).append(array[i]);
+            }
+        } else if (field instanceof JBBPFieldArrayBoolean boolean1) {
+            boolean[] array = boolean1.getArray();
+            for (int i = 0; i < array.length; i++) {
+                separate(i, out).append(array[i]);
+            }
+        } else if (field instanceof JBBPFieldArrayByte byte1) {
+            byte[] array = byte1.getArray();
+            for (int i = 0; i < array.length; i++) {
+                separate(i, out).append(array[i]);
+            }
+        } else if (field instanceof JBBPFieldArrayInt int1) {
+            int[] array = int1.getArray();
+            for (int i = 0; i < array.length; i++) {
+                separate(i, out).append(array[i]);
+            }
+        } else if (field instanceof JBBPFieldArrayLong long1) {
+            long[] array = long1.getArray();
+            for (int i = 0; i < array.length; i++) {
+                separate(i, out).append(array[i]);
+            }
+        } else if (field instanceof JBBPFieldArrayShort short1) {
+            short[] array = short1.getArray();
+            for (int i = 0; i < array.length; i++) {
+                separate(i, out).append(array[i]);
+            }
+        } else if (field instanceof JBBPFieldArrayStruct array) {
+            for (int i = 0; i < array.size(); i++) {
+                // like Bin2Json, every element is an object holding the structure by its name
+                JBBPFieldStruct element = array.getElementAt(i);
+                separate(i, out).append('{');
+                writeString(getName(element), out);
+                out.append(':');
+                writeObject(element.getArray(), out);
+                out.append('}');
+            }
+        } else if (field instanceof JBBPFieldArrayUByte byte1) {
+            byte[] array = byte1.getArray();
+            for (int i = 0; i < array.length; i++) {
+                separate(i, out).append(array[i] & 0xFF);
+            }
+        } else if (field instanceof JBBPFieldArrayUShort short1) {
+            short[] array = short1.getArray();
+            for (int i = 0; i < array.length; i++) {
+                separate(i, out).append(array[i] & 0xFFFF);
+            }
+        } else {
+            throw new ConversionException(String.format("Unexpected field type '%s'", field));
+        }
+        out.append(']');
+    }
+
+    private static StringBuilder separate(int index, StringBuilder out) {
+        return index > 0 ? out.append(',') : out;
+    }
+
+    private static String getName(JBBPAbstractField field) {
+        @Nullable
+        String name = field.getFieldName();
+        return name == null ? NO_NAME : name;
+    }
+
+    private static boolean isDuplicate(JBBPAbstractField[] fields, int index, String name) {
+        for (int i = 0; i < index; i++) {
+            if (name.equals(getName(fields[i]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int lastIndexOf(JBBPAbstractField[] fields, int index, String name) {
+        for (int i = fields.length - 1; i > index; i--) {
+            if (name.equals(getName(fields[i]))) {
+                return i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Appends the quoted string escaped like Gson does.
+     */
+    private static void writeString(String value, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"', '\\' -> out.append('\\').append(c);
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\f' -> out.append("\\f");
+                case '\u2028', '\u2029' -> out.append("\\u").append(Integer.toHexString(c));
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class Bin2JsonTransformationServiceTest {
+
+    private final Bin2JsonTransformationService service = new Bin2JsonTransformationService();
+
+    public static Stream<Arguments> rules() {
+        return Stream.of(Arguments.of("byte a; byte b; ubyte c;", "03FAFF"),
+                Arguments.of("bit:4 low; bit:4 high; bool flag; short s; ushort u; int i; long l;",
+                        "A50180018001800000018000000000000001"),
+                Arguments.of("byte; byte; ubyte named;", "010203"),
+                Arguments.of("ubyte len; byte [len] data; bit:2 [4] bits; bool [2] flags;", "0301FF7FE40100"),
+                Arguments.of("short [2] s; ushort [2] u; int [1] i; long [1] l;",
+                        "8001FFFF8001FFFF800000000000000000000001"),
+                Arguments.of("header { ubyte id; ubyte [2] values; } ubyte count; item [count] { byte x; byte y; }",
+                        "0102030201020304"),
+                Arguments.of("outer { inner { byte a; } byte b; } byte a;", "010203"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("rules")
+    public void resultEqualsGsonConversion(String rule, String hex) throws Exception {
+        String expected = new Bin2Json(rule).convert(hex).toString();
+
+        assertEquals(expected, service.transform(rule, hex));
+    }
+
+    @Test
+    public void transformBytes() throws TransformationException {
+        assertEquals("{\"a\":3,\"b\":-6,\"c\":255}",
+                service.transform("byte a; byte b; ubyte c;", new byte[] { 3, (byte) 0xFA, (byte) 0xFF }));
+    }
+
+    @Test
+    public void parsersAreCached() throws TransformationException {
+        service.transform("byte a;", "01");
+        service.transform("byte a;", "02");
+        service.transform("ubyte a;", "03");
+
+        assertEquals(2, service.getCache().getMisses());
+        assertEquals(1, service.getCache().getHits());
+    }
+
+    @Test
+    public void illegalInput() {
+        assertThrows(TransformationException.class, () -> service.transform("byte a; ]", "01"));
+        assertThrows(TransformationException.class, () -> service.transform("byte a;", "0"));
+        assertThrows(TransformationException.class, () -> service.transform("int a;", "01"));
+        assertThrows(TransformationException.class, () -> service.transform("floatj a;", "01020304"));
+    }
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.transform.TransformationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ExecCoProcessPool} keeps instances of a command running as co-processes and transforms values by them.
+ *
+ * A co-process reads one input per line from its standard input and writes one result line to its standard output for
+ * every input line. Each co-process transforms only one value at a time, so the next line read is the result of the
+ * value written. If a co-process doesn't answer in time, or ends, it is stopped and a new instance is started for the
+ * next value. Standard error output is discarded.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class ExecCoProcessPool {
+    private final Logger logger = LoggerFactory.getLogger(ExecCoProcessPool.class);
+
+    private final List<String> command;
+    private final Duration timeout;
+    private final Semaphore permits;
+    // the most recently used co-process is taken first, so co-processes not needed anymore become idle
+    private final Deque<CoProcess> idleProcesses = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    /**
+     * @param command the command and its arguments
+     * @param size the maximum number of co-processes running at the same time
+     * @param timeout the maximum time to wait for a co-process and for its result
+     */
+    public ExecCoProcessPool(List<String> command, int size, Duration timeout) {
+        this.command = List.copyOf(command);
+        this.timeout = timeout;
+        this.permits = new Semaphore(Math.max(1, size), true);
+    }
+
+    /**
+     * Transforms the input by a co-process.
+     *
+     * @param input the value to transform, must not contain line breaks
+     * @return the line written by the co-process
+     * @throws TransformationException if the value can't be transformed
+     */
+    public String execute(String input) throws TransformationException {
+        if (input.indexOf('\n') >= 0 || input.indexOf('\r') >= 0) {
+            throw new TransformationException("The input of a co-process must not contain line breaks");
+        }
+
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new TransformationException(
+                        String.format("No co-process of '%s' became available within %s", command, timeout));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for a co-process", e);
+        }
+
+        try {
+            CoProcess process = idleProcesses.pollFirst();
+            // a co-process may have ended since its last use, then it is restarted once
+            boolean restart = process != null;
+            if (process == null) {
+                process = start();
+            }
+            while (true) {
+                try {
+                    String result = process.exchange(input, timeout);
+                    release(process);
+                    return result;
+                } catch (EOFException e) {
+                    process.destroy();
+                    if (!restart) {
+                        throw new TransformationException(String.format("Co-process '%s' ended", command), e);
+                    }
+                    logger.debug("Co-process '{}' ended, restarting it", command);
+                    restart = false;
+                    process = start();
+                } catch (IOException e) {
+                    process.destroy();
+                    throw new TransformationException(
+                            String.format("Co-process '%s' failed: %s", command, e.getMessage()), e);
+                } catch (InterruptedException e) {
+                    process.destroy();
+                    Thread.currentThread().interrupt();
+                    throw new TransformationException("Interrupted while waiting for a co-process", e);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Stops the co-processes which have not been used since the given time.
+     *
+     * @param idleSince the time in milliseconds, see {@link System#currentTimeMillis()}
+     */
+    public void stopIdle(long idleSince) {
+        for (CoProcess process : idleProcesses) {
+            // only the one removing the co-process from the queue may stop it
+            if (process.idleSince < idleSince && idleProcesses.remove(process)) {
+                logger.debug("Stopping idle co-process '{}'", command);
+                process.destroy();
+            }
+        }
+    }
+
+    /**
+     * Stops all co-processes. Co-processes in use are stopped as soon as they are released.
+     */
+    public void close() {
+        closed = true;
+        CoProcess process;
+        while ((process = idleProcesses.pollFirst()) != null) {
+            process.destroy();
+        }
+    }
+
+    private CoProcess start() throws TransformationException {
+        try {
+            logger.debug("Starting co-process '{}'", command);
+            return new CoProcess(command);
+        } catch (IOException e) {
+            throw new TransformationException(
+                    String.format("Co-process '%s' could not be started: %s", command, e.getMessage()), e);
+        }
+    }
+
+    private void release(CoProcess process) {
+        process.idleSince = System.currentTimeMillis();
+        idleProcesses.offerFirst(process);
+        if (closed && idleProcesses.remove(process)) {
+            process.destroy();
+        }
+    }
+
+    private static class CoProcess {
+        private final Process process;
+        private final Writer writer;
+        // the lines written by the co-process, an empty value marks the end of its output
+        private final BlockingQueue<Optional<String>> lines = new LinkedBlockingQueue<>();
+        private volatile long idleSince;
+
+        private CoProcess(List<String> command) throws IOException {
+            process = new ProcessBuilder(command).redirectError(Redirect.DISCARD).start();
+            writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            Thread reader = new Thread(this::readLines, "OH-exec-coprocess-" + process.pid());
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private void readLines() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(Optional.of(line));
+                }
+            } catch (IOException e) {
+                // the co-process has been stopped
+            }
+            lines.add(Optional.empty());
+        }
+
+        private String exchange(String input, Duration timeout) throws IOException, InterruptedException {
+            // lines written without being asked for would be taken as results of the following inputs
+            Optional<String> unexpected;
+            while ((unexpected = lines.poll()) != null) {
+                if (unexpected.isEmpty()) {
+                    throw new EOFException();
+                }
+            }
+            try {
+                writer.write(input);
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                if (!process.isAlive()) {
+                    throw new EOFException();
+                }
+                throw e;
+            }
+            @Nullable
+            Optional<String> result = lines.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (result == null) {
+                throw new IOException("no result within " + timeout);
+            }
+            return result.orElseThrow(EOFException::new);
+        }
+
+        private void destroy() {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // the co-process is stopped anyway
+            }
+            process.destroy();
+        }
+    }
+}
@@ -13,15 +13,25 @@
 package org.openhab.transform.exec.internal;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.io.net.exec.ExecUtil;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,20 +40,61 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * input by command line.
  *
+ * Command lines starting with <code>coprocess:</code> are not executed for every value. The command is kept running
+ * in an {@link ExecCoProcessPool} and the values are passed line by line.
+ *
  * @author Pauli Anttila - Initial contribution
  * @author Jan N. Klug - added command whitelist service
  */
 @NonNullByDefault
-@Component(property = { "openhab.transform=EXEC" })
+@Component(configurationPid = "org.openhab.exec", property = { "openhab.transform=EXEC" })
 public class ExecTransformationService implements TransformationService {
     private static final Pattern SPLIT_ON_SPACE = Pattern.compile("(['])((?:\\\\\\1|.)+?)\\1|([^\\s']+)");
+    private static final String COPROCESS_PREFIX = "coprocess:";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private static final String COPROCESS_POOL_SIZE_PARAM = "coprocessPoolSize";
+    private static final String COPROCESS_IDLE_TIMEOUT_PARAM = "coprocessIdleTimeout";
+    private static final int DEFAULT_COPROCESS_POOL_SIZE = 1;
+    private static final int DEFAULT_COPROCESS_IDLE_TIMEOUT = 300;
+
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
     private final ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService;
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    private final Map<String, ExecCoProcessPool> coProcessPools = new ConcurrentHashMap<>();
+
+    private int coProcessPoolSize = DEFAULT_COPROCESS_POOL_SIZE;
+    private long coProcessIdleTimeout = TimeUnit.SECONDS.toMillis(DEFAULT_COPROCESS_IDLE_TIMEOUT);
+    private @Nullable ScheduledFuture<?> idleJob;
 
     @Activate
     public ExecTransformationService(
-            @Reference ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService) {
+            @Reference ExecTransformationWhitelistWatchService execTransformationWhitelistWatchService,
+            @Nullable Map<String, Object> config) {
         this.execTransformationWhitelistWatchService = execTransformationWhitelistWatchService;
+        modified(config);
+    }
+
+    @Modified
+    public synchronized void modified(@Nullable Map<String, Object> config) {
+        int poolSize = DEFAULT_COPROCESS_POOL_SIZE;
+        int idleTimeout = DEFAULT_COPROCESS_IDLE_TIMEOUT;
+        if (config != null) {
+            poolSize = ConfigParser.valueAsOrElse(config.get(COPROCESS_POOL_SIZE_PARAM), Integer.class, poolSize);
+            idleTimeout = ConfigParser.valueAsOrElse(config.get(COPROCESS_IDLE_TIMEOUT_PARAM), Integer.class,
+                    idleTimeout);
+        }
+        coProcessPoolSize = Math.max(1, poolSize);
+        coProcessIdleTimeout = TimeUnit.SECONDS.toMillis(Math.max(1, idleTimeout));
+
+        // the running co-processes are replaced by new ones using the new configuration
+        closeCoProcessPools();
+    }
+
+    @Deactivate
+    public synchronized void deactivate() {
+        closeCoProcessPools();
     }
 
     /**
@@ -59,6 +110,10 @@ public class ExecTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'commandLine' and 'source' must not be null");
         }
 
+        if (commandLine.startsWith(COPROCESS_PREFIX)) {
+            return transformByCoProcess(commandLine.substring(COPROCESS_PREFIX.length()).trim(), source);
+        }
+
         if (!execTransformationWhitelistWatchService.isWhitelisted(commandLine)) {
             logger.warn("Tried to execute '{}', but it is not contained in whitelist.", commandLine);
             return null;
@@ -70,9 +125,67 @@ public class ExecTransformationService implements TransformationService {
         String formattedCommandLine = String.format(commandLine, source);
         String[] cmdLineParts = SPLIT_ON_SPACE.matcher(formattedCommandLine).results()
                 .map(mr -> mr.group(2) == null ? mr.group() : mr.group(2)).toArray(String[]::new);
-        String result = ExecUtil.executeCommandLineAndWaitResponse(Duration.ofSeconds(5), cmdLineParts);
+        String result = ExecUtil.executeCommandLineAndWaitResponse(TIMEOUT, cmdLineParts);
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
 
         return result;
     }
+
+    private @Nullable String transformByCoProcess(String command, String source) throws TransformationException {
+        if (!execTransformationWhitelistWatchService.isWhitelisted(command)) {
+            logger.warn("Tried to execute '{}', but it is not contained in whitelist.", command);
+            return null;
+        }
+        logger.debug("about to transform '{}' by the co-process '{}'", source, command);
+
+        long startTime = System.currentTimeMillis();
+
+        ExecCoProcessPool pool = coProcessPools.get(command);
+        if (pool == null) {
+            pool = createCoProcessPool(command);
+        }
+        String result = pool.execute(source);
+        logger.trace("co-process execution elapsed {} ms", System.currentTimeMillis() - startTime);
+
+        return result;
+    }
+
+    private synchronized ExecCoProcessPool createCoProcessPool(String command) {
+        return coProcessPools.computeIfAbsent(command, c -> {
+            String[] cmdLineParts = SPLIT_ON_SPACE.matcher(c).results()
+                    .map(mr -> mr.group(2) == null ? mr.group() : mr.group(2)).toArray(String[]::new);
+            if (idleJob == null) {
+                long interval = Math.max(1000, coProcessIdleTimeout / 2);
+                idleJob = scheduler.scheduleWithFixedDelay(this::stopIdleCoProcesses, interval, interval,
+                        TimeUnit.MILLISECONDS);
+            }
+            return new ExecCoProcessPool(Arrays.asList(cmdLineParts), coProcessPoolSize, TIMEOUT);
+        });
+    }
+
+    /**
+     * Stops the co-processes which have been idle for too long, and all co-processes of commands which have been
+     * removed from the whitelist.
+     */
+    private void stopIdleCoProcesses() {
+        long idleSince = System.currentTimeMillis() - coProcessIdleTimeout;
+        coProcessPools.forEach((command, pool) -> {
+            if (execTransformationWhitelistWatchService.isWhitelisted(command)) {
+                pool.stopIdle(idleSince);
+            } else if (coProcessPools.remove(command, pool)) {
+                logger.debug("Stopping co-processes of '{}', it has been removed from the whitelist", command);
+                pool.close();
+            }
+        });
+    }
+
+    private void closeCoProcessPools() {
+        ScheduledFuture<?> job = idleJob;
+        if (job != null) {
+            job.cancel(false);
+            idleJob = null;
+        }
+        coProcessPools.values().forEach(ExecCoProcessPool::close);
+        coProcessPools.clear();
+    }
 }
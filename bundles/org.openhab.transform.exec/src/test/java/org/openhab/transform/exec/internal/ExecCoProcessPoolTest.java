@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.exec.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.openhab.core.transform.TransformationException;
+
+/**
+ * Tests the {@link ExecCoProcessPool} with shell scripts as co-processes.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+@DisabledOnOs(OS.WINDOWS)
+public class ExecCoProcessPoolTest {
+
+    private static final String ECHO = "while read line; do "
+            + "if [ \"$line\" = slow ]; then sleep 10; fi; "
+            + "if [ \"$line\" = exit ]; then exit 1; fi; "
+            + "echo \"result $line\"; done";
+
+    private ExecCoProcessPool pool = createPool(ECHO, 1);
+
+    private static ExecCoProcessPool createPool(String script, int size) {
+        return new ExecCoProcessPool(List.of("sh", "-c", script), size, Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    public void close() {
+        pool.close();
+    }
+
+    @Test
+    public void resultsBelongToInputs() throws TransformationException {
+        for (int i = 0; i < 100; i++) {
+            assertEquals("result " + i, pool.execute(String.valueOf(i)));
+        }
+    }
+
+    @Test
+    public void concurrentUse() throws Exception {
+        pool = createPool(ECHO, 3);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String input = String.valueOf(i);
+                results.add(executor.submit(() -> pool.execute(input)));
+            }
+            for (int i = 0; i < 40; i++) {
+                assertEquals("result " + i, results.get(i).get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void restartAfterEnd() throws TransformationException {
+        assertEquals("result a", pool.execute("a"));
+        // the co-process ends without a result
+        assertThrows(TransformationException.class, () -> pool.execute("exit"));
+        assertEquals("result b", pool.execute("b"));
+    }
+
+    @Test
+    public void restartWhenEndedWhileIdle() throws TransformationException {
+        pool = createPool("read line; echo \"once $line\"", 1);
+        assertEquals("once a", pool.execute("a"));
+        assertEquals("once b", pool.execute("b"));
+    }
+
+    @Test
+    public void restartAfterTimeout() throws TransformationException {
+        assertThrows(TransformationException.class, () -> pool.execute("slow"));
+        assertEquals("result c", pool.execute("c"));
+    }
+
+    @Test
+    public void stopIdle() throws TransformationException {
+        assertEquals("result a", pool.execute("a"));
+        pool.stopIdle(System.currentTimeMillis() + 1);
+        assertEquals("result b", pool.execute("b"));
+    }
+
+    @Test
+    public void lineBreaksAreRejected() {
+        assertThrows(TransformationException.class, () -> pool.execute("a\nb"));
+    }
+
+    @Test
+    public void missingCommand() {
+        pool = new ExecCoProcessPool(List.of("/nonexistent/command"), 1, Duration.ofSeconds(2));
+        assertThrows(TransformationException.class, () -> pool.execute("a"));
+    }
+}
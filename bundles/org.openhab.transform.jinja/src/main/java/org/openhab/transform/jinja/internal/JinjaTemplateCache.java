@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.hubspot.jinjava.tree.Node;
+
+/**
+ * A bounded cache of parsed templates, the least recently used template is dropped.
+ *
+ * The parsed trees don't depend on the interpreter which parsed them, so they can be rendered by any interpreter, also
+ * concurrently.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class JinjaTemplateCache {
+    static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /**
+     * A parsed template.
+     *
+     * @param root the root of the parsed tree
+     * @param usesValueJson if the template refers to <code>value_json</code>, otherwise the value isn't parsed as JSON
+     */
+    public record ParsedTemplate(Node root, boolean usesValueJson) {
+    }
+
+    private final Map<String, ParsedTemplate> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public JinjaTemplateCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public JinjaTemplateCache(int maxEntries) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, ParsedTemplate> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed template.
+     *
+     * @return the template or <code>null</code> if it is not cached
+     */
+    public @Nullable ParsedTemplate get(String template) {
+        ParsedTemplate parsed;
+        synchronized (entries) {
+            parsed = entries.get(template);
+        }
+        if (parsed != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return parsed;
+    }
+
+    public void put(String template, ParsedTemplate parsed) {
+        synchronized (entries) {
+            entries.put(template, parsed);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -13,30 +13,35 @@
 package org.openhab.transform.jinja.internal;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.openhab.transform.jinja.internal.JinjaTemplateCache.ParsedTemplate;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by Jinja2 Expressions.
  *
+ * Templates are parsed once and kept in a {@link JinjaTemplateCache}. The value is only parsed as JSON if the template
+ * refers to <code>value_json</code>, which is a {@link JsonNodeView} converting only the parts the template accesses.
+ *
  * @author Jochen Klein - Initial contribution
  *
  */
@@ -44,9 +49,15 @@ import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
 @Component(property = { "openhab.transform=JINJA" })
 public class JinjaTransformationService implements TransformationService {
 
+    private static final String VALUE_JSON = "value_json";
+
+    // an ObjectMapper is thread-safe once configured
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
     private final Jinjava jinjava = new Jinjava();
+    private final JinjaTemplateCache cache = new JinjaTemplateCache();
 
     /**
      * Transforms the input <code>value</code> by Jinja template.
@@ -62,53 +73,74 @@ public class JinjaTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", value, template);
 
+        ParsedTemplate parsed = getParsedTemplate(template);
+
         bindings.put("value", value);
 
-        try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
+        if (parsed.usesValueJson()) {
+            try {
+                bindings.put(VALUE_JSON, JsonNodeView.toObject(OBJECT_MAPPER.readTree(value)));
+            } catch (IOException e) {
+                // ok, then value_json is null...
+            }
         }
 
-        try {
-            transformationResult = jinjava.render(template, bindings);
-        } catch (FatalTemplateErrorsException e) {
-            throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
-        }
+        transformationResult = render(template, parsed.root(), bindings);
 
         logger.debug("transformation resulted in '{}'", transformationResult);
 
         return transformationResult;
     }
 
-    private static @Nullable Object toObject(JsonNode node) {
-        switch (node.getNodeType()) {
-            case ARRAY: {
-                List<@Nullable Object> result = new ArrayList<>();
-                for (JsonNode el : node) {
-                    result.add(toObject(el));
-                }
-                return result;
-            }
-            case NUMBER:
-                return node.decimalValue();
-            case OBJECT: {
-                Map<String, @Nullable Object> result = new HashMap<>();
-                Iterator<Entry<String, JsonNode>> it = node.fields();
-                while (it.hasNext()) {
-                    Entry<String, JsonNode> field = it.next();
-                    result.put(field.getKey(), toObject(field.getValue()));
-                }
-                return result;
+    JinjaTemplateCache getCache() {
+        return cache;
+    }
+
+    private ParsedTemplate getParsedTemplate(String template) throws TransformationException {
+        ParsedTemplate parsed = cache.get(template);
+        if (parsed == null) {
+            JinjavaInterpreter interpreter = jinjava.newInterpreter();
+            JinjavaInterpreter.pushCurrent(interpreter);
+            try {
+                Node root = interpreter.parse(template);
+                // templates with syntax errors are not cached, they are reported on every call
+                checkErrors(template, interpreter);
+                parsed = new ParsedTemplate(root, template.contains(VALUE_JSON));
+            } catch (RuntimeException e) {
+                throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
+            } finally {
+                JinjavaInterpreter.popCurrent();
             }
-            case STRING:
-                return node.asText();
-            case BOOLEAN:
-                return node.asBoolean();
-            case NULL:
-            default:
-                return null;
+            cache.put(template, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Renders the parsed template like {@link Jinjava#render(String, Map)} renders the template.
+     */
+    private String render(String template, Node root, Map<String, @Nullable Object> bindings)
+            throws TransformationException {
+        Context context = new Context(jinjava.getGlobalContextCopy(), bindings,
+                jinjava.getGlobalConfig().getDisabled());
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, context, jinjava.getGlobalConfig());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            String result = interpreter.render(root, true);
+            checkErrors(template, interpreter);
+            return result;
+        } catch (RuntimeException e) {
+            throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+    }
+
+    private static void checkErrors(String template, JinjavaInterpreter interpreter) {
+        List<TemplateError> fatalErrors = interpreter.getErrors().stream()
+                .filter(error -> error.getSeverity() == ErrorType.FATAL).toList();
+        if (!fatalErrors.isEmpty()) {
+            throw new FatalTemplateErrorsException(template, fatalErrors);
         }
     }
 }
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jinja.internal;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Read-only views of a parsed JSON tree as the {@link Map}s and {@link java.util.List}s used by the templates.
+ *
+ * Objects and arrays are converted when they are accessed, and each converted value is kept, so a template only pays
+ * for the parts of the document it actually uses.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+final class JsonNodeView {
+
+    private JsonNodeView() {
+    }
+
+    /**
+     * Returns the value of the node: a {@link Map} for an object, a {@link java.util.List} for an array, a
+     * {@link java.math.BigDecimal} for a number, a {@link String}, a {@link Boolean} or <code>null</code>.
+     */
+    static @Nullable Object toObject(JsonNode node) {
+        switch (node.getNodeType()) {
+            case ARRAY:
+                return new ArrayView(node);
+            case NUMBER:
+                return node.decimalValue();
+            case OBJECT:
+                return new ObjectView(node);
+            case STRING:
+                return node.asText();
+            case BOOLEAN:
+                return node.asBoolean();
+            case NULL:
+            default:
+                return null;
+        }
+    }
+
+    static class ObjectView extends AbstractMap<String, @Nullable Object> {
+        private final JsonNode node;
+        private final Map<String, @Nullable Object> converted = new HashMap<>();
+        private @Nullable Set<Entry<String, @Nullable Object>> entrySet;
+
+        private ObjectView(JsonNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public @Nullable Object get(@Nullable Object key) {
+            if (!(key instanceof String name)) {
+                return null;
+            }
+            if (converted.containsKey(name)) {
+                return converted.get(name);
+            }
+            JsonNode child = node.get(name);
+            if (child == null) {
+                return null;
+            }
+            Object value = toObject(child);
+            converted.put(name, value);
+            return value;
+        }
+
+        @Override
+        public boolean containsKey(@Nullable Object key) {
+            return key instanceof String name && node.has(name);
+        }
+
+        @Override
+        public int size() {
+            return node.size();
+        }
+
+        /**
+         * Returns the number of the values which have been converted.
+         */
+        int convertedSize() {
+            return converted.size();
+        }
+
+        @Override
+        public Set<Entry<String, @Nullable Object>> entrySet() {
+            Set<Entry<String, @Nullable Object>> entrySet = this.entrySet;
+            if (entrySet == null) {
+                entrySet = new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, @Nullable Object>> iterator() {
+                        Iterator<String> names = node.fieldNames();
+                        return new Iterator<>() {
+                            @Override
+                            public boolean hasNext() {
+                                return names.hasNext();
+                            }
+
+                            @Override
+                            public Entry<String, @Nullable Object> next() {
+                                String name = names.next();
+                                return new SimpleImmutableEntry<>(name, get(name));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return node.size();
+                    }
+                };
+                this.entrySet = entrySet;
+            }
+            return entrySet;
+        }
+    }
+
+    static class ArrayView extends AbstractList<@Nullable Object> {
+        private static final Object NOT_CONVERTED = new Object();
+
+        private final JsonNode node;
+        private final @Nullable Object[] converted;
+
+        private ArrayView(JsonNode node) {
+            this.node = node;
+            converted = new Object[node.size()];
+            Arrays.fill(converted, NOT_CONVERTED);
+        }
+
+        @Override
+        public @Nullable Object get(int index) {
+            Object value = converted[index];
+            if (value == NOT_CONVERTED) {
+                value = toObject(node.get(index));
+                converted[index] = value;
+            }
+            return value;
+        }
+
+        @Override
+        public int size() {
+            return converted.length;
+        }
+    }
+}
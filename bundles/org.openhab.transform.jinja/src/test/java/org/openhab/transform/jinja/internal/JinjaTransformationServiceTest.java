@@ -14,9 +14,16 @@ package org.openhab.transform.jinja.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openhab.core.transform.TransformationException;
+import org.openhab.transform.jinja.internal.JsonNodeView.ObjectView;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * @author Jochen Klein - Initial contribution
@@ -113,4 +120,57 @@ public class JinjaTransformationServiceTest {
         // then map key is defined
         assertEquals("true", transformedResponse);
     }
+
+    @Test
+    public void testParsedTemplateIsCached() throws TransformationException {
+        String template = "{{ value_json.Temperature }} {{ value }}";
+        assertEquals("4.7 {\"Temperature\":4.7}", processor.transform(template, "{\"Temperature\":4.7}"));
+        assertEquals("5.1 {\"Temperature\":5.1}", processor.transform(template, "{\"Temperature\":5.1}"));
+
+        assertEquals(1, processor.getCache().getMisses());
+        assertEquals(1, processor.getCache().getHits());
+    }
+
+    @Test
+    public void testTemplateErrorIsReportedEveryTime() {
+        String template = "Hello {{{ value_json.string }}!";
+        assertThrows(TransformationException.class, () -> processor.transform(template, "{\"string\": \"world\"}"));
+        assertThrows(TransformationException.class, () -> processor.transform(template, "{\"string\": \"world\"}"));
+    }
+
+    @Test
+    public void testArraysAndIteration() throws TransformationException {
+        String json = "{\"list\":[1,{\"name\":\"two\"},[3]],\"state\":\"ON\",\"flag\":true,\"none\":null}";
+
+        assertEquals("two", processor.transform("{{ value_json.list[1].name }}", json));
+        assertEquals("3", processor.transform("{{ value_json.list|length }}", json));
+        assertEquals("4", processor.transform("{{ value_json|length }}", json));
+        assertEquals("list state flag none ",
+                processor.transform("{% for key in value_json.keys() %}{{ key }} {% endfor %}", json));
+        assertEquals("state=ON ", processor.transform(
+                "{% for key, val in value_json.items() %}{% if key == 'state' %}{{ key }}={{ val }} {% endif %}"
+                        + "{% endfor %}",
+                json));
+        assertEquals("true", processor.transform("{{ value_json.flag }}", json));
+        assertEquals("true", processor.transform("{{ value_json.none is none }}", json));
+        assertEquals("true", processor.transform("{{ value_json.list[2][0] == 3 }}", json));
+        assertEquals("{\"name\":\"two\"}", processor.transform("{{ value_json.list[1]|tojson }}", json));
+    }
+
+    @Test
+    public void testValueJsonIsConvertedLazily() throws Exception {
+        Object valueJson = JsonNodeView.toObject(new ObjectMapper()
+                .readTree("{\"a\":{\"b\":[1,2]},\"c\":{\"d\":\"e\"},\"f\":1.5}"));
+        ObjectView view = (ObjectView) valueJson;
+
+        assertEquals(0, view.convertedSize());
+        assertEquals(List.of("e"), List.copyOf(((Map<?, ?>) view.get("c")).values()));
+        assertEquals(1, view.convertedSize());
+        assertSame(view.get("c"), view.get("c"));
+        assertEquals(3, view.size());
+        assertTrue(view.containsKey("a"));
+        assertFalse(view.containsKey("x"));
+        assertNull(view.get("x"));
+        assertEquals(new BigDecimal("1.5"), view.get("f"));
+    }
 }
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Caches compiled {@link JsonPath} expressions and recently parsed JSON documents.
+ *
+ * The number of compiled expressions is bounded, the least recently used expression is dropped. Parsed documents are
+ * only kept for a short time: a message received by a binding is usually transformed for several channels right
+ * after it was received, these transformations share one parsed document. Documents are looked up by the identity of
+ * the source string first, a source with equal content is found as well.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class JSonPathCache {
+    static final int DEFAULT_MAX_PATHS = 256;
+    static final int DEFAULT_MAX_DOCUMENTS = 8;
+    static final long DEFAULT_DOCUMENT_TTL_MILLIS = 2000;
+
+    private final int maxDocuments;
+    private final long documentTtlNanos;
+
+    private final Map<String, JsonPath> paths;
+    private final @Nullable CachedDocument[] documents;
+    private int nextDocument;
+
+    private final AtomicLong pathHits = new AtomicLong();
+    private final AtomicLong pathMisses = new AtomicLong();
+    private final AtomicLong documentHits = new AtomicLong();
+    private final AtomicLong documentMisses = new AtomicLong();
+
+    public JSonPathCache() {
+        this(DEFAULT_MAX_PATHS, DEFAULT_MAX_DOCUMENTS, DEFAULT_DOCUMENT_TTL_MILLIS);
+    }
+
+    public JSonPathCache(int maxPaths, int maxDocuments, long documentTtlMillis) {
+        this.maxDocuments = maxDocuments;
+        this.documentTtlNanos = documentTtlMillis * 1_000_000;
+        this.paths = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonPath> eldest) {
+                return size() > maxPaths;
+            }
+        };
+        this.documents = new CachedDocument[maxDocuments];
+    }
+
+    /**
+     * Returns the compiled expression.
+     *
+     * @throws InvalidPathException if the expression is invalid
+     */
+    public JsonPath getPath(String expression) {
+        synchronized (paths) {
+            JsonPath path = paths.get(expression);
+            if (path != null) {
+                pathHits.incrementAndGet();
+                return path;
+            }
+        }
+        pathMisses.incrementAndGet();
+        JsonPath path = JsonPath.compile(expression);
+        synchronized (paths) {
+            paths.put(expression, path);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the parsed document.
+     *
+     * @throws InvalidJsonException if the source is not valid JSON
+     */
+    public DocumentContext getDocument(String source) {
+        long now = System.nanoTime();
+        DocumentContext document = findDocument(source, now);
+        if (document != null) {
+            documentHits.incrementAndGet();
+            return document;
+        }
+        documentMisses.incrementAndGet();
+        document = JsonPath.parse(source);
+        if (maxDocuments > 0) {
+            synchronized (documents) {
+                documents[nextDocument] = new CachedDocument(source, document, now + documentTtlNanos);
+                nextDocument = (nextDocument + 1) % maxDocuments;
+            }
+        }
+        return document;
+    }
+
+    private @Nullable DocumentContext findDocument(String source, long now) {
+        synchronized (documents) {
+            for (CachedDocument cached : documents) {
+                if (cached != null && cached.source == source && cached.expires - now > 0) {
+                    return cached.document;
+                }
+            }
+            for (CachedDocument cached : documents) {
+                if (cached != null && cached.expires - now > 0 && cached.source.length() == source.length()
+                        && cached.source.equals(source)) {
+                    return cached.document;
+                }
+            }
+        }
+        return null;
+    }
+
+    public long getPathHits() {
+        return pathHits.get();
+    }
+
+    public long getPathMisses() {
+        return pathMisses.get();
+    }
+
+    public long getDocumentHits() {
+        return documentHits.get();
+    }
+
+    public long getDocumentMisses() {
+        return documentMisses.get();
+    }
+
+    private record CachedDocument(String source, DocumentContext document, long expires) {
+    }
+}
@@ -26,7 +26,6 @@ import org.slf4j.LoggerFactory;
 
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
-import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 
 /**
@@ -41,6 +40,8 @@ public class JSonPathTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final JSonPathCache cache = new JSonPathCache();
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -62,7 +63,7 @@ public class JSonPathTransformationService implements TransformationService {
             return null;
         }
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = cache.getDocument(source).read(cache.getPath(jsonPathExpression));
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -78,6 +79,13 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    /**
+     * Returns the cache of compiled expressions and parsed documents, e.g. to retrieve its statistics.
+     */
+    public JSonPathCache getCache() {
+        return cache;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
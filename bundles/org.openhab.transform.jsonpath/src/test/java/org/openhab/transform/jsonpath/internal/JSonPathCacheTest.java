@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class JSonPathCacheTest {
+
+    private static final String JSON = "{ \"id\":1, \"name\":\"bob\" }";
+
+    @Test
+    public void compiledPathIsReused() {
+        JSonPathCache cache = new JSonPathCache();
+
+        JsonPath path = cache.getPath("$.id");
+        assertSame(path, cache.getPath("$.id"));
+        assertNotSame(path, cache.getPath("$.name"));
+
+        assertEquals(1, cache.getPathHits());
+        assertEquals(2, cache.getPathMisses());
+    }
+
+    @Test
+    public void leastRecentlyUsedPathIsDropped() {
+        JSonPathCache cache = new JSonPathCache(2, 0, 0);
+
+        JsonPath id = cache.getPath("$.id");
+        cache.getPath("$.name");
+        cache.getPath("$.id");
+        cache.getPath("$.other");
+
+        assertSame(id, cache.getPath("$.id"));
+        cache.getPath("$.name");
+        assertEquals(2, cache.getPathHits());
+        assertEquals(4, cache.getPathMisses());
+    }
+
+    @Test
+    public void documentIsParsedOncePerSource() {
+        JSonPathCache cache = new JSonPathCache();
+
+        DocumentContext document = cache.getDocument(JSON);
+        assertSame(document, cache.getDocument(JSON));
+        // equal content in another instance
+        assertSame(document, cache.getDocument(new String(JSON)));
+        assertNotSame(document, cache.getDocument("{}"));
+
+        assertEquals(2, cache.getDocumentHits());
+        assertEquals(2, cache.getDocumentMisses());
+        assertEquals("bob", document.read(cache.getPath("$.name")));
+    }
+
+    @Test
+    public void documentExpires() throws InterruptedException {
+        JSonPathCache cache = new JSonPathCache(10, 10, 10);
+
+        DocumentContext document = cache.getDocument(JSON);
+        Thread.sleep(50);
+        assertNotSame(document, cache.getDocument(JSON));
+
+        assertEquals(0, cache.getDocumentHits());
+        assertEquals(2, cache.getDocumentMisses());
+    }
+}
@@ -16,11 +16,13 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.net.URI;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -28,6 +30,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.common.registry.RegistryChangeListener;
 import org.openhab.core.config.core.ConfigOptionProvider;
 import org.openhab.core.config.core.ParameterOption;
+import org.openhab.core.i18n.LocaleProvider;
 import org.openhab.core.transform.Transformation;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationRegistry;
@@ -43,6 +46,9 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The implementation of {@link TransformationService} which simply maps strings to other strings
  *
+ * Map files are compiled into immutable {@link MapTable}s, which are replaced as a whole when a file changes. The
+ * transformation a function refers to is resolved once per locale.
+ *
  * @author Kai Kreuzer - Initial contribution and API
  * @author Gaël L'hopital - Make it localizable
  * @author Jan N. Klug - Refactored to use {@link TransformationRegistry}
@@ -59,11 +65,52 @@ public class MapTransformationService
 
     private final Logger logger = LoggerFactory.getLogger(MapTransformationService.class);
     private final TransformationRegistry transformationRegistry;
-    private final Map<String, Properties> cachedTransformations = new ConcurrentHashMap<>();
+    private final LocaleProvider localeProvider;
+    private final Map<String, MapTable> cachedTransformations = new ConcurrentHashMap<>();
+
+    private final Map<FunctionKey, ResolvedFunction> resolvedFunctions = new ConcurrentHashMap<>();
+    // incremented on every change of the registry, resolutions of earlier generations are outdated
+    private final AtomicLong generation = new AtomicLong();
+
+    private record FunctionKey(String function, @Nullable Locale locale) {
+    }
+
+    private record ResolvedFunction(String uid, long generation) {
+    }
+
+    /**
+     * The entries of a map file, with the default entry resolved.
+     *
+     * @param entries the entries by their source
+     * @param defaultValue the value of sources without an entry or <code>null</code> if there is no default
+     * @param defaultIsSource if sources without an entry are mapped to themselves
+     */
+    record MapTable(Map<String, String> entries, @Nullable String defaultValue, boolean defaultIsSource) {
+
+        static MapTable of(Properties properties) {
+            Map<String, String> entries = new HashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                entries.put(name, properties.getProperty(name));
+            }
+            String defaultValue = entries.get("");
+            return new MapTable(Map.copyOf(entries), defaultValue, SOURCE_VALUE.equals(defaultValue));
+        }
+
+        @Nullable
+        String get(String source) {
+            String target = entries.get(source);
+            if (target == null) {
+                return defaultIsSource ? source : defaultValue;
+            }
+            return target;
+        }
+    }
 
     @Activate
-    public MapTransformationService(@Reference TransformationRegistry transformationRegistry) {
+    public MapTransformationService(@Reference TransformationRegistry transformationRegistry,
+            @Reference LocaleProvider localeProvider) {
         this.transformationRegistry = transformationRegistry;
+        this.localeProvider = localeProvider;
         transformationRegistry.addRegistryChangeListener(this);
     }
 
@@ -74,33 +121,40 @@ public class MapTransformationService
 
     @Override
     public @Nullable String transform(String function, String source) throws TransformationException {
-        // always get a configuration from the registry to account for changed system locale
-        Transformation transformation = transformationRegistry.get(function, null);
-
-        if (transformation != null) {
-            if (!cachedTransformations.containsKey(transformation.getUID())) {
-                importConfiguration(transformation);
-            }
-            Properties properties = cachedTransformations.get(transformation.getUID());
-            if (properties != null) {
-                String target = properties.getProperty(source);
-
-                if (target == null) {
-                    target = properties.getProperty("");
-                    if (target == null) {
-                        throw new TransformationException("Target value not found in map for '" + source + "'");
-                    } else if (SOURCE_VALUE.equals(target)) {
-                        target = source;
-                    }
-                }
-
-                logger.debug("Transformation resulted in '{}'", target);
-                return target;
+        MapTable table = getTable(function);
+        if (table != null) {
+            String target = table.get(source);
+            if (target == null) {
+                throw new TransformationException("Target value not found in map for '" + source + "'");
             }
+
+            logger.debug("Transformation resulted in '{}'", target);
+            return target;
         }
         throw new TransformationException("Could not find configuration '" + function + "' or failed to parse it.");
     }
 
+    private @Nullable MapTable getTable(String function) {
+        // the configuration depends on the locale, which may have been changed
+        FunctionKey key = new FunctionKey(function, localeProvider.getLocale());
+        long currentGeneration = generation.get();
+        ResolvedFunction resolved = resolvedFunctions.get(key);
+        if (resolved != null && resolved.generation() == currentGeneration) {
+            MapTable table = cachedTransformations.get(resolved.uid());
+            if (table != null) {
+                return table;
+            }
+        }
+
+        Transformation transformation = transformationRegistry.get(function, null);
+        if (transformation == null) {
+            return null;
+        }
+        resolvedFunctions.put(key, new ResolvedFunction(transformation.getUID(), currentGeneration));
+        return cachedTransformations.computeIfAbsent(transformation.getUID(),
+                uid -> importConfiguration(transformation));
+    }
+
     @Override
     public @Nullable Collection<ParameterOption> getParameterOptions(URI uri, String param, @Nullable String context,
             @Nullable Locale locale) {
@@ -115,35 +169,44 @@ public class MapTransformationService
 
     @Override
     public void added(Transformation element) {
-        // do nothing, configurations are added to cache if needed
+        // configurations are added to cache if needed, but a function may resolve to the new configuration now
+        invalidateResolvedFunctions();
     }
 
     @Override
     public void removed(Transformation element) {
+        invalidateResolvedFunctions();
         cachedTransformations.remove(element.getUID());
     }
 
     @Override
     public void updated(Transformation oldElement, Transformation element) {
-        if (cachedTransformations.remove(oldElement.getUID()) != null) {
-            // import only if it was present before
-            importConfiguration(element);
+        invalidateResolvedFunctions();
+        if (!oldElement.getUID().equals(element.getUID())) {
+            cachedTransformations.remove(oldElement.getUID());
+            return;
         }
+        // replace only if it was present before, the old table stays in use until the new one is ready
+        cachedTransformations.computeIfPresent(element.getUID(), (uid, table) -> importConfiguration(element));
+    }
+
+    private void invalidateResolvedFunctions() {
+        generation.incrementAndGet();
+        resolvedFunctions.clear();
     }
 
-    private void importConfiguration(@Nullable Transformation transformation) {
-        if (transformation != null) {
-            try {
-                Properties properties = new Properties();
-                String function = transformation.getConfiguration().get(Transformation.FUNCTION);
-                if (function == null || function.isBlank()) {
-                    logger.warn("Function not defined for transformation '{}'", transformation.getUID());
-                    return;
-                }
-                properties.load(new StringReader(function));
-                cachedTransformations.put(transformation.getUID(), properties);
-            } catch (IOException ignored) {
+    private @Nullable MapTable importConfiguration(Transformation transformation) {
+        try {
+            Properties properties = new Properties();
+            String function = transformation.getConfiguration().get(Transformation.FUNCTION);
+            if (function == null || function.isBlank()) {
+                logger.warn("Function not defined for transformation '{}'", transformation.getUID());
+                return null;
             }
+            properties.load(new StringReader(function));
+            return MapTable.of(properties);
+        } catch (IOException ignored) {
+            return null;
         }
     }
 }
@@ -14,6 +14,7 @@ package org.openhab.transform.map.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 import java.io.File;
 import java.io.IOException;
@@ -21,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 
@@ -34,6 +36,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.mockito.stubbing.Answer;
+import org.openhab.core.i18n.LocaleProvider;
 import org.openhab.core.test.java.JavaTest;
 import org.openhab.core.transform.Transformation;
 import org.openhab.core.transform.TransformationException;
@@ -60,6 +63,8 @@ public class MapTransformationServiceTest extends JavaTest {
 
     @Mock
     private @NonNullByDefault({}) TransformationRegistry transformationRegistry;
+    @Mock
+    private @NonNullByDefault({}) LocaleProvider localeProvider;
 
     private @NonNullByDefault({}) MapTransformationService processor;
     private final Map<String, Transformation> configurationMap = new HashMap<>();
@@ -84,7 +89,9 @@ public class MapTransformationServiceTest extends JavaTest {
                     return configurationMap.get(args[0]);
                 });
 
-        processor = new MapTransformationService(transformationRegistry);
+        Mockito.when(localeProvider.getLocale()).thenReturn(Locale.ENGLISH);
+
+        processor = new MapTransformationService(transformationRegistry, localeProvider);
     }
 
     @Test
@@ -152,4 +159,30 @@ public class MapTransformationServiceTest extends JavaTest {
         // ensure modified configuration is applied
         assertEquals("fermé", processor.transform(NON_DEFAULTED_TRANSFORMATION_DE, SOURCE_CLOSED));
     }
+
+    @Test
+    public void functionIsResolvedOncePerLocale() throws TransformationException {
+        processor.transform(NON_DEFAULTED_TRANSFORMATION_DE, SOURCE_CLOSED);
+        processor.transform(NON_DEFAULTED_TRANSFORMATION_DE, SOURCE_CLOSED);
+        verify(transformationRegistry, times(1)).get(NON_DEFAULTED_TRANSFORMATION_DE, null);
+
+        Mockito.when(localeProvider.getLocale()).thenReturn(Locale.FRENCH);
+        processor.transform(NON_DEFAULTED_TRANSFORMATION_DE, SOURCE_CLOSED);
+        processor.transform(NON_DEFAULTED_TRANSFORMATION_DE, SOURCE_CLOSED);
+        verify(transformationRegistry, times(2)).get(NON_DEFAULTED_TRANSFORMATION_DE, null);
+    }
+
+    @Test
+    public void functionIsResolvedAgainAfterAddition() throws TransformationException {
+        // the function resolves to another configuration, e.g. a localized one
+        configurationMap.put("map" + File.separator + "doorstatus.map",
+                Objects.requireNonNull(configurationMap.get(NON_DEFAULTED_TRANSFORMATION_DE)));
+        assertEquals("zu", processor.transform("map" + File.separator + "doorstatus.map", SOURCE_CLOSED));
+
+        Transformation transformationFR = Objects.requireNonNull(configurationMap.get(NON_DEFAULTED_TRANSFORMATION_FR));
+        configurationMap.put("map" + File.separator + "doorstatus.map", transformationFR);
+        processor.added(transformationFR);
+
+        assertEquals("fermé", processor.transform("map" + File.separator + "doorstatus.map", SOURCE_CLOSED));
+    }
 }
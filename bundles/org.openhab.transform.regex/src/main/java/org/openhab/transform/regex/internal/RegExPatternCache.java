@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A bounded cache of compiled regular expressions, the least recently used expression is dropped. Expressions are
+ * cached by their form: as parsed substitution and as pattern matching the whole source.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class RegExPatternCache {
+    static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private enum Form {
+        SUBSTITUTION,
+        MATCH
+    }
+
+    private record Key(Form form, String expression) {
+    }
+
+    private final Map<Key, Object> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RegExPatternCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public RegExPatternCache(int maxEntries) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<Key, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed substitution.
+     *
+     * @return the substitution or <code>null</code> if the expression is not in the substitution form
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable RegExSubstitution getSubstitution(String expression) {
+        Optional<RegExSubstitution> substitution = (Optional<RegExSubstitution>) get(
+                new Key(Form.SUBSTITUTION, expression), e -> Optional.ofNullable(RegExSubstitution.parse(e)));
+        return substitution.orElse(null);
+    }
+
+    /**
+     * Returns the pattern matching the whole source with the expression, see
+     * {@link RegExTransformationService#transform(String, String)}.
+     */
+    public Pattern getMatchPattern(String expression) {
+        return (Pattern) get(new Key(Form.MATCH, expression),
+                e -> Pattern.compile("^" + e + "$", Pattern.DOTALL));
+    }
+
+    private Object get(Key key, Function<String, Object> compiler) {
+        synchronized (entries) {
+            Object value = entries.get(key);
+            if (value != null) {
+                hits.incrementAndGet();
+                return value;
+            }
+        }
+        misses.incrementAndGet();
+        // compile outside of the lock, in the rare case of a concurrent miss the expression is compiled twice
+        Object value = compiler.apply(key.expression());
+        synchronized (entries) {
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A parsed regular expression in the substitution form <code>s/&lt;regex&gt;/&lt;substitution&gt;/g</code>.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class RegExSubstitution {
+    private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+
+    private final Pattern pattern;
+    private final String replacement;
+    private final boolean global;
+
+    private RegExSubstitution(Pattern pattern, String replacement, boolean global) {
+        this.pattern = pattern;
+        this.replacement = replacement;
+        this.global = global;
+    }
+
+    /**
+     * Parses the expression.
+     *
+     * @return the substitution or <code>null</code> if the expression is not in the substitution form
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid
+     */
+    public static @Nullable RegExSubstitution parse(String expression) {
+        Matcher matcher = SUBSTR_PATTERN.matcher(expression);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new RegExSubstitution(Pattern.compile(matcher.group(1)), matcher.group(2),
+                "g".equals(matcher.group(3)));
+    }
+
+    /**
+     * Replaces all matches (with option <code>g</code>) or the first match in the source.
+     */
+    public String apply(String source) {
+        Matcher matcher = pattern.matcher(source);
+        return global ? matcher.replaceAll(replacement) : matcher.replaceFirst(replacement);
+    }
+}
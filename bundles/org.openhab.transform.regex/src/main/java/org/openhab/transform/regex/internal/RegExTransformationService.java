@@ -13,7 +13,6 @@
 package org.openhab.transform.regex.internal;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -38,7 +37,7 @@ public class RegExTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(RegExTransformationService.class);
 
-    private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+    private final RegExPatternCache cache = new RegExPatternCache();
 
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
@@ -48,33 +47,25 @@ public class RegExTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, regExpression);
 
-        String result = "";
+        String trimmedSource = source.trim();
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        RegExSubstitution substitution = cache.getSubstitution(regExpression);
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if ("g".equals(options)) {
-                result = source.trim().replaceAll(regex, substitution);
-            } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
-            }
+            return substitution.apply(trimmedSource);
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = cache.getMatchPattern(regExpression).matcher(trimmedSource);
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
                     regExpression, source);
             return null;
         }
+
         matcher.reset();
 
+        String result = "";
         while (matcher.find()) {
             if (matcher.groupCount() == 0) {
                 logger.info(
@@ -94,4 +85,11 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    /**
+     * Returns the cache of compiled expressions, e.g. to retrieve its statistics.
+     */
+    public RegExPatternCache getCache() {
+        return cache;
+    }
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.transform.TransformationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of the {@link RegExTransformationService} with compiling the expressions on every call, as
+ * done before expressions were cached. It is not run by the build, start it with {@link #main(String[])}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegExTransformationBenchmark {
+    private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+
+    private static final String LINE = "  $GPRMC,123519,A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W*6A  ";
+    private static final String MATCH_EXPRESSION = "\\$GPRMC,[^,]*,A,([0-9.]+),.*";
+    private static final String SUBSTITUTION_EXPRESSION = "s/([0-9]+)\\.([0-9]+)/$1_$2/g";
+
+    private final RegExTransformationService service = new RegExTransformationService();
+
+    @Benchmark
+    public @Nullable String matchCompiledOnEveryCall() {
+        return uncachedTransform(MATCH_EXPRESSION, LINE);
+    }
+
+    @Benchmark
+    public @Nullable String matchCached() throws TransformationException {
+        return service.transform(MATCH_EXPRESSION, LINE);
+    }
+
+    @Benchmark
+    public @Nullable String substituteCompiledOnEveryCall() {
+        return uncachedTransform(SUBSTITUTION_EXPRESSION, LINE);
+    }
+
+    @Benchmark
+    public @Nullable String substituteCached() throws TransformationException {
+        return service.transform(SUBSTITUTION_EXPRESSION, LINE);
+    }
+
+    /**
+     * The transformation without caching.
+     */
+    private static @Nullable String uncachedTransform(String regExpression, String source) {
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            String regex = substMatcher.group(1);
+            String substitution = substMatcher.group(2);
+            if ("g".equals(substMatcher.group(3))) {
+                return source.trim().replaceAll(regex, substitution);
+            } else {
+                return source.trim().replaceFirst(regex, substitution);
+            }
+        }
+
+        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        matcher.reset();
+        String result = "";
+        while (matcher.find()) {
+            if (matcher.groupCount() > 0) {
+                result = matcher.group(1);
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RegExTransformationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
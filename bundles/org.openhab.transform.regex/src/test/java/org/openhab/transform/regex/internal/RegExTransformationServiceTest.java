@@ -75,4 +75,16 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_expressionsAreCompiledOnce() throws TransformationException {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("SetMode(42)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:SetMode,ARG:42"));
+            assertEquals("42", processor.transform("OP:.*?,ARG:(.*)", "OP:SetMode,ARG:42"));
+        }
+
+        // the match form is also looked up as substitution first
+        assertEquals(3, processor.getCache().getMisses());
+        assertEquals(6, processor.getCache().getHits());
+    }
 }
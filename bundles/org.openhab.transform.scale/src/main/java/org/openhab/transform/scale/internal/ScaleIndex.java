@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Finds the label of the first range containing a value by a binary search.
+ *
+ * The limits of all ranges split the numbers into elementary intervals: the numbers below the lowest limit, each
+ * limit itself, the numbers between two adjacent limits and the numbers above the highest limit. A range contains
+ * either all or none of the numbers of an elementary interval, so the label of the first range containing an interval
+ * is determined once when the index is created.
+ *
+ * The limits are also kept as <code>double</code> values. The conversion to <code>double</code> keeps the order, so if
+ * the converted value is not equal to a converted limit, the interval is found without comparing {@link BigDecimal}s.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class ScaleIndex {
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    private final BigDecimal[] limits;
+    private final double[] doubleLimits;
+    // the label of the interval below limits[i] is at 2 * i, the label of limits[i] itself at 2 * i + 1
+    private final @Nullable String[] labels;
+
+    /**
+     * Creates the index of the ranges.
+     *
+     * @param ranges the ranges with their labels, in the order they are evaluated
+     */
+    public ScaleIndex(Map<Range, String> ranges) {
+        TreeSet<BigDecimal> sortedLimits = new TreeSet<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                sortedLimits.add(range.min);
+            }
+            if (range.max != null) {
+                sortedLimits.add(range.max);
+            }
+        }
+        limits = sortedLimits.toArray(BigDecimal[]::new);
+        doubleLimits = new double[limits.length];
+        for (int i = 0; i < limits.length; i++) {
+            doubleLimits[i] = limits[i].doubleValue();
+        }
+
+        labels = new String[2 * limits.length + 1];
+        for (int i = 0; i < labels.length; i++) {
+            BigDecimal representative = getRepresentative(i);
+            for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+                if (entry.getKey().contains(representative)) {
+                    labels[i] = entry.getValue();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a number of the elementary interval.
+     */
+    private BigDecimal getRepresentative(int interval) {
+        int index = interval / 2;
+        if (limits.length == 0) {
+            return BigDecimal.ZERO;
+        } else if (interval % 2 == 1) {
+            return limits[index];
+        } else if (index == 0) {
+            return limits[0].subtract(BigDecimal.ONE);
+        } else if (index == limits.length) {
+            return limits[index - 1].add(BigDecimal.ONE);
+        } else {
+            return limits[index - 1].add(limits[index]).multiply(HALF);
+        }
+    }
+
+    /**
+     * Returns the label of the first range containing the value.
+     *
+     * @return the label or <code>null</code> if no range contains the value
+     */
+    public @Nullable String find(BigDecimal value) {
+        int position = Arrays.binarySearch(doubleLimits, value.doubleValue());
+        if (position >= 0) {
+            // equal to a limit as double, compare exactly
+            position = Arrays.binarySearch(limits, value);
+        }
+        return position >= 0 ? labels[2 * position + 1] : labels[2 * (-position - 1)];
+    }
+}
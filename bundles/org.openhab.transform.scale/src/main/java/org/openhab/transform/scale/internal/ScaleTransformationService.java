@@ -52,6 +52,8 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * input by matching it between limits of ranges in a scale file
  *
+ * The ranges of a scale file are compiled into a {@link ScaleIndex} when the file is loaded.
+ *
  * @author Gaël L'hopital - Initial contribution
  * @author Markus Rathgeb - drop usage of Guava
  */
@@ -75,11 +77,19 @@ public class ScaleTransformationService
     private static final String FORMAT_VALUE = "%value%";
     private static final String FORMAT_LABEL = "%label%";
 
-    /** Inaccessible range used to store presentation format ]0..0[ */
-    private static final Range FORMAT_RANGE = Range.range(BigDecimal.ZERO, false, BigDecimal.ZERO, false);
     private final TransformationRegistry transformationRegistry;
 
-    private final Map<String, Map<@Nullable Range, String>> cachedTransformations = new ConcurrentHashMap<>();
+    private final Map<String, Scale> cachedTransformations = new ConcurrentHashMap<>();
+
+    /**
+     * A parsed scale file.
+     *
+     * @param index the index of the ranges
+     * @param format the presentation format
+     * @param nonNumeric the label of non numeric values or <code>null</code> if there is none
+     */
+    private record Scale(ScaleIndex index, String format, @Nullable String nonNumeric) {
+    }
 
     @Activate
     public ScaleTransformationService(@Reference TransformationRegistry transformationRegistry) {
@@ -149,7 +159,7 @@ public class ScaleTransformationService
             if (!cachedTransformations.containsKey(transformation.getUID())) {
                 importConfiguration(transformation);
             }
-            Map<@Nullable Range, String> data = cachedTransformations.get(transformation.getUID());
+            Scale data = cachedTransformations.get(transformation.getUID());
 
             if (data != null) {
                 String target;
@@ -163,7 +173,7 @@ public class ScaleTransformationService
                         final QuantityType<?> quantity = new QuantityType<>(source);
                         return formatResult(data, source, quantity.toBigDecimal());
                     } catch (IllegalArgumentException e2) {
-                        String nonNumeric = data.get(null);
+                        String nonNumeric = data.nonNumeric();
                         if (nonNumeric != null) {
                             target = nonNumeric;
                         } else {
@@ -180,25 +190,25 @@ public class ScaleTransformationService
         throw new TransformationException("Could not find configuration '" + function + "' or failed to parse it.");
     }
 
-    private String formatResult(Map<@Nullable Range, String> data, String source, final BigDecimal value)
-            throws TransformationException {
-        String format = data.get(FORMAT_RANGE);
+    private String formatResult(Scale data, String source, final BigDecimal value) throws TransformationException {
         String result = getScaleResult(data, source, value);
-        return format.replaceAll(FORMAT_VALUE, source).replaceAll(FORMAT_LABEL, result);
+        return data.format().replaceAll(FORMAT_VALUE, source).replaceAll(FORMAT_LABEL, result);
     }
 
-    private String getScaleResult(Map<@Nullable Range, String> data, String source, final BigDecimal value)
-            throws TransformationException {
-        return data.entrySet().stream().filter(entry -> entry.getKey() != null && entry.getKey().contains(value))
-                .findFirst().map(Map.Entry::getValue)
-                .orElseThrow(() -> new TransformationException("No matching range for '" + source + "'"));
+    private String getScaleResult(Scale data, String source, final BigDecimal value) throws TransformationException {
+        String result = data.index().find(value);
+        if (result == null) {
+            throw new TransformationException("No matching range for '" + source + "'");
+        }
+        return result;
     }
 
     private void importConfiguration(@Nullable Transformation configuration) {
         if (configuration != null) {
             try {
-                final Map<@Nullable Range, String> data = new LinkedHashMap<>();
-                data.put(FORMAT_RANGE, FORMAT_LABEL);
+                final Map<Range, String> data = new LinkedHashMap<>();
+                String format = FORMAT_LABEL;
+                String nonNumeric = null;
                 final OrderedProperties properties = new OrderedProperties();
                 String function = configuration.getConfiguration().get(Transformation.FUNCTION);
                 if (function == null) {
@@ -224,9 +234,9 @@ public class ScaleTransformationService
                         data.put(range, value);
                     } else {
                         if (NON_NUMBER.equals(entry)) {
-                            data.put(null, value);
+                            nonNumeric = value;
                         } else if (FORMAT.equals(entry)) {
-                            data.put(FORMAT_RANGE, value);
+                            format = value;
                         } else {
                             logger.warn(
                                     "Scale transformation configuration '{}' does not comply with syntax for entry : '{}', '{}'",
@@ -235,7 +245,7 @@ public class ScaleTransformationService
                     }
                 }
 
-                cachedTransformations.put(configuration.getUID(), data);
+                cachedTransformations.put(configuration.getUID(), new Scale(new ScaleIndex(data), format, nonNumeric));
             } catch (IOException | NumberFormatException ignored) {
             }
         }
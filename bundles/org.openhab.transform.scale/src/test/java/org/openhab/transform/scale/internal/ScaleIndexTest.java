@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the {@link ScaleIndex} with evaluating the ranges one after the other.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class ScaleIndexTest {
+
+    private static @Nullable String findLinear(Map<Range, String> ranges, BigDecimal value) {
+        return ranges.entrySet().stream().filter(entry -> entry.getKey().contains(value)).findFirst()
+                .map(Map.Entry::getValue).orElse(null);
+    }
+
+    @Test
+    public void firstMatchOfOverlappingRanges() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.closedOpen(new BigDecimal("10"), new BigDecimal("20")), "first");
+        ranges.put(Range.closed(new BigDecimal("0"), new BigDecimal("30")), "second");
+        ranges.put(Range.greaterThan(new BigDecimal("20")), "third");
+        ScaleIndex index = new ScaleIndex(ranges);
+
+        assertNull(index.find(new BigDecimal("-1")));
+        assertEquals("second", index.find(new BigDecimal("0")));
+        assertEquals("first", index.find(new BigDecimal("10")));
+        assertEquals("first", index.find(new BigDecimal("19.999")));
+        assertEquals("second", index.find(new BigDecimal("20")));
+        assertEquals("second", index.find(new BigDecimal("30.0")));
+        assertEquals("third", index.find(new BigDecimal("30.0000000000000000000001")));
+    }
+
+    @Test
+    public void limitsNotRepresentableAsDouble() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.atMost(new BigDecimal("0.1")), "low");
+        ranges.put(Range.open(new BigDecimal("0.1"), new BigDecimal("0.10000000000000000001")), "between");
+        ranges.put(Range.all(), "high");
+        ScaleIndex index = new ScaleIndex(ranges);
+
+        assertEquals("low", index.find(new BigDecimal("0.1")));
+        assertEquals("low", index.find(new BigDecimal("0.100")));
+        assertEquals("between", index.find(new BigDecimal("0.100000000000000000001")));
+        assertEquals("high", index.find(new BigDecimal("0.10000000000000000001")));
+        assertEquals("high", index.find(new BigDecimal("1E400")));
+        assertEquals("low", index.find(new BigDecimal("-1E400")));
+    }
+
+    @Test
+    public void noRanges() {
+        assertNull(new ScaleIndex(Map.of()).find(BigDecimal.ONE));
+    }
+
+    @Test
+    public void sameAsLinearEvaluation() {
+        Random random = new Random(4711);
+        for (int run = 0; run < 200; run++) {
+            Map<Range, String> ranges = new LinkedHashMap<>();
+            int count = 1 + random.nextInt(50);
+            for (int i = 0; i < count; i++) {
+                BigDecimal low = random.nextInt(10) == 0 ? null : BigDecimal.valueOf(random.nextInt(200) - 100, 1);
+                BigDecimal high = random.nextInt(10) == 0 ? null : BigDecimal.valueOf(random.nextInt(200) - 100, 1);
+                ranges.put(Range.range(low, random.nextBoolean(), high, random.nextBoolean()), "label" + i);
+            }
+            ScaleIndex index = new ScaleIndex(ranges);
+            for (int i = -1100; i <= 1100; i++) {
+                BigDecimal value = BigDecimal.valueOf(i, 2);
+                assertEquals(findLinear(ranges, value), index.find(value), value.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Evaluates XPath expressions on a DOM of the source.
+ *
+ * Document builders, XPath objects and compiled expressions are not thread-safe. They are kept in contexts, each
+ * context is used by one thread at a time and returned to a pool after the evaluation, so they are reused instead of
+ * being created for every evaluation.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class DomXPathEvaluator {
+    static final int MAX_IDLE_CONTEXTS = 8;
+    static final int MAX_EXPRESSIONS = 64;
+
+    private final DocumentBuilderFactory domFactory;
+    private final XPathFactory xpathFactory = XPathFactory.newInstance();
+    private final Deque<Context> contexts = new ConcurrentLinkedDeque<>();
+
+    public DomXPathEvaluator() throws ParserConfigurationException {
+        domFactory = DocumentBuilderFactory.newInstance();
+        // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
+        domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        domFactory.setXIncludeAware(false);
+        domFactory.setExpandEntityReferences(false);
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+    }
+
+    /**
+     * Returns the string value of the expression evaluated on the source.
+     */
+    public String evaluate(String expression, String source)
+            throws ParserConfigurationException, SAXException, IOException, XPathExpressionException {
+        Context context = contexts.pollFirst();
+        if (context == null) {
+            context = new Context();
+        }
+        try {
+            XPathExpression compiled = context.compile(expression);
+
+            InputSource inputSource = new InputSource(new StringReader(source));
+            inputSource.setEncoding("UTF-8");
+            Document doc = context.builder.parse(inputSource);
+
+            return (String) compiled.evaluate(doc, XPathConstants.STRING);
+        } finally {
+            context.builder.reset();
+            if (contexts.size() < MAX_IDLE_CONTEXTS) {
+                contexts.offerFirst(context);
+            }
+        }
+    }
+
+    private class Context {
+        private final DocumentBuilder builder;
+        private final XPath xpath;
+        private final Map<String, XPathExpression> expressions = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, XPathExpression> eldest) {
+                return size() > MAX_EXPRESSIONS;
+            }
+        };
+
+        private Context() throws ParserConfigurationException {
+            synchronized (domFactory) {
+                builder = domFactory.newDocumentBuilder();
+            }
+            synchronized (xpathFactory) {
+                xpath = xpathFactory.newXPath();
+            }
+        }
+
+        private XPathExpression compile(String expression) throws XPathExpressionException {
+            XPathExpression compiled = expressions.get(expression);
+            if (compiled == null) {
+                compiled = xpath.compile(expression);
+                expressions.put(expression, compiled);
+            }
+            return compiled;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Evaluates simple absolute location paths while streaming through the source, without building a DOM. Parsing stops
+ * as soon as the result is known.
+ *
+ * Supported are paths of element names without namespace prefix, which may end with an attribute or
+ * <code>text()</code>, e.g. <code>/status/sensor/temperature</code>, <code>/status/sensor/@id</code> or
+ * <code>/status/sensor/temperature/text()</code>. Like XPath, the string value of the first matching node in document
+ * order is returned.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+@NonNullByDefault
+public class StaxXPathEvaluator {
+    static final int MAX_PATHS = 256;
+
+    private static final String NAME = "[A-Za-z_][A-Za-z0-9_.\\-]*";
+    private static final Pattern SIMPLE_PATH = Pattern
+            .compile("(/" + NAME + ")+(/@" + NAME + "|/text\\(\\))?");
+
+    private final XMLInputFactory inputFactory;
+    private final Map<String, Optional<SimplePath>> paths = new ConcurrentHashMap<>();
+
+    public StaxXPathEvaluator() {
+        inputFactory = XMLInputFactory.newFactory();
+        // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Checks if the expression can be evaluated by this evaluator.
+     */
+    public boolean supports(String expression) {
+        return getPath(expression) != null;
+    }
+
+    /**
+     * Returns the string value of the expression evaluated on the source.
+     *
+     * @return the value or <code>null</code> if the expression is not supported
+     * @throws XMLStreamException if the source can't be parsed up to the result
+     */
+    public @Nullable String evaluate(String expression, String source) throws XMLStreamException {
+        SimplePath path = getPath(expression);
+        if (path == null) {
+            return null;
+        }
+
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(source));
+        try {
+            return evaluate(path, reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private String evaluate(SimplePath path, XMLStreamReader reader) throws XMLStreamException {
+        int targetDepth = path.elements().size();
+        int depth = 0;
+        // depth of the deepest element of the current element's ancestors (or itself) matching the path
+        int matchedDepth = 0;
+        // text of a matching text() node
+        @Nullable
+        StringBuilder value = null;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (value != null) {
+                        return value.toString();
+                    }
+                    depth++;
+                    if (matchedDepth == depth - 1 && depth <= targetDepth
+                            && path.elements().get(depth - 1).equals(reader.getLocalName())
+                            && isEmpty(reader.getNamespaceURI())) {
+                        matchedDepth = depth;
+                        if (depth == targetDepth) {
+                            String attribute = path.attribute();
+                            if (attribute != null) {
+                                String attributeValue = getAttribute(reader, attribute);
+                                if (attributeValue != null) {
+                                    return attributeValue;
+                                }
+                            } else if (!path.text()) {
+                                return readElementText(reader);
+                            }
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (value != null) {
+                        return value.toString();
+                    }
+                    if (matchedDepth == depth) {
+                        matchedDepth--;
+                    }
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (path.text() && matchedDepth == targetDepth && depth == targetDepth) {
+                        if (value == null) {
+                            value = new StringBuilder();
+                        }
+                        value.append(reader.getText());
+                    }
+                    break;
+                default:
+                    // a comment or processing instruction ends a text node
+                    if (value != null) {
+                        return value.toString();
+                    }
+                    break;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Reads the string value of the current element, i.e. all its descendant text.
+     */
+    private String readElementText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    text.append(reader.getText());
+                    break;
+                default:
+                    break;
+            }
+        }
+        return text.toString();
+    }
+
+    private static @Nullable String getAttribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (name.equals(reader.getAttributeLocalName(i)) && isEmpty(reader.getAttributeNamespace(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isEmpty(@Nullable String namespace) {
+        return namespace == null || XMLConstants.NULL_NS_URI.equals(namespace);
+    }
+
+    private @Nullable SimplePath getPath(String expression) {
+        Optional<SimplePath> path = paths.get(expression);
+        if (path == null) {
+            path = Optional.ofNullable(SimplePath.parse(expression));
+            if (paths.size() >= MAX_PATHS) {
+                paths.clear();
+            }
+            paths.put(expression, path);
+        }
+        return path.orElse(null);
+    }
+
+    private record SimplePath(List<String> elements, @Nullable String attribute, boolean text) {
+        private static @Nullable SimplePath parse(String expression) {
+            String trimmed = expression.trim();
+            if (!SIMPLE_PATH.matcher(trimmed).matches()) {
+                return null;
+            }
+            List<String> steps = List.of(trimmed.substring(1).split("/"));
+            String last = steps.get(steps.size() - 1);
+            if (last.startsWith("@")) {
+                return new SimplePath(steps.subList(0, steps.size() - 1), last.substring(1), false);
+            } else if ("text()".equals(last)) {
+                return new SimplePath(steps.subList(0, steps.size() - 1), null, true);
+            }
+            return new SimplePath(steps, null, false);
+        }
+    }
+}
@@ -12,24 +12,21 @@
  */
 package org.openhab.transform.xpath.internal;
 
-import java.io.StringReader;
+import java.util.Map;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.config.core.ConfigParser;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
 
 /**
  * <p>
@@ -38,11 +35,23 @@ import org.xml.sax.InputSource;
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
  */
 @NonNullByDefault
-@Component(property = { "openhab.transform=XPATH" })
+@Component(configurationPid = "org.openhab.xpath", property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    private static final String STREAMING_PARAM = "streaming";
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final StaxXPathEvaluator staxEvaluator = new StaxXPathEvaluator();
+    private @Nullable DomXPathEvaluator domEvaluator;
+    private boolean streaming = false;
+
+    @Activate
+    @Modified
+    public void modified(@Nullable Map<String, Object> config) {
+        streaming = config != null && ConfigParser.valueAsOrElse(config.get(STREAMING_PARAM), Boolean.class, false);
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,40 +60,34 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
+        if (streaming && staxEvaluator.supports(xpathExpression)) {
+            try {
+                String transformationResult = staxEvaluator.evaluate(xpathExpression, source);
+                logger.debug("streaming transformation resulted in '{}'", transformationResult);
+                return transformationResult;
+            } catch (XMLStreamException e) {
+                // e.g. a DTD, which is not supported when streaming
+                logger.debug("Streaming transformation failed, falling back to DOM: {}", e.getMessage());
+            }
+        }
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
-            domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-            domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-            domFactory.setXIncludeAware(false);
-            domFactory.setExpandEntityReferences(false);
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
-
-            stringReader = new StringReader(source);
-            InputSource inputSource = new InputSource(stringReader);
-            inputSource.setEncoding("UTF-8");
-
-            Document doc = builder.parse(inputSource);
-
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
-
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            String transformationResult = getDomEvaluator().evaluate(xpathExpression, source);
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
             return transformationResult;
         } catch (Exception e) {
             throw new TransformationException("transformation throws exceptions", e);
-        } finally {
-            if (stringReader != null) {
-                stringReader.close();
-            }
         }
     }
+
+    private synchronized DomXPathEvaluator getDomEvaluator() throws ParserConfigurationException {
+        DomXPathEvaluator domEvaluator = this.domEvaluator;
+        if (domEvaluator == null) {
+            domEvaluator = new DomXPathEvaluator();
+            this.domEvaluator = domEvaluator;
+        }
+        return domEvaluator;
+    }
 }
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Compares the results of the {@link StaxXPathEvaluator} with the {@link DomXPathEvaluator}.
+ *
+ * @author openHAB Team - Initial contribution
+ */
+public class StaxXPathEvaluatorTest extends AbstractTransformationServiceTest {
+
+    private static final String STATUS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <status version="2.0">
+                <sensor id="1"><name>first</name></sensor>
+                <sensor id="2">
+                    <name>second</name>
+                    <value>21.5</value>
+                    <note>a <b>bold</b> note<!-- comment --> after<![CDATA[ <cdata> ]]></note>
+                </sensor>
+                <other xmlns="urn:other"><value>1</value></other>
+            </status>
+            """;
+
+    private final StaxXPathEvaluator staxEvaluator = new StaxXPathEvaluator();
+
+    public static Stream<Arguments> expressions() {
+        return Stream.of(Arguments.of("/status/@version"), Arguments.of("/status/sensor/@id"),
+                Arguments.of("/status/sensor/name"), Arguments.of("/status/sensor/value"),
+                Arguments.of("/status/sensor/value/text()"), Arguments.of("/status/sensor/note"),
+                Arguments.of("/status/sensor/note/text()"), Arguments.of("/status/sensor/@missing"),
+                Arguments.of("/status/other/value"), Arguments.of("/other/value"), Arguments.of("/status/sensor"),
+                Arguments.of("/status/sensor/text()"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("expressions")
+    public void resultEqualsDomEvaluation(String expression) throws Exception {
+        assertTrue(staxEvaluator.supports(expression));
+        assertEquals(new DomXPathEvaluator().evaluate(expression, STATUS),
+                staxEvaluator.evaluate(expression, STATUS));
+    }
+
+    @Test
+    public void complexExpressionsAreNotSupported() throws Exception {
+        assertFalse(staxEvaluator.supports("//current_conditions/temp_c/@data"));
+        assertFalse(staxEvaluator.supports("/status/sensor[2]/name"));
+        assertFalse(staxEvaluator.supports("/*[name()='status']"));
+        assertFalse(staxEvaluator.supports("/ns:status"));
+        assertNull(staxEvaluator.evaluate("count(/status/sensor)", STATUS));
+    }
+
+    @Test
+    public void weatherSource() throws Exception {
+        assertEquals("8", staxEvaluator.evaluate("/xml_api_reply/weather/current_conditions/temp_c/@data", source));
+    }
+}
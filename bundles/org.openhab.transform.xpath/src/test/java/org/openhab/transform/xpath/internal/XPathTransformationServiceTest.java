@@ -14,6 +14,8 @@ package org.openhab.transform.xpath.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openhab.core.transform.TransformationException;
@@ -38,4 +40,29 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByXPathStreaming() throws TransformationException {
+        processor.modified(Map.of("streaming", true));
+
+        assertEquals("8", processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@data", source));
+        // not a simple path, evaluated on the DOM
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+    }
+
+    @Test
+    public void testExternalEntitiesAreNotResolved() {
+        String xxe = "<?xml version=\"1.0\"?><!DOCTYPE root [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>"
+                + "<root><value>&xxe;</value></root>";
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            processor.modified(Map.of("streaming", streaming));
+            try {
+                String result = processor.transform("/root/value", xxe);
+                assertFalse(result != null && result.contains("root:"));
+            } catch (TransformationException e) {
+                // rejecting the document is fine as well
+            }
+        }
+    }
 }
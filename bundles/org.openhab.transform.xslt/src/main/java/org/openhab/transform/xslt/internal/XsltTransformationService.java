@@ -12,12 +12,15 @@
  */
 package org.openhab.transform.xslt.internal;
 
-import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -25,9 +28,13 @@ import javax.xml.transform.stream.StreamSource;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.OpenHAB;
+import org.openhab.core.service.WatchService;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,10 +46,42 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XSLT" })
-public class XsltTransformationService implements TransformationService {
+public class XsltTransformationService implements TransformationService, WatchService.WatchEventListener {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final WatchService watchService;
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    /**
+     * the compiled stylesheets by their file, removed when the file is changed
+     */
+    private final Map<Path, Templates> templatesCache = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+
+    @Activate
+    public XsltTransformationService(
+            final @Reference(target = WatchService.CONFIG_WATCHER_FILTER) WatchService watchService) {
+        this.watchService = watchService;
+        watchService.registerListener(this, Path.of(TransformationService.TRANSFORM_FOLDER_NAME));
+    }
+
+    @Deactivate
+    public void deactivate() {
+        watchService.unregisterListener(this);
+        templatesCache.clear();
+    }
+
+    @Override
+    public void processWatchEvent(WatchService.Kind kind, Path path) {
+        changes.incrementAndGet();
+        // the stylesheet may be included by others, so recompile all if it is not cached itself
+        if (!templatesCache.keySet().removeIf(file -> file.endsWith(path))) {
+            templatesCache.clear();
+        }
+        logger.debug("Stylesheet '{}' changed, removed compiled stylesheets from cache", path);
+    }
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -50,6 +89,8 @@ public class XsltTransformationService implements TransformationService {
      * is stored under the 'configurations/transform' folder. To organize the
      * various transformations one should use subfolders.
      *
+     * The compiled stylesheet is cached until the file is changed.
+     *
      * @param filename the name of the file which contains the XSLT transformation rule.
      *            The name may contain subfoldernames as well
      * @param source the input to transform
@@ -60,12 +101,11 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        Path xsl;
 
         try {
-            String path = OpenHAB.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
-                    + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            xsl = Path.of(OpenHAB.getConfigFolder(), TransformationService.TRANSFORM_FOLDER_NAME, filename)
+                    .toAbsolutePath().normalize();
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -75,21 +115,36 @@ public class XsltTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xsl);
 
-        StringReader xml = new StringReader(source);
-        StringWriter out = new StringWriter();
-
-        Transformer transformer;
+        StringWriter out = new StringWriter(source.length());
 
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
-            transformer.transform(new StreamSource(xml), new StreamResult(out));
+            getTemplates(xsl).newTransformer().transform(new StreamSource(new StringReader(source)),
+                    new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
         }
 
-        logger.debug("transformation resulted in '{}'", out.toString());
+        String result = out.toString();
+        logger.debug("transformation resulted in '{}'", result);
+
+        return result;
+    }
 
-        return out.toString();
+    private Templates getTemplates(Path xsl) throws TransformerConfigurationException {
+        Templates templates = templatesCache.get(xsl);
+        if (templates == null) {
+            long changesBefore = changes.get();
+            // the factory is not thread-safe
+            synchronized (transformerFactory) {
+                templates = transformerFactory.newTemplates(new StreamSource(xsl.toFile()));
+            }
+            if (changes.get() == changesBefore) {
+                // otherwise the file may have changed while compiling
+                templatesCache.put(xsl, templates);
+            }
+            logger.debug("Compiled stylesheet '{}'", xsl);
+        }
+        return templates;
     }
 }
@@ -14,20 +14,43 @@ package org.openhab.transform.xslt.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openhab.core.OpenHAB;
+import org.openhab.core.service.WatchService;
 import org.openhab.core.transform.TransformationException;
+import org.openhab.core.transform.TransformationService;
 
 /**
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
  */
+@ExtendWith(MockitoExtension.class)
 public class XsltTransformationServiceTest extends AbstractTransformationServiceTest {
 
+    private static final String STYLESHEET = """
+            <xsl:stylesheet version="1.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+              <xsl:output method="text"/>
+              <xsl:template match="/">%s</xsl:template>
+            </xsl:stylesheet>
+            """;
+
+    private @Mock WatchService watchService;
+
+    public @TempDir Path folder;
+
     private XsltTransformationService processor;
 
     @BeforeEach
     public void init() {
-        processor = new XsltTransformationService();
+        processor = new XsltTransformationService(watchService);
     }
 
     @Test
@@ -38,4 +61,30 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testStylesheetIsRecompiledAfterChange() throws TransformationException, IOException {
+        Path transformFolder = Files.createDirectories(folder.resolve(TransformationService.TRANSFORM_FOLDER_NAME));
+        Path stylesheet = transformFolder.resolve("test.xsl");
+        String configFolder = System.getProperty(OpenHAB.CONFIG_DIR_PROG_ARGUMENT);
+        System.setProperty(OpenHAB.CONFIG_DIR_PROG_ARGUMENT, folder.toString());
+        try {
+            Files.writeString(stylesheet, STYLESHEET.formatted("first"));
+            assertEquals("first", processor.transform("test.xsl", source));
+
+            // compiled stylesheet is used until the file change is reported
+            Files.writeString(stylesheet, STYLESHEET.formatted("second"));
+            assertEquals("first", processor.transform("test.xsl", source));
+
+            processor.processWatchEvent(WatchService.Kind.MODIFY,
+                    Path.of(TransformationService.TRANSFORM_FOLDER_NAME, "test.xsl"));
+            assertEquals("second", processor.transform("test.xsl", source));
+        } finally {
+            if (configFolder == null) {
+                System.clearProperty(OpenHAB.CONFIG_DIR_PROG_ARGUMENT);
+            } else {
+                System.setProperty(OpenHAB.CONFIG_DIR_PROG_ARGUMENT, configFolder);
+            }
+        }
+    }
 }